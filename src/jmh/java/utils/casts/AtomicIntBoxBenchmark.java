@@ -0,0 +1,83 @@
+/**
+ * JMH contention benchmark for one counter shared by all threads:
+ * synchronized IntBox (the way to share an IntBox without a data race),
+ * AtomicIntBox (CAS, release write, volatile read) and StripedIntBox
+ * (add, sum). The score is the time per operation of one thread.
+ *
+ * The benchmark runs with 4 threads, to see the scaling run it with
+ * others, e. g.
+ *
+ * gradle jmh -PjmhInclude=AtomicIntBoxBenchmark -PjmhArgs='-t 1'
+ * gradle jmh -PjmhInclude=AtomicIntBoxBenchmark -PjmhArgs='-t max'
+ *
+ * Expected: with 1 thread atomicIncrement is the fastest increment; the
+ * more threads, the more stripedIncrement wins (it stays flat, while the
+ * CAS of atomicIncrement and the lock of synchronizedIncrement are
+ * serialized on one cache line). Reads are the other way round:
+ * atomicGet is one load, stripedSum reads all stripes.
+ */
+package utils.casts;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@Threads(4)
+@State(Scope.Benchmark)
+public class AtomicIntBoxBenchmark {
+
+    private final IntBox intBox = IntBox.makeIntBox();
+    private final AtomicIntBox atomic = AtomicIntBox.makeAtomicIntBox();
+    private final StripedIntBox striped = StripedIntBox.makeStripedIntBox();
+
+    @Benchmark
+    public int synchronizedIncrement() {
+        synchronized (intBox) {
+            return intBox.set(intBox.v() + 1);
+        }
+    }
+
+    @Benchmark
+    public int atomicIncrement() {
+        return atomic.incrementAndGet();
+    }
+
+    @Benchmark
+    public void stripedIncrement() {
+        striped.increment();
+    }
+
+    @Benchmark
+    public void atomicSet() {
+        atomic.set(42);
+    }
+
+    @Benchmark
+    public void atomicLazySet() {
+        atomic.lazySet(42);
+    }
+
+    @Benchmark
+    public int atomicGet() {
+        return atomic.get();
+    }
+
+    @Benchmark
+    public int stripedSum() {
+        return striped.sum();
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * JMH benchmarks for DelimitedIntParser: a buffer of N comma/newline
+ * separated ints (the shapes of IntInputs) parsed into an int[].
+ *
+ * splitThenTryParse is the old way (decode, String.split, tryParse per
+ * String), scalarScan searches the delimiters byte by byte and parses
+ * each token with IntBox.tryParse(byte[], ...), parseScalar is the SWAR
+ * scanner of DelimitedIntParser, parse the Vector API engine if the JVM
+ * has it (gradle jmh on a JDK >= 17 adds jdk.incubator.vector), else the
+ * same as parseScalar. The score is the time per int.
+ */
+package utils.casts;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class DelimitedIntParserBenchmark {
+
+    public static final int N = 10000;
+
+    @Param({"SHORT_IDS", "NEAR_LIMITS", "INVALID"})
+    public IntInputs.Shape shape;
+
+    private byte[] buf;
+    private ByteBuffer direct;
+    private int[] dst;
+    private long[] valid;
+    private DelimitedIntParser parser;
+
+    @Setup
+    public void setup() {
+        String[] s = IntInputs.strings(shape, N);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < N; ++i)
+            sb.append(s[i]).append(i % 16 == 15 ? '\n' : ',');
+        buf = sb.toString().getBytes(IntInputs.ASCII);
+        direct = ByteBuffer.allocateDirect(buf.length);
+        direct.put(buf).flip();
+        dst = new int[N];
+        valid = new long[IntBox.validityWords(N)];
+        parser = new DelimitedIntParser(DelimitedIntParser.COMMA_OR_NEWLINE);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public int splitThenTryParse() {
+        String[] tokens = new String(buf, IntInputs.ASCII).split("[,\n]");
+        IntBox ib = IntBox.makeIntBox();
+        for (int i = 0; i < tokens.length; ++i) {
+            boolean ok = IntBox.tryParse(tokens[i], ib);
+            dst[i] = ok ? ib.v() : 0;
+            DelimitedIntParser.setValid(valid, i, ok);
+        }
+        return tokens.length;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public int scalarScan() {
+        byte[] a = buf;
+        IntBox ib = IntBox.makeIntBox();
+        int n = 0;
+        for (int start = 0, i = 0; i < a.length; ++i) {
+            if (a[i] == ',' || a[i] == '\n') {
+                boolean ok = IntBox.tryParse(a, start, i - start, ib);
+                dst[n] = ok ? ib.v() : 0;
+                DelimitedIntParser.setValid(valid, n++, ok);
+                start = i + 1;
+            }
+        }
+        return n;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public int parse() {
+        return parser.parse(buf, 0, buf.length, dst, 0, valid, 0);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public int parseScalar() {
+        return parser.parseScalar(buf, 0, buf.length, dst, 0, valid, 0, 0);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public int parseDirect() {
+        return parser.parse(direct, dst, 0, valid, 0);
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * JMH benchmark for CSV rows with many int columns (10 columns of
+ * NEAR_LIMITS ints, every 4th one quoted), of which 3 are needed:
+ *   split      - line.split(",") and IntBox.tryParse(...) per needed
+ *                field (after removing the quotes), on String lines,
+ *   readerChars - DelimitedRecordReader on one String of all lines,
+ *   readerBytes - DelimitedRecordReader on the ASCII bytes,
+ *   readerBytesMaxColumns - the same, only the first 8 columns split.
+ * Each call reads exactly 1 MB of CSV, so the score (calls per second)
+ * is the throughput in MB/s.
+ */
+package utils.casts;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class DelimitedRecordReaderBenchmark {
+
+    public static final int BYTES = 1 << 20;
+    public static final int COLUMNS = 10;
+    private static final int[] NEEDED = {0, 4, 7};
+
+    private String[] lines;
+    private String text;
+    private byte[] bytes;
+    private int[] dst;
+    private DelimitedRecordReader reader, limitedReader;
+
+    @Setup
+    public void setup() {
+        Random rnd = new Random(IntInputs.SEED);
+        String[] ints = IntInputs.strings(IntInputs.Shape.NEAR_LIMITS, 1024);
+        StringBuilder sb = new StringBuilder(BYTES);
+        java.util.List<String> l = new java.util.ArrayList<String>();
+        for (;;) {
+            StringBuilder line = new StringBuilder();
+            for (int col = 0; col < COLUMNS; ++col) {
+                String s = ints[rnd.nextInt(ints.length)];
+                if (col > 0)
+                    line.append(',');
+                line.append(col % 4 == 3 ? "\"" + s + "\"" : s);
+            }
+            if (sb.length() + line.length() + 1 > BYTES)
+                break;
+            sb.append(line).append('\n');
+            l.add(line.toString());
+        }
+        while (sb.length() < BYTES) // pad to exactly 1 MB
+            sb.append('\n');
+        lines = l.toArray(new String[l.size()]);
+        text = sb.toString();
+        bytes = text.getBytes(IntInputs.ASCII);
+        dst = new int[NEEDED.length];
+        reader = new DelimitedRecordReader();
+        limitedReader = new DelimitedRecordReader(',', '"', 8);
+    }
+
+    @Benchmark
+    public long split() {
+        IntBox box = new IntBox();
+        long sum = 0L;
+        for (String line : lines) {
+            String[] fields = line.split(",");
+            for (int col : NEEDED) {
+                String f = fields[col];
+                if (f.startsWith("\""))
+                    f = f.substring(1, f.length() - 1);
+                if (IntBox.tryParse(f, box))
+                    sum += box.v();
+            }
+        }
+        return sum;
+    }
+
+    private long read(DelimitedRecordReader r) {
+        long sum = 0L;
+        while (r.next()) {
+            r.parseInts(NEEDED, dst, 0, 0);
+            sum += dst[0] + dst[1] + dst[2];
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long readerChars() {
+        reader.reset(text);
+        return read(reader);
+    }
+
+    @Benchmark
+    public long readerBytes() {
+        reader.reset(bytes, 0, bytes.length);
+        return read(reader);
+    }
+
+    @Benchmark
+    public long readerBytesMaxColumns() {
+        limitedReader.reset(bytes, 0, bytes.length);
+        return read(limitedReader);
+    }
+}
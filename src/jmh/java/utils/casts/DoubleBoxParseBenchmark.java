@@ -0,0 +1,81 @@
+/**
+ * JMH benchmarks for DoubleBox.tryParse against Double.parseDouble with
+ * try/catch, on sensor values, prices, long (17 digit) doubles as written
+ * by Double.toString and invalid strings.
+ */
+package utils.casts;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class DoubleBoxParseBenchmark {
+
+    public static final int N = 1024;
+
+    @Param({"SENSOR", "PRICE", "TO_STRING", "INVALID"})
+    public String shape;
+
+    private String[] inputs;
+    private DoubleBox db;
+
+    @Setup
+    public void setup() {
+        Random rnd = new Random(IntInputs.SEED);
+        String[] bad = {"n/a", "", "12,5", "1.2.3", "--4", "1e", "-", "0x1p3"};
+        inputs = new String[N];
+        for (int i = 0; i < N; ++i) {
+            if (shape.equals("SENSOR")) // e. g. "-4.125", "1013.25"
+                inputs[i] = String.valueOf((rnd.nextInt(200000) - 50000) / 1000.0);
+            else if (shape.equals("PRICE")) // e. g. "19.99"
+                inputs[i] = (rnd.nextInt(100000)) / 100 + "." + (10 + rnd.nextInt(90));
+            else if (shape.equals("TO_STRING"))
+                inputs[i] = Double.toString(rnd.nextDouble() * Math.pow(10, rnd.nextInt(40) - 20));
+            else
+                inputs[i] = bad[rnd.nextInt(bad.length)];
+        }
+        db = DoubleBox.makeDoubleBox();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void tryParse(Blackhole bh) {
+        String[] a = inputs;
+        for (int i = 0; i < a.length; ++i) {
+            if (DoubleBox.tryParse(a[i], db))
+                bh.consume(db.v());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void doubleParseDouble(Blackhole bh) {
+        String[] a = inputs;
+        for (int i = 0; i < a.length; ++i) {
+            try {
+                bh.consume(Double.parseDouble(a[i]));
+            } catch (NumberFormatException e) {
+                bh.consume(e);
+            }
+        }
+    }
+}
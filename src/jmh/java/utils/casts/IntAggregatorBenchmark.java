@@ -0,0 +1,93 @@
+/**
+ * JMH benchmark for the profile of a column: N strings (the shapes of
+ * IntInputs) aggregated into count/min/max/sum, the frequency of each
+ * int and a histogram with
+ *   boxed      - Integer.parseInt(...) in a try/catch, a List<Integer>
+ *                and a HashMap<Integer,Long> (the usual pattern), and
+ *   aggregator - IntAggregator with IntCountMap and IntHistogram.
+ * Run it with the gc profiler (gradle jmh does), gc.alloc.rate.norm is
+ * the garbage per string, the score is the time per string.
+ */
+package utils.casts;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class IntAggregatorBenchmark {
+
+    public static final int N = 1024;
+
+    @Param({"SHORT_IDS", "INVALID"})
+    public IntInputs.Shape shape;
+
+    private String[] inputs;
+    private IntAggregator agg;
+
+    @Setup
+    public void setup() {
+        inputs = IntInputs.strings(shape, N);
+        agg = new IntAggregator(new IntCountMap(N), new IntHistogram(0, 1000, 100));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public long boxed() {
+        List<Integer> values = new ArrayList<Integer>();
+        Map<Integer, Long> counts = new HashMap<Integer, Long>();
+        long[] buckets = new long[100];
+        int invalid = 0, min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+        long sum = 0L;
+        for (String s : inputs) {
+            Integer v;
+            try {
+                v = Integer.valueOf(s.trim());
+            } catch (NumberFormatException e) {
+                ++invalid;
+                continue;
+            }
+            values.add(v);
+            Long c = counts.get(v);
+            counts.put(v, c == null ? 1L : c + 1L);
+        }
+        for (Integer v : values) {
+            min = Math.min(min, v);
+            max = Math.max(max, v);
+            sum += v;
+            if (v >= 0 && v < 100000)
+                ++buckets[v / 1000];
+        }
+        return sum + min + max + invalid + counts.size() + buckets[0];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public long aggregator() {
+        agg.reset();
+        for (String s : inputs)
+            agg.add(s);
+        return agg.sum() + agg.min() + agg.max() + agg.invalidCount()
+               + agg.counts().size() + agg.histogram().count(0);
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ * JMH throughput benchmark: IntBox.tryParseAll(...) against the loop we
+ * wrote before (one tryParse per element, defaultValue and validity bit
+ * set by hand). The score is the number of parsed strings per microsecond.
+ */
+package utils.casts;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class IntBoxBatchBenchmark {
+
+    public static final int N = 4096;
+
+    @Param({"SHORT_IDS", "NEAR_LIMITS", "WHITESPACE", "INVALID"})
+    public IntInputs.Shape shape;
+
+    private String[] inputs;
+    private int[] dst;
+    private long[] valid;
+
+    @Setup
+    public void setup() {
+        inputs = IntInputs.strings(shape, N);
+        dst = new int[N];
+        valid = new long[IntBox.validityWords(N)];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public int tryParseLoop() {
+        String[] a = inputs;
+        IntBox ib = IntBox.makeIntBox();
+        int count = 0;
+        for (int i = 0; i < a.length; ++i) {
+            if (IntBox.tryParse(a[i], ib)) {
+                dst[i] = ib.v();
+                valid[i >>> 6] |= 1L << i;
+                ++count;
+            } else {
+                dst[i] = -1;
+                valid[i >>> 6] &= ~(1L << i);
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public int tryParseAll() {
+        return IntBox.tryParseAll(inputs, dst, valid, -1);
+    }
+}
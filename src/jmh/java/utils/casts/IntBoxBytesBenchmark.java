@@ -0,0 +1,97 @@
+/**
+ * JMH benchmarks for the byte[] and ByteBuffer parsing methods of IntBox.
+ *
+ * decodeThenTryParse is what we had to do before: decode the ASCII bytes
+ * into a String and parse the String. The other methods parse the bytes
+ * in place (heap array, heap ByteBuffer and direct ByteBuffer).
+ */
+package utils.casts;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class IntBoxBytesBenchmark {
+
+    public static final int N = 1024;
+
+    @Param({"SHORT_IDS", "NEAR_LIMITS", "LEADING_ZEROS", "WHITESPACE", "INVALID"})
+    public IntInputs.Shape shape;
+
+    private byte[][] inputs;
+    private ByteBuffer[] heapBuffers;
+    private ByteBuffer[] directBuffers;
+    private IntBox ib;
+
+    @Setup
+    public void setup() {
+        inputs = IntInputs.bytes(shape, N);
+        heapBuffers = new ByteBuffer[N];
+        directBuffers = new ByteBuffer[N];
+        for (int i = 0; i < N; ++i) {
+            heapBuffers[i] = ByteBuffer.wrap(inputs[i]);
+            directBuffers[i] = ByteBuffer.allocateDirect(inputs[i].length);
+            directBuffers[i].put(inputs[i]).flip();
+        }
+        ib = IntBox.makeIntBox();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void decodeThenTryParse(Blackhole bh) {
+        byte[][] a = inputs;
+        for (int i = 0; i < a.length; ++i) {
+            if (IntBox.tryParse(new String(a[i], IntInputs.ASCII), ib))
+                bh.consume(ib.v());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void tryParseBytes(Blackhole bh) {
+        byte[][] a = inputs;
+        for (int i = 0; i < a.length; ++i) {
+            if (IntBox.tryParse(a[i], 0, a[i].length, ib))
+                bh.consume(ib.v());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void tryParseHeapBuffer(Blackhole bh) {
+        ByteBuffer[] a = heapBuffers;
+        for (int i = 0; i < a.length; ++i) {
+            if (IntBox.tryParse(a[i], ib))
+                bh.consume(ib.v());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void tryParseDirectBuffer(Blackhole bh) {
+        ByteBuffer[] a = directBuffers;
+        for (int i = 0; i < a.length; ++i) {
+            if (IntBox.tryParse(a[i], ib))
+                bh.consume(ib.v());
+        }
+    }
+}
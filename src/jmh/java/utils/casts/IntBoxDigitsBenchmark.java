@@ -0,0 +1,119 @@
+/**
+ * JMH benchmarks for the digit check of the parsers: N strings (the
+ * shapes of IntInputs).
+ *
+ * isDigitScan and rangeScan only count the digits of all strings, with
+ * Character.isDigit(c) (what the parsers used) and with the unsigned
+ * range compare (char)(c - '0') > 9 (what they use now). tryParse is the
+ * strict ASCII parser, tryParseUnicode the opt-in mode (on the same
+ * ASCII strings, and on the strings with Arabic-Indic digits, against
+ * Integer.parseInt(...) which accepts them as well). The score is the
+ * time per string.
+ */
+package utils.casts;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class IntBoxDigitsBenchmark {
+
+    public static final int N = 1024;
+
+    @Param({"SHORT_IDS", "NEAR_LIMITS"})
+    public IntInputs.Shape shape;
+
+    private String[] ascii;
+    private String[] arabic;
+    private IntBox ib;
+
+    @Setup
+    public void setup() {
+        ascii = IntInputs.strings(shape, N);
+        arabic = new String[N];
+        for (int i = 0; i < N; ++i) {
+            char[] c = ascii[i].toCharArray();
+            for (int j = 0; j < c.length; ++j)
+                if (c[j] >= '0' && c[j] <= '9')
+                    c[j] += '٠' - '0';
+            arabic[i] = new String(c);
+        }
+        ib = IntBox.makeIntBox();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public int isDigitScan() {
+        int n = 0;
+        for (int i = 0; i < N; ++i)
+            for (int j = 0; j < ascii[i].length(); ++j)
+                if (Character.isDigit(ascii[i].charAt(j)))
+                    ++n;
+        return n;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public int rangeScan() {
+        int n = 0;
+        for (int i = 0; i < N; ++i)
+            for (int j = 0; j < ascii[i].length(); ++j)
+                if ((char)(ascii[i].charAt(j) - '0') <= 9)
+                    ++n;
+        return n;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void tryParse(Blackhole bh) {
+        for (int i = 0; i < N; ++i)
+            if (IntBox.tryParse(ascii[i], ib))
+                bh.consume(ib.v());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void tryParseUnicode(Blackhole bh) {
+        for (int i = 0; i < N; ++i)
+            if (IntBox.tryParseUnicode(ascii[i], ib))
+                bh.consume(ib.v());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void tryParseUnicodeArabic(Blackhole bh) {
+        for (int i = 0; i < N; ++i)
+            if (IntBox.tryParseUnicode(arabic[i], ib))
+                bh.consume(ib.v());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void integerParseIntArabic(Blackhole bh) {
+        for (int i = 0; i < N; ++i) {
+            try {
+                bh.consume(Integer.parseInt(arabic[i]));
+            } catch (NumberFormatException e) {
+                bh.consume(e);
+            }
+        }
+    }
+}
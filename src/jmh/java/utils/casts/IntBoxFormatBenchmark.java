@@ -0,0 +1,93 @@
+/**
+ * JMH benchmarks for the formatting methods of IntBox: N ints (the
+ * values of the shapes of IntInputs) written as a CSV line.
+ *
+ * toStringAppend is what we did (one String per value), appendInt is
+ * StringBuilder.append(int) of the JDK, appendTo and writeToBytes are the
+ * IntBox methods (into a StringBuilder and into a byte[] as for an output
+ * stream). appendTo was slower than appendInt with the DIGIT_PAIRS table
+ * (with append(char) and with setCharAt(...)), so it calls append(int)
+ * now. The score is the time per int.
+ */
+package utils.casts;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class IntBoxFormatBenchmark {
+
+    public static final int N = 1024;
+
+    @Param({"SHORT_IDS", "NEAR_LIMITS"})
+    public IntInputs.Shape shape;
+
+    private IntBox[] values;
+    private StringBuilder sb;
+    private byte[] out;
+
+    @Setup
+    public void setup() {
+        String[] s = IntInputs.strings(shape, N);
+        values = new IntBox[N];
+        for (int i = 0; i < N; ++i)
+            values[i] = IntBox.makeIntBox(s[i], 0);
+        sb = new StringBuilder(N * (IntBox.MIN_INT_LEN + 1));
+        out = new byte[N * (IntBox.MIN_INT_LEN + 1)];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public int toStringAppend() {
+        sb.setLength(0);
+        for (int i = 0; i < N; ++i)
+            sb.append(values[i].toString()).append(',');
+        return sb.length();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public int appendInt() {
+        sb.setLength(0);
+        for (int i = 0; i < N; ++i)
+            sb.append(values[i].v()).append(',');
+        return sb.length();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public int appendTo() {
+        sb.setLength(0);
+        for (int i = 0; i < N; ++i)
+            values[i].appendTo(sb).append(',');
+        return sb.length();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public int writeToBytes() {
+        int off = 0;
+        for (int i = 0; i < N; ++i) {
+            off = values[i].writeTo(out, off);
+            out[off++] = ',';
+        }
+        return off;
+    }
+}
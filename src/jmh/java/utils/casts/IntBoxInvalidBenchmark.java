@@ -0,0 +1,94 @@
+/**
+ * JMH benchmarks for the invalid input path of the String entry points
+ * of IntBox: N strings of a dirty feed, invalidPercent of them from the
+ * INVALID shape of IntInputs, the others from NEAR_LIMITS.
+ *
+ * oldSet is the old set(String, int) (Integer.parseInt(...) in a
+ * try/catch, a stack trace for every invalid string), set, makeIntBox
+ * and parseOrDefault are the current exception-free entry points. The
+ * score is the time per string (the GC profiler shows the garbage of
+ * the exceptions).
+ */
+package utils.casts;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class IntBoxInvalidBenchmark {
+
+    public static final int N = 1024;
+
+    @Param({"0", "10", "100"})
+    public int invalidPercent;
+
+    private String[] inputs;
+    private IntBox ib;
+
+    @Setup
+    public void setup() {
+        String[] valid = IntInputs.strings(IntInputs.Shape.NEAR_LIMITS, N);
+        String[] invalid = IntInputs.strings(IntInputs.Shape.INVALID, N);
+        Random rnd = new Random(IntInputs.SEED);
+        inputs = new String[N];
+        for (int i = 0; i < N; ++i)
+            inputs[i] = rnd.nextInt(100) < invalidPercent ? invalid[i] : valid[i];
+        ib = IntBox.makeIntBox();
+    }
+
+    private static int oldSet(IntBox ib, String s, int defaultValue) {
+        int n;
+        try { n=Integer.parseInt(s); }
+        catch (Exception e) {
+            n=defaultValue;
+        }
+        return ib.set(n);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void oldSet(Blackhole bh) {
+        for (int i = 0; i < N; ++i)
+            bh.consume(oldSet(ib, inputs[i], 0));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void set(Blackhole bh) {
+        for (int i = 0; i < N; ++i)
+            bh.consume(ib.set(inputs[i], 0));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void makeIntBox(Blackhole bh) {
+        for (int i = 0; i < N; ++i)
+            bh.consume(IntBox.makeIntBox(inputs[i], 0));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void parseOrDefault(Blackhole bh) {
+        for (int i = 0; i < N; ++i)
+            bh.consume(IntBox.parseOrDefault(inputs[i], 0));
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * JMH benchmarks for the String parsing methods of IntBox.
+ *
+ * Replaces the hand-timed loops the numbers in the IntBox Java-Doc were
+ * taken from. Every benchmark method parses the same array of input
+ * strings (see IntInputs.Shape), so the score is the time per parsed
+ * string. Run with "gradle jmh -PjmhInclude=IntBoxParseBenchmark", the
+ * GC profiler (gc.alloc.rate.norm) then shows the bytes allocated per
+ * parsed string.
+ */
+package utils.casts;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class IntBoxParseBenchmark {
+
+    public static final int N = 1024;
+
+    @Param({"SHORT_IDS", "NEAR_LIMITS", "LEADING_ZEROS", "WHITESPACE", "INVALID"})
+    public IntInputs.Shape shape;
+
+    private String[] inputs;
+    private IntBox ib;
+
+    @Setup
+    public void setup() {
+        inputs = IntInputs.strings(shape, N);
+        ib = IntBox.makeIntBox();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void tryParse(Blackhole bh) {
+        String[] a = inputs;
+        for (int i = 0; i < a.length; ++i) {
+            if (IntBox.tryParse(a[i], ib))
+                bh.consume(ib.v());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void tryParseWithTable(Blackhole bh) {
+        String[] a = inputs;
+        for (int i = 0; i < a.length; ++i) {
+            if (IntBox.tryParseWithTable(a[i], ib))
+                bh.consume(ib.v());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void integerParseInt(Blackhole bh) {
+        String[] a = inputs;
+        for (int i = 0; i < a.length; ++i) {
+            try {
+                bh.consume(Integer.parseInt(a[i]));
+            } catch (NumberFormatException e) {
+                bh.consume(e);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void set(Blackhole bh) {
+        String[] a = inputs;
+        for (int i = 0; i < a.length; ++i)
+            bh.consume(ib.set(a[i], 0));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void makeIntBox(Blackhole bh) {
+        String[] a = inputs;
+        for (int i = 0; i < a.length; ++i)
+            bh.consume(IntBox.makeIntBox(a[i], 0));
+    }
+}
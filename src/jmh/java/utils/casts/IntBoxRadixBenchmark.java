@@ -0,0 +1,111 @@
+/**
+ * JMH benchmarks for hex and unsigned parsing: N random 32 bit request
+ * ids as 8 hex digits (e. g. "9e3779b9") and as unsigned decimal
+ * counters (e. g. "3221225472").
+ *
+ * The old way was Long.parseLong(s, 16) and Long.parseLong(s) (Java 6
+ * has no Integer.parseUnsignedInt(...), Integer.parseInt(s, 16) fails
+ * for ids >= 80000000) with a range check, against tryParseHex(String),
+ * tryParseHex(byte[], ...) (SWAR) and tryParseUnsigned(String). The
+ * score is the time per string.
+ */
+package utils.casts;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class IntBoxRadixBenchmark {
+
+    public static final int N = 1024;
+
+    private String[] hex;
+    private byte[][] hexBytes;
+    private String[] unsigned;
+    private IntBox ib;
+
+    @Setup
+    public void setup() {
+        Random rnd = new Random(IntInputs.SEED);
+        hex = new String[N];
+        hexBytes = new byte[N][];
+        unsigned = new String[N];
+        for (int i = 0; i < N; ++i) {
+            long id = rnd.nextInt() & 0xFFFFFFFFL;
+            hex[i] = Long.toHexString(id | 0x100000000L).substring(1); // 8 digits
+            hexBytes[i] = hex[i].getBytes(IntInputs.ASCII);
+            unsigned[i] = Long.toString(id);
+        }
+        ib = IntBox.makeIntBox();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void longParseLongHex(Blackhole bh) {
+        for (int i = 0; i < N; ++i) {
+            try {
+                long l = Long.parseLong(hex[i], 16);
+                if (l <= 0xFFFFFFFFL)
+                    bh.consume((int)l);
+            } catch (NumberFormatException e) {
+                bh.consume(e);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void tryParseHex(Blackhole bh) {
+        for (int i = 0; i < N; ++i)
+            if (IntBox.tryParseHex(hex[i], ib))
+                bh.consume(ib.v());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void tryParseHexBytes(Blackhole bh) {
+        for (int i = 0; i < N; ++i)
+            if (IntBox.tryParseHex(hexBytes[i], 0, hexBytes[i].length, ib))
+                bh.consume(ib.v());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void longParseLongUnsigned(Blackhole bh) {
+        for (int i = 0; i < N; ++i) {
+            try {
+                long l = Long.parseLong(unsigned[i]);
+                if (l >= 0 && l <= 0xFFFFFFFFL)
+                    bh.consume((int)l);
+            } catch (NumberFormatException e) {
+                bh.consume(e);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void tryParseUnsigned(Blackhole bh) {
+        for (int i = 0; i < N; ++i)
+            if (IntBox.tryParseUnsigned(unsigned[i], ib))
+                bh.consume(ib.v());
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * JMH benchmark for range checked parsing: N ports (1..65535), a quarter
+ * of them junk with the wrong sign or with 10 and more digits (e. g. a
+ * timestamp in the wrong column), parsed by tryParse(...) with a range
+ * check afterwards against tryParseInRange(s, 1, 65535, ...), which
+ * rejects the junk before the digit loop. Both as String and as ASCII
+ * bytes. The score is the time per string.
+ */
+package utils.casts;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class IntBoxRangeBenchmark {
+
+    public static final int N = 1024;
+    public static final int MIN = 1, MAX = 65535;
+
+    private String[] strings;
+    private byte[][] bytes;
+    private IntBox ib;
+
+    @Setup
+    public void setup() {
+        Random rnd = new Random(IntInputs.SEED);
+        strings = new String[N];
+        bytes = new byte[N][];
+        for (int i = 0; i < N; ++i) {
+            switch (rnd.nextInt(8)) {
+                case 0:
+                    strings[i] = String.valueOf(1000000000
+                            + rnd.nextInt(Integer.MAX_VALUE - 1000000000));
+                    break;
+                case 1:
+                    strings[i] = String.valueOf(-1 - rnd.nextInt(65535));
+                    break;
+                default:
+                    strings[i] = String.valueOf(1 + rnd.nextInt(65535));
+                    break;
+            }
+            bytes[i] = strings[i].getBytes(IntInputs.ASCII);
+        }
+        ib = IntBox.makeIntBox();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void tryParseThenCheck(Blackhole bh) {
+        for (int i = 0; i < N; ++i)
+            if (IntBox.tryParse(strings[i], ib) && ib.v() >= MIN && ib.v() <= MAX)
+                bh.consume(ib.v());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void tryParseInRange(Blackhole bh) {
+        for (int i = 0; i < N; ++i)
+            if (IntBox.tryParseInRange(strings[i], MIN, MAX, ib))
+                bh.consume(ib.v());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void tryParseBytesThenCheck(Blackhole bh) {
+        for (int i = 0; i < N; ++i) {
+            byte[] a = bytes[i];
+            if (IntBox.tryParse(a, 0, a.length, ib) && ib.v() >= MIN && ib.v() <= MAX)
+                bh.consume(ib.v());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void tryParseInRangeBytes(Blackhole bh) {
+        for (int i = 0; i < N; ++i) {
+            byte[] a = bytes[i];
+            if (IntBox.tryParseInRange(a, 0, a.length, MIN, MAX, ib))
+                bh.consume(ib.v());
+        }
+    }
+}
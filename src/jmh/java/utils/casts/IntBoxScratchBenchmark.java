@@ -0,0 +1,95 @@
+/**
+ * JMH benchmark for the garbage of the out-parameter of tryParse: N
+ * strings (the shapes of IntInputs) parsed into an int[] by a "handler"
+ * which is not inlined into the loop, as in a request handler, with
+ *   newIntBox  - IntBox.makeIntBox() per call (the usual pattern),
+ *   scratch    - IntBox.scratch(), the IntBox of the thread,
+ *   arraySlot  - one IntArraySlot moved from element to element.
+ * Run it with the gc profiler (gradle jmh does), gc.alloc.rate.norm is
+ * the garbage per call (in bytes, it should be 0 for scratch and
+ * arraySlot), the score is the time per string.
+ */
+package utils.casts;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.CompilerControl;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class IntBoxScratchBenchmark {
+
+    public static final int N = 1024;
+
+    @Param({"SHORT_IDS", "NEAR_LIMITS"})
+    public IntInputs.Shape shape;
+
+    private String[] inputs;
+    private int[] dst;
+    private IntArraySlot slot;
+
+    @Setup
+    public void setup() {
+        inputs = IntInputs.strings(shape, N);
+        dst = new int[N];
+        slot = IntArraySlot.makeIntArraySlot(dst, 0);
+    }
+
+    @CompilerControl(CompilerControl.Mode.DONT_INLINE)
+    private static int handleNew(String s) {
+        IntBox ib = IntBox.makeIntBox();
+        return IntBox.tryParse(s, ib) ? ib.v() : -1;
+    }
+
+    @CompilerControl(CompilerControl.Mode.DONT_INLINE)
+    private static int handleScratch(String s) {
+        IntBox ib = IntBox.scratch();
+        return IntBox.tryParse(s, ib) ? ib.v() : -1;
+    }
+
+    @CompilerControl(CompilerControl.Mode.DONT_INLINE)
+    private static void handleSlot(String s, IntArraySlot slot, int i) {
+        if (!IntBox.tryParse(s, slot.at(i)))
+            slot.set(-1);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public int[] newIntBox() {
+        for (int i = 0; i < N; ++i)
+            dst[i] = handleNew(inputs[i]);
+        return dst;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public int[] scratch() {
+        for (int i = 0; i < N; ++i)
+            dst[i] = handleScratch(inputs[i]);
+        return dst;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public int[] arraySlot() {
+        for (int i = 0; i < N; ++i)
+            handleSlot(inputs[i], slot, i);
+        return dst;
+    }
+}
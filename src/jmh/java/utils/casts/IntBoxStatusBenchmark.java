@@ -0,0 +1,79 @@
+/**
+ * JMH benchmarks for the error path of a dirty feed: N strings (the
+ * shapes of IntInputs) parsed, the invalid ones classified (empty, bad
+ * char, overflow).
+ *
+ * tryParseThenParseInt is what our error handling did: tryParse(...),
+ * on false Integer.parseInt(...) again in a try/catch only to get the
+ * NumberFormatException message. parseStatus gets the status code (and
+ * the index of the bad char) from the one call. The score is the time
+ * per string.
+ */
+package utils.casts;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class IntBoxStatusBenchmark {
+
+    public static final int N = 1024;
+
+    @Param({"NEAR_LIMITS", "INVALID"})
+    public IntInputs.Shape shape;
+
+    private String[] inputs;
+    private IntBox ib;
+
+    @Setup
+    public void setup() {
+        inputs = IntInputs.strings(shape, N);
+        ib = IntBox.makeIntBox();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void tryParseThenParseInt(Blackhole bh) {
+        for (int i = 0; i < N; ++i) {
+            if (IntBox.tryParse(inputs[i], ib))
+                bh.consume(ib.v());
+            else {
+                try {
+                    bh.consume(Integer.parseInt(inputs[i].trim()));
+                } catch (NumberFormatException e) {
+                    bh.consume(e.getMessage());
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void parseStatus(Blackhole bh) {
+        for (int i = 0; i < N; ++i) {
+            int status = IntBox.parseStatus(inputs[i], ib);
+            if (status == IntBox.PARSE_OK)
+                bh.consume(ib.v());
+            else
+                bh.consume(status);
+        }
+    }
+}
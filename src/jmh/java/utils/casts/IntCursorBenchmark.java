@@ -0,0 +1,99 @@
+/**
+ * JMH throughput benchmark for IntCursor: the sum of N newline separated
+ * ints (the shapes of IntInputs) in a byte[] with
+ *   split     - new String(...).split("\n") and Integer.parseInt(...)
+ *               in a try/catch (the Stream<String> way, without streams),
+ *   cursor    - IntCursor.forEachRemaining(...) into an IntAggregator,
+ *   parallel  - IntCursor.aggregate(executor, 4 * threads) with 1, 2, 4,
+ *               ... threads (threads = 0: one per core).
+ * The score is the number of ints per microsecond. Run e. g. with
+ *
+ * gradle jmh -PjmhInclude=IntCursorBenchmark
+ */
+package utils.casts;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class IntCursorBenchmark {
+
+    public static final int N = 1 << 20;
+
+    @Param({"NEAR_LIMITS"})
+    public IntInputs.Shape shape;
+
+    @Param({"1", "2", "4", "0"})
+    public int threads;
+
+    private byte[] bytes;
+    private ExecutorService executor;
+    private int parts;
+
+    @Setup
+    public void setup() {
+        String[] s = IntInputs.strings(shape, N);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < N; ++i)
+            sb.append(s[i]).append('\n');
+        bytes = sb.toString().getBytes(IntInputs.ASCII);
+        int n = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        executor = Executors.newFixedThreadPool(n);
+        parts = 4 * n;
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public long split() {
+        long sum = 0L;
+        for (String line : new String(bytes, IntInputs.ASCII).split("\n")) {
+            try {
+                sum += Integer.parseInt(line.trim());
+            } catch (NumberFormatException e) {
+                // skipped
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public long cursor() {
+        IntAggregator agg = new IntAggregator();
+        new IntCursor(bytes, 0, bytes.length, "\n", IntCursor.Invalid.SKIP, 0)
+                .forEachRemaining(agg);
+        return agg.sum();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public long parallel() throws InterruptedException {
+        return new IntCursor(bytes, 0, bytes.length, "\n", IntCursor.Invalid.SKIP, 0)
+                .aggregate(executor, parts).sum();
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Input data for the JMH benchmarks of the casts package.
+ *
+ * Each Shape describes one kind of input string we actually see in our
+ * feeds. The data is generated with a fixed seed, so all benchmarks (and
+ * all runs) work on the same strings.
+ */
+package utils.casts;
+
+import java.nio.charset.Charset;
+import java.util.Random;
+
+public final class IntInputs {
+
+    public static final long SEED = 20160729L;
+    public static final Charset ASCII = Charset.forName("US-ASCII");
+
+    public enum Shape {
+        SHORT_IDS,     // 1 to 5 digits, positive, e. g. "4711"
+        NEAR_LIMITS,   // 10 digit values near Integer.MAX_VALUE/MIN_VALUE
+        LEADING_ZEROS, // longer than MAX_INT_LEN, e. g. "0002147480000"
+        WHITESPACE,    // surrounded by blanks/tabs, e. g. "  123\t"
+        INVALID        // bad characters, overflow, lonely sign, ...
+    }
+
+    private IntInputs() {
+    }
+
+    public static String[] strings(Shape shape, int n) {
+        Random rnd = new Random(SEED);
+        String[] a = new String[n];
+        for (int i = 0; i < n; ++i)
+            a[i] = string(shape, rnd);
+        return a;
+    }
+
+    // the same strings as strings(shape, n), as ASCII bytes
+    public static byte[][] bytes(Shape shape, int n) {
+        String[] s = strings(shape, n);
+        byte[][] a = new byte[n][];
+        for (int i = 0; i < n; ++i)
+            a[i] = s[i].getBytes(ASCII);
+        return a;
+    }
+
+    static String string(Shape shape, Random rnd) {
+        switch (shape) {
+            case SHORT_IDS:
+                return String.valueOf(rnd.nextInt(100000));
+            case NEAR_LIMITS:
+                if (rnd.nextBoolean())
+                    return String.valueOf(Integer.MAX_VALUE - rnd.nextInt(1000000));
+                else
+                    return String.valueOf(Integer.MIN_VALUE + rnd.nextInt(1000000));
+            case LEADING_ZEROS: {
+                // always more than MAX_INT_LEN digits, so the zeroes must
+                // be trimmed before the value fits into an int
+                int v = rnd.nextInt();
+                String digits = v < 0 ? String.valueOf(v).substring(1)
+                                      : String.valueOf(v);
+                StringBuilder sb = new StringBuilder();
+                if (v < 0)
+                    sb.append('-');
+                for (int z = IntBox.MAX_INT_LEN + 1 + rnd.nextInt(3) - digits.length();
+                     z > 0; --z)
+                    sb.append('0');
+                return sb.append(digits).toString();
+            }
+            case WHITESPACE: {
+                String[] ws = {" ", "  ", "\t", " \t "};
+                return ws[rnd.nextInt(ws.length)] + (rnd.nextInt(2000001) - 1000000)
+                        + ws[rnd.nextInt(ws.length)];
+            }
+            case INVALID:
+            default: {
+                String[] bad = {"12a45", "abc", "2147483648", "-2147483649",
+                        "99999999999", "--1", "1 2", "0x1F", "+-7", "3.14"};
+                return bad[rnd.nextInt(bad.length)];
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * JMH benchmark for the strategies of IntParseStrategies: N strings (the
+ * shapes of IntInputs) parsed with BACKWARD, FORWARD and TABLE, called
+ * through the interface (as SELECTED is), and with
+ * IntParseStrategies.tryParse(...), i. e. the SELECTED strategy (a static
+ * final, which the JIT should inline as well as a direct call). Choose it
+ * with e. g.
+ *
+ * gradle jmh -PjmhInclude=IntParseStrategyBenchmark \
+ *     -PjmhArgs='-jvmArgsAppend -Dutils.casts.IntParseStrategy=calibrate'
+ *
+ * The score is the time per string.
+ */
+package utils.casts;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class IntParseStrategyBenchmark {
+
+    public static final int N = 1024;
+
+    @Param({"SHORT_IDS", "NEAR_LIMITS", "LEADING_ZEROS"})
+    public IntInputs.Shape shape;
+
+    @Param({"BACKWARD", "FORWARD", "TABLE"})
+    public String strategy;
+
+    private String[] inputs;
+    private IntParseStrategy parser;
+
+    @Setup
+    public void setup() {
+        inputs = IntInputs.strings(shape, N);
+        parser = IntParseStrategies.byName(strategy);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public int strategy() {
+        IntBox box = new IntBox();
+        int sum = 0;
+        for (String s : inputs)
+            if (parser.tryParse(s, box))
+                sum += box.v();
+        return sum;
+    }
+
+    // independent of the strategy parameter
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public int selected() {
+        IntBox box = new IntBox();
+        int sum = 0;
+        for (String s : inputs)
+            if (IntParseStrategies.tryParse(s, box))
+                sum += box.v();
+        return sum;
+    }
+}
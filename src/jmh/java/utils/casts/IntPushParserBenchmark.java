@@ -0,0 +1,93 @@
+/**
+ * JMH benchmark for IntPushParser: N newline separated ints (the shapes
+ * of IntInputs) arriving in chunks of chunkSize bytes, as from a socket.
+ *
+ * joinThenTryParse is the old way (the rest of the last chunk is kept as
+ * a String and joined with the next chunk, then split into lines for
+ * IntBox.tryParse(String, ...)), push feeds the chunks to an
+ * IntPushParser which sums the ints up. The score is the time per int.
+ */
+package utils.casts;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class IntPushParserBenchmark {
+
+    public static final int N = 1 << 16;
+
+    @Param({"SHORT_IDS", "NEAR_LIMITS"})
+    public IntInputs.Shape shape;
+
+    @Param({"64", "4096"})
+    public int chunkSize;
+
+    private byte[] bytes;
+
+    @Setup
+    public void setup() {
+        String[] s = IntInputs.strings(shape, N);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < N; ++i)
+            sb.append(s[i]).append('\n');
+        bytes = sb.toString().getBytes(IntInputs.ASCII);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public long joinThenTryParse() {
+        IntBox box = new IntBox();
+        long sum = 0L;
+        String rest = "";
+        for (int off = 0; off < bytes.length; off += chunkSize) {
+            int len = Math.min(chunkSize, bytes.length - off);
+            String text = rest + new String(bytes, off, len, IntInputs.ASCII);
+            int start = 0;
+            for (int i; (i = text.indexOf('\n', start)) >= 0; start = i + 1)
+                if (IntBox.tryParse(text.substring(start, i), box))
+                    sum += box.v();
+            rest = text.substring(start);
+        }
+        if (rest.length() > 0 && IntBox.tryParse(rest, box))
+            sum += box.v();
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public long push() {
+        Sum sum = new Sum();
+        IntPushParser p = new IntPushParser("\n", sum);
+        for (int off = 0; off < bytes.length; off += chunkSize)
+            p.feed(bytes, off, Math.min(chunkSize, bytes.length - off));
+        p.finish();
+        return sum.sum;
+    }
+
+    private static final class Sum implements IntSink {
+        long sum;
+        public void accept(int value) {
+            sum += value;
+        }
+        public void reject(long position, int length) {
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * JMH benchmarks for LongBox.tryParse against Long.parseLong with
+ * try/catch (the way we parsed epoch milliseconds and 64 bit ids before).
+ */
+package utils.casts;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class LongBoxParseBenchmark {
+
+    public static final int N = 1024;
+
+    // EPOCH_MILLIS: 13 digits, IDS: 64 bit ids (up to 19 digits and sign),
+    // INVALID: overflow, bad characters, empty
+    @Param({"EPOCH_MILLIS", "IDS", "INVALID"})
+    public String shape;
+
+    private String[] inputs;
+    private LongBox lb;
+
+    @Setup
+    public void setup() {
+        Random rnd = new Random(IntInputs.SEED);
+        String[] bad = {"9223372036854775808", "-9223372036854775809",
+                "1471859535123x", "", "14718 59535123", "0x7fffffff"};
+        inputs = new String[N];
+        for (int i = 0; i < N; ++i) {
+            if (shape.equals("EPOCH_MILLIS"))
+                inputs[i] = String.valueOf(1400000000000L
+                                           + (rnd.nextLong() >>> 24) % 100000000000L);
+            else if (shape.equals("IDS"))
+                inputs[i] = String.valueOf(rnd.nextLong());
+            else
+                inputs[i] = bad[rnd.nextInt(bad.length)];
+        }
+        lb = LongBox.makeLongBox();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void tryParse(Blackhole bh) {
+        String[] a = inputs;
+        for (int i = 0; i < a.length; ++i) {
+            if (LongBox.tryParse(a[i], lb))
+                bh.consume(lb.v());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void longParseLong(Blackhole bh) {
+        String[] a = inputs;
+        for (int i = 0; i < a.length; ++i) {
+            try {
+                bh.consume(Long.parseLong(a[i]));
+            } catch (NumberFormatException e) {
+                bh.consume(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * JMH benchmarks for MappedIntScanner: a file of N newline separated ints
+ * (the shapes of IntInputs) read completely.
+ *
+ * readLineThenTryParse is the old way (BufferedReader.readLine() and
+ * IntBox.tryParse(String, ...) per line), scanToChunks collects the ints
+ * in IntChunks, scanToSink only sums them up. The score is the time per
+ * line (the file is in the page cache after the first iteration).
+ */
+package utils.casts;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class MappedIntScannerBenchmark {
+
+    public static final int N = 1000000;
+
+    @Param({"SHORT_IDS", "NEAR_LIMITS", "WHITESPACE"})
+    public IntInputs.Shape shape;
+
+    private File file;
+    private MappedIntScanner scanner;
+
+    @Setup
+    public void setup() throws IOException {
+        String[] s = IntInputs.strings(shape, N);
+        file = File.createTempFile("MappedIntScannerBenchmark", ".txt");
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            for (int i = 0; i < N; ++i)
+                out.write((s[i] + '\n').getBytes(IntInputs.ASCII));
+        } finally {
+            out.close();
+        }
+        scanner = new MappedIntScanner();
+    }
+
+    @TearDown
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public long readLineThenTryParse() throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(
+                new FileInputStream(file), IntInputs.ASCII), 1 << 16);
+        try {
+            IntBox ib = IntBox.makeIntBox();
+            long sum = 0L;
+            for (String line = in.readLine(); line != null; line = in.readLine())
+                if (IntBox.tryParse(line, ib))
+                    sum += ib.v();
+            return sum;
+        } finally {
+            in.close();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public IntChunks scanToChunks() throws IOException {
+        return scanner.scan(file, 0);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public long scanToSink() throws IOException {
+        final long[] sum = new long[1];
+        scanner.scan(file, new IntSink() {
+            public void accept(int value) {
+                sum[0] += value;
+            }
+            public void reject(long position, int length) {
+            }
+        });
+        return sum[0];
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * JMH benchmark for OffHeapIntColumn against IntChunks (heap int[]
+ * chunks): N parsed ints (the shapes of IntInputs) added one by one as
+ * from a parser (fill...), and a sequential scan (sum) over a full column
+ * of N ints, through the chunk views (scan...). The score is the time
+ * per int; gc.alloc.rate.norm shows the heap bytes per int (about 4 for
+ * IntChunks, nearly 0 for OffHeapIntColumn).
+ */
+package utils.casts;
+
+import java.nio.IntBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class OffHeapIntColumnBenchmark {
+
+    public static final int N = 1 << 22;
+
+    private int[] values;
+    private IntChunks heap;
+    private OffHeapIntColumn offHeap;
+
+    @Setup
+    public void setup() {
+        String[] s = IntInputs.strings(IntInputs.Shape.NEAR_LIMITS, 4096);
+        values = new int[4096];
+        for (int i = 0; i < values.length; ++i)
+            values[i] = Integer.parseInt(s[i]);
+        heap = fillHeap();
+        offHeap = fillOffHeap();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public IntChunks fillHeap() {
+        IntChunks c = new IntChunks();
+        for (int i = 0; i < N; ++i)
+            c.accept(values[i & 4095]);
+        return c;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public OffHeapIntColumn fillOffHeap() {
+        OffHeapIntColumn c = new OffHeapIntColumn();
+        for (int i = 0; i < N; ++i)
+            c.accept(values[i & 4095]);
+        return c;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public long scanHeap() {
+        long sum = 0L;
+        for (int c = 0; c < heap.chunkCount(); ++c) {
+            int[] a = heap.chunk(c);
+            for (int i = 0, len = (int)Math.min(a.length, heap.size() - (long)c * a.length);
+                 i < len; ++i)
+                sum += a[i];
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public long scanOffHeap() {
+        long sum = 0L;
+        for (int c = 0; c < offHeap.chunkCount(); ++c) {
+            IntBuffer b = offHeap.chunk(c);
+            for (int i = 0, len = b.limit(); i < len; ++i)
+                sum += b.get(i);
+        }
+        return sum;
+    }
+}
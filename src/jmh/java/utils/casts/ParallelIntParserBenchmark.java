@@ -0,0 +1,92 @@
+/**
+ * JMH throughput benchmark for ParallelIntParser: a direct buffer of N
+ * newline separated ints (the shapes of IntInputs, about 10 MB for
+ * NEAR_LIMITS) parsed with 1, 2, 4, ... threads (threads = 0: one per
+ * core) and different split sizes, against the sequential
+ * DelimitedIntParser.parse(...). The score is the number of parsed ints
+ * per microsecond, so it should grow with the threads until the memory
+ * bandwidth is exhausted. Run e. g. with
+ *
+ * gradle jmh -PjmhInclude=ParallelIntParserBenchmark
+ */
+package utils.casts;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ParallelIntParserBenchmark {
+
+    public static final int N = 1 << 20;
+
+    @Param({"NEAR_LIMITS"})
+    public IntInputs.Shape shape;
+
+    @Param({"1", "2", "4", "8", "0"})
+    public int threads;
+
+    @Param({"65536", "1048576"})
+    public int splitSize;
+
+    private ByteBuffer direct;
+    private ExecutorService executor;
+    private ParallelIntParser parallel;
+    private DelimitedIntParser sequential;
+    private int[] dst;
+    private long[] valid;
+
+    @Setup
+    public void setup() {
+        String[] s = IntInputs.strings(shape, N);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < N; ++i)
+            sb.append(s[i]).append('\n');
+        byte[] a = sb.toString().getBytes(IntInputs.ASCII);
+        direct = ByteBuffer.allocateDirect(a.length);
+        direct.put(a).flip();
+        executor = Executors.newFixedThreadPool(
+                threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+        parallel = new ParallelIntParser("\n", executor, splitSize);
+        sequential = new DelimitedIntParser("\n");
+        dst = new int[N];
+        valid = new long[IntBox.validityWords(N)];
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public int sequential() {
+        return sequential.parse(direct, dst, 0, valid, 0);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public ParallelIntParser.Result parallel() throws InterruptedException {
+        return parallel.parse(direct, 0);
+    }
+}
@@ -0,0 +1,67 @@
+/**
+ * JMH benchmark for the cost of ParseStats: N strings (the shapes of
+ * IntInputs) parsed with IntBox.tryParse(...) in a JVM without and in a
+ * JVM with -Dutils.casts.ParseStats=true. Switched off it should be as
+ * fast as before the instrumentation (see IntBoxParseBenchmark), the
+ * difference is what the counters and the sampling cost. The score is
+ * the time per string.
+ */
+package utils.casts;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class ParseStatsBenchmark {
+
+    public static final int N = 1024;
+
+    @Param({"SHORT_IDS", "INVALID"})
+    public IntInputs.Shape shape;
+
+    private String[] inputs;
+
+    @Setup
+    public void setup() {
+        inputs = IntInputs.strings(shape, N);
+    }
+
+    private int parseAll() {
+        IntBox box = new IntBox();
+        int sum = 0;
+        for (String s : inputs)
+            if (IntBox.tryParse(s, box))
+                sum += box.v();
+        return sum;
+    }
+
+    @Benchmark
+    @Fork(2)
+    @OperationsPerInvocation(N)
+    public int disabled() {
+        return parseAll();
+    }
+
+    @Benchmark
+    @Fork(value = 2, jvmArgsAppend = "-D" + ParseStats.PROPERTY + "=true")
+    @OperationsPerInvocation(N)
+    public int enabled() {
+        return parseAll();
+    }
+}
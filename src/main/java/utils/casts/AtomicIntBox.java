@@ -0,0 +1,127 @@
+/**
+ * Thread safe sibling of IntBox: holds exactly one int, which may be
+ * shared between threads (e. g. a counter or a config value passed by
+ * reference). An IntBox has a plain field and unsynchronized set(...)
+ * methods, i. e. sharing it is a data race.
+ *
+ * The int is a volatile field, updated with an AtomicIntegerFieldUpdater
+ * (no extra AtomicInteger object per box), so there are
+ *   - volatile reads and writes: v(), get(), set(...),
+ *   - release writes: lazySet(...) (cheaper than set(...), the write
+ *     becomes visible a little later, but never before the writes which
+ *     come before it in the program, e. g. when publishing a new value
+ *     which is read by other threads with get()),
+ *   - atomic read-modify-write operations: compareAndSet(...),
+ *     getAndSet(...), getAndAdd(...), addAndGet(...) ...
+ *   - tryParseAndSet(...): parse (exactly like IntBox.tryParse(...)) and
+ *     set the value (volatile), but only if the String is a valid int.
+ * Java 6 has no VarHandles, so there are no plain and opaque reads, all
+ * reads are volatile (which are plain loads on x86 anyway).
+ *
+ * For counters which are incremented by many threads at the same time
+ * see StripedIntBox (a CAS on one int does not scale with the threads).
+ *
+ * As IntBox there are no public constructors but static fabric methods
+ * makeAtomicIntBox(...), and no method throws an exception.
+ */
+package utils.casts;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import javax.validation.constraints.NotNull;
+
+public class AtomicIntBox {
+
+    private static final AtomicIntegerFieldUpdater<AtomicIntBox> N =
+            AtomicIntegerFieldUpdater.newUpdater(AtomicIntBox.class, "_n");
+
+    private volatile int _n;
+
+    @NotNull
+    public static AtomicIntBox makeAtomicIntBox() {
+        return new AtomicIntBox();
+    }
+    @NotNull
+    public static AtomicIntBox makeAtomicIntBox(int n) {
+        return new AtomicIntBox(n);
+    }
+    @NotNull
+    public static AtomicIntBox makeAtomicIntBox(String s, int defaultValue) {
+        AtomicIntBox aib = new AtomicIntBox(defaultValue);
+        aib.tryParseAndSet(s);
+        return aib;
+    }
+
+    protected AtomicIntBox() {
+        _n=0;
+    }
+    protected AtomicIntBox(int n) {
+        _n=n;
+    }
+
+    public int v() { // v for "value", volatile read
+        return _n;
+    }
+    public int get() {
+        return _n;
+    }
+    public int set(int n) {
+        _n=n;
+        return n;
+    }
+    public void lazySet(int n) {
+        N.lazySet(this, n);
+    }
+    public boolean compareAndSet(int expect, int update) {
+        return N.compareAndSet(this, expect, update);
+    }
+    // may fail spuriously and gives no ordering for other variables,
+    // only for retry loops
+    public boolean weakCompareAndSet(int expect, int update) {
+        return N.weakCompareAndSet(this, expect, update);
+    }
+    public int getAndSet(int n) {
+        return N.getAndSet(this, n);
+    }
+    public int getAndAdd(int delta) {
+        return N.getAndAdd(this, delta);
+    }
+    public int addAndGet(int delta) {
+        return N.addAndGet(this, delta);
+    }
+    public int getAndIncrement() {
+        return N.getAndIncrement(this);
+    }
+    public int incrementAndGet() {
+        return N.incrementAndGet(this);
+    }
+    public int decrementAndGet() {
+        return N.decrementAndGet(this);
+    }
+
+    // Parses s (with IntBox.tryParse(...), into an IntBox of the thread,
+    // not the one of IntBox.scratch()) and sets the value, if s is a valid int. Otherwise (and for
+    // s == null) the value is not changed and false is returned.
+    public boolean tryParseAndSet(String s) {
+        if (s == null)
+            return false;
+        return tryParseAndSet(s, 0, s.length());
+    }
+    public boolean tryParseAndSet(CharSequence s, int from, int to) {
+        IntBox box = IntBox.internalScratch();
+        if (s == null || !IntBox.tryParse(s, from, to, box))
+            return false;
+        _n=box._n;
+        return true;
+    }
+
+    // a (not shared) IntBox with the current value
+    @NotNull
+    public IntBox toIntBox() {
+        return IntBox.makeIntBox(_n);
+    }
+
+    public String toString() {
+        return Integer.toString(_n);
+    }
+}
@@ -0,0 +1,20 @@
+/**
+ * Bulk engine behind DelimitedIntParser.parse(byte[], ...), for engines
+ * which cannot be compiled with the main classes (release 7), i. e. the
+ * Vector API engine VectorDelimitedIntEngine (src/vector/java, JDK >= 17
+ * with the module jdk.incubator.vector). DelimitedIntParser loads it by reflection, if
+ * the JVM has it, otherwise its own SWAR/scalar parser does the work.
+ *
+ * An engine must give exactly the results of that parser (same tokens,
+ * same values, same validity bits) and must be stateless, it is shared
+ * by all parsers and threads.
+ */
+package utils.casts;
+
+interface DelimitedIntEngine {
+
+    // the contract of DelimitedIntParser.parse(a, off, len, dst, dstOff,
+    // valid, validOff, defaultValue) for the given delimiter bytes
+    int parse(byte[] delimiters, byte[] a, int off, int len, int[] dst,
+              int dstOff, long[] valid, int validOff, int defaultValue);
+}
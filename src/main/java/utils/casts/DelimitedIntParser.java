@@ -0,0 +1,270 @@
+/**
+ * Parser for buffers which are long runs of ints separated by delimiters,
+ * e. g. "17,-4,2147483647\n0,08,x\n" (log and metrics files).
+ *
+ * Every token (the bytes between two delimiters) is parsed with the rules
+ * of IntBox.tryParse(byte[] a, int off, int len, IntBox intBox), i. e.
+ * whitespace around the number (and so a '\r' before a '\n' delimiter) is
+ * accepted. Invalid tokens (including empty ones, e. g. between two
+ * delimiters in a row) get a defaultValue and a 0 in the validity bitmap,
+ * like in IntBox.tryParseAll(...). A delimiter at the very end of the
+ * buffer does not start another (empty) token.
+ *
+ * The delimiters are searched 8 bytes at a time: one long is compared
+ * with all delimiters at once (see Swar.zeroBytes(...)), so the bytes of
+ * a token are only looked at once more, by the parser of the number.
+ *
+ * On a JDK >= 17 started with --add-modules jdk.incubator.vector the
+ * byte[] (and heap ByteBuffer) input of larger buffers goes to the
+ * Vector API engine VectorDelimitedIntEngine instead (see there), which
+ * is compiled separately from src/vector/java and loaded by reflection.
+ * On every other JVM (Java 7 included), or with the system property
+ * utils.casts.DelimitedIntParser.vector=false, the SWAR parser of this
+ * class does the work. Both give the same results, isVectorized() tells
+ * which one is used.
+ *
+ * Example:
+ *
+ * DelimitedIntParser p = new DelimitedIntParser(",\n");
+ * int[] values = new int[p.countTokens(buf, 0, buf.length)];
+ * long[] valid = new long[IntBox.validityWords(values.length)];
+ * p.parse(buf, 0, buf.length, values, 0, valid, 0);
+ */
+package utils.casts;
+
+import java.nio.ByteBuffer;
+
+public class DelimitedIntParser {
+
+    public static final String COMMA_OR_NEWLINE = ",\n";
+
+    public static final String VECTOR_PROPERTY = "utils.casts.DelimitedIntParser.vector";
+    // shorter buffers are not worth the setup of the vector engine
+    static final int VECTOR_MIN_LENGTH = 256;
+    // null: no Vector API on this JVM (or switched off)
+    static final DelimitedIntEngine VECTOR_ENGINE = loadVectorEngine();
+
+    private final byte[] delimiters;
+    private final long[] patterns; // each delimiter in all 8 bytes
+
+    // delimiters: each char of the String is a delimiter, all of them
+    // must be ASCII characters (and none of them a digit or '-')
+    public DelimitedIntParser(String delimiters) throws IllegalArgumentException {
+        if (delimiters == null || delimiters.length() == 0)
+            throw new IllegalArgumentException("No delimiter given");
+        this.delimiters = new byte[delimiters.length()];
+        this.patterns = new long[delimiters.length()];
+        for (int i = 0; i < delimiters.length(); ++i) {
+            char c = delimiters.charAt(i);
+            if (c > 127 || c == '-' || (c >= '0' && c <= '9'))
+                throw new IllegalArgumentException("Invalid delimiter: '" + c + "'");
+            this.delimiters[i] = (byte)c;
+            this.patterns[i] = Swar.broadcast((byte)c);
+        }
+    }
+
+    // true if parse(byte[], ...) uses the Vector API engine
+    public static boolean isVectorized() {
+        return VECTOR_ENGINE != null;
+    }
+
+    // Never fails: without the engine class (a build without src/vector), without
+    // jdk.incubator.vector (NoClassDefFoundError) or on a JVM < 17
+    // (UnsupportedClassVersionError) there is simply no engine.
+    private static DelimitedIntEngine loadVectorEngine() {
+        if ("false".equalsIgnoreCase(System.getProperty(VECTOR_PROPERTY)))
+            return null;
+        try {
+            return (DelimitedIntEngine)Class.forName("utils.casts.VectorDelimitedIntEngine")
+                    .getDeclaredConstructor().newInstance();
+        } catch (Exception e) {
+            return null;
+        } catch (LinkageError e) {
+            return null;
+        }
+    }
+
+    public boolean isDelimiter(byte b) {
+        for (byte d : delimiters)
+            if (b == d)
+                return true;
+        return false;
+    }
+
+    // high bit set in every byte of the 8 bytes in v which is a delimiter
+    long delimiterBytes(long v) {
+        long m = 0L;
+        for (long p : patterns)
+            m |= Swar.zeroBytes(v ^ p);
+        return m;
+    }
+
+    // index of the first delimiter in a[from..to-1], or to if there is none
+    public int indexOfDelimiter(byte[] a, int from, int to) {
+        int i = from;
+        for ( ; i <= to - 8; i += 8) {
+            long m = delimiterBytes(Swar.getLongLE(a, i));
+            if (m != 0L)
+                return i + (Long.numberOfTrailingZeros(m) >>> 3);
+        }
+        for ( ; i < to && !isDelimiter(a[i]); ++i);
+        return i;
+    }
+
+    public int indexOfDelimiter(ByteBuffer buf, int from, int to) {
+        int i = from;
+        for ( ; i <= to - 8; i += 8) {
+            long m = delimiterBytes(Swar.getLongLE(buf, i));
+            if (m != 0L)
+                return i + (Long.numberOfTrailingZeros(m) >>> 3);
+        }
+        for ( ; i < to && !isDelimiter(buf.get(i)); ++i);
+        return i;
+    }
+
+    // number of tokens parse(a, off, len, ...) will find, i. e. the size
+    // the int[] (and the validity bitmap) must have
+    public int countTokens(byte[] a, int off, int len) {
+        if (len <= 0)
+            return 0;
+        int n = 0, i = off, to = off + len;
+        for ( ; i <= to - 8; i += 8)
+            n += Long.bitCount(delimiterBytes(Swar.getLongLE(a, i)));
+        for ( ; i < to; ++i)
+            if (isDelimiter(a[i]))
+                ++n;
+        return isDelimiter(a[to - 1]) ? n : n + 1;
+    }
+
+    public int countTokens(ByteBuffer buf, int from, int to) {
+        if (buf.hasArray())
+            return countTokens(buf.array(), buf.arrayOffset() + from, to - from);
+        if (to <= from)
+            return 0;
+        int n = 0, i = from;
+        for ( ; i <= to - 8; i += 8)
+            n += Long.bitCount(delimiterBytes(Swar.getLongLE(buf, i)));
+        for ( ; i < to; ++i)
+            if (isDelimiter(buf.get(i)))
+                ++n;
+        return isDelimiter(buf.get(to - 1)) ? n : n + 1;
+    }
+
+    // Parses all tokens of a[off..off+len-1] into dst (starting at dstOff).
+    // Bit dstOff+k of valid (if not null) tells whether token k was a
+    // valid int, invalid tokens get defaultValue. Returns the number of
+    // tokens (see countTokens(...)).
+    public int parse(byte[] a, int off, int len, int[] dst, int dstOff,
+                     long[] valid, int defaultValue) {
+        return parse(a, off, len, dst, dstOff, valid, dstOff, defaultValue);
+    }
+
+    // Same, but the validity of token k is bit validOff+k, e. g. for a
+    // thread of ParallelIntParser, which must not write into the words of
+    // the common bitmap shared with its neighbour ranges.
+    int parse(byte[] a, int off, int len, int[] dst, int dstOff,
+              long[] valid, int validOff, int defaultValue) {
+        if (VECTOR_ENGINE != null && len >= VECTOR_MIN_LENGTH)
+            return VECTOR_ENGINE.parse(delimiters, a, off, len, dst, dstOff,
+                                       valid, validOff, defaultValue);
+        return parseScalar(a, off, len, dst, dstOff, valid, validOff, defaultValue);
+    }
+
+    // The SWAR parser: each 8 byte word is loaded once, the tokens ending
+    // in it are found by walking through the delimiter bits of the word
+    // (lowest first).
+    int parseScalar(byte[] a, int off, int len, int[] dst, int dstOff,
+                    long[] valid, int validOff, int defaultValue) {
+        long t0 = ParseStats.ENABLED ? System.nanoTime() : 0L;
+        IntBox box = new IntBox();
+        int d = dstOff, v = validOff, start = off, to = off + len, i = off, end;
+        int invalid = 0; // only counted for ParseStats
+        boolean ok;
+        for ( ; i <= to - 8; i += 8) {
+            for (long m = delimiterBytes(Swar.getLongLE(a, i)); m != 0L;
+                 m &= m - 1L) {
+                end = i + (Long.numberOfTrailingZeros(m) >>> 3);
+                ok = IntBox.tryParse(a, start, end - start, box);
+                dst[d++] = ok ? box._n : defaultValue;
+                if (valid != null)
+                    setValid(valid, v, ok);
+                if (ParseStats.ENABLED && !ok)
+                    ++invalid;
+                ++v;
+                start = end + 1;
+            }
+        }
+        for ( ; i <= to; ++i) {
+            if (i == to ? start < to : isDelimiter(a[i])) {
+                ok = IntBox.tryParse(a, start, i - start, box);
+                dst[d++] = ok ? box._n : defaultValue;
+                if (valid != null)
+                    setValid(valid, v, ok);
+                if (ParseStats.ENABLED && !ok)
+                    ++invalid;
+                ++v;
+                start = i + 1;
+            }
+        }
+        if (ParseStats.ENABLED)
+            ParseStats.batch("DelimitedIntParser.parse", d - dstOff, invalid,
+                             System.nanoTime() - t0);
+        return d - dstOff;
+    }
+
+    // Same for the bytes between position and limit of a (heap or direct)
+    // ByteBuffer. The position of the buffer is not changed.
+    public int parse(ByteBuffer buf, int[] dst, int dstOff,
+                     long[] valid, int defaultValue) {
+        return parse(buf, dst, dstOff, valid, dstOff, defaultValue);
+    }
+
+    int parse(ByteBuffer buf, int[] dst, int dstOff,
+              long[] valid, int validOff, int defaultValue) {
+        if (buf.hasArray())
+            return parse(buf.array(), buf.arrayOffset() + buf.position(),
+                         buf.remaining(), dst, dstOff, valid, validOff, defaultValue);
+        long t0 = ParseStats.ENABLED ? System.nanoTime() : 0L;
+        IntBox box = new IntBox();
+        int d = dstOff, v = validOff, start = buf.position(), to = buf.limit(), i = start, end;
+        int invalid = 0;
+        boolean ok;
+        for ( ; i <= to - 8; i += 8) {
+            for (long m = delimiterBytes(Swar.getLongLE(buf, i)); m != 0L;
+                 m &= m - 1L) {
+                end = i + (Long.numberOfTrailingZeros(m) >>> 3);
+                ok = IntBox.tryParse(buf, start, end, box);
+                dst[d++] = ok ? box._n : defaultValue;
+                if (valid != null)
+                    setValid(valid, v, ok);
+                if (ParseStats.ENABLED && !ok)
+                    ++invalid;
+                ++v;
+                start = end + 1;
+            }
+        }
+        for ( ; i <= to; ++i) {
+            if (i == to ? start < to : isDelimiter(buf.get(i))) {
+                ok = IntBox.tryParse(buf, start, i, box);
+                dst[d++] = ok ? box._n : defaultValue;
+                if (valid != null)
+                    setValid(valid, v, ok);
+                if (ParseStats.ENABLED && !ok)
+                    ++invalid;
+                ++v;
+                start = i + 1;
+            }
+        }
+        if (ParseStats.ENABLED)
+            ParseStats.batch("DelimitedIntParser.parse", d - dstOff, invalid,
+                             System.nanoTime() - t0);
+        return d - dstOff;
+    }
+
+    static void setValid(long[] valid, int i, boolean ok) {
+        if (ok)
+            valid[i >>> 6] |= 1L << i;
+        else
+            valid[i >>> 6] &= ~(1L << i);
+    }
+}
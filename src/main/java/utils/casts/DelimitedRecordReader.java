@@ -0,0 +1,308 @@
+/**
+ * Reader for CSV/TSV records (lines of fields), e. g.
+ *   4711,"Smith, John",42,-7\r\n
+ * which tokenizes a byte[] (e. g. a whole file or a mapped window) or a
+ * CharSequence in place: next() finds the fields of the next record and
+ * keeps only their offsets, the int columns are parsed straight from
+ * there with the rules of IntBox.tryParse(...). No String[] and no String
+ * per field as with line.split(","), and the columns which are not
+ * asked for are skipped without looking at their digits. Only field(...)
+ * creates a String, for the (few) text columns.
+ *
+ * Quoting as in RFC 4180: a field which starts with the quote char ends
+ * at the next single quote char, delimiters and newlines inside are part
+ * of the field, a doubled quote char is one quote char (unescaped by
+ * field(...)). start(...)/end(...) of a quoted field are the offsets
+ * inside the quotes, so "42" is the int 42. Anything between the closing
+ * quote and the next delimiter is ignored. A quote char later in an
+ * unquoted field is an ordinary char.
+ *
+ * A record ends with '\n' (a '\r' before it is removed from the last
+ * field) or at the end of the input; a '\n' at the very end does not
+ * start another record, an empty line is a record with one empty field.
+ *
+ * In the byte[] the delimiters and quotes are searched 8 bytes at a time
+ * (see Swar.zeroBytes(...)), as in DelimitedIntParser.
+ *
+ * Example:
+ *
+ * DelimitedRecordReader r = new DelimitedRecordReader(',', '"', 4);
+ * r.reset(bytes, 0, bytes.length);
+ * IntBox box = new IntBox();
+ * while (r.next())
+ *     if (r.tryParse(2, box))
+ *         ... box.v() ... r.field(1) ...
+ *
+ * Not thread safe (one reader per thread).
+ */
+package utils.casts;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+public class DelimitedRecordReader {
+
+    public static final char NO_QUOTE = 0; // quote char: no quoting at all
+
+    private static final long NEWLINE = Swar.broadcast((byte)'\n');
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final char delimiter, quote;
+    private final long delimiterPattern, quotePattern;
+    private final int maxColumns;
+    private byte[] bytes;       // the input: bytes or chars
+    private CharSequence chars;
+    private int pos, limit;     // next record, end of the input
+    private int recordStart, fieldCount;
+    private int[] starts = new int[16], ends = new int[16];
+    private boolean[] quoted = new boolean[16];
+    private final IntBox box = new IntBox(); // for parseInts(...)
+
+    // comma separated, quoted with '"', all columns
+    public DelimitedRecordReader() {
+        this(',', '"', Integer.MAX_VALUE);
+    }
+
+    // e. g. ('\t', NO_QUOTE, ...) for TSV. maxColumns: only the first
+    // maxColumns fields of a record are kept (the others are skipped up
+    // to the end of the record), 1 + the highest column that is needed.
+    public DelimitedRecordReader(char delimiter, char quote, int maxColumns)
+            throws IllegalArgumentException {
+        if (delimiter > 127 || delimiter == '\n' || delimiter == '-'
+                || (delimiter >= '0' && delimiter <= '9'))
+            throw new IllegalArgumentException("Invalid delimiter: '" + delimiter + "'");
+        if (quote > 127 || quote == '\n' || quote == delimiter || quote == '-'
+                || (quote >= '0' && quote <= '9'))
+            throw new IllegalArgumentException("Invalid quote: '" + quote + "'");
+        if (maxColumns <= 0)
+            throw new IllegalArgumentException("Invalid column count: " + maxColumns);
+        this.delimiter = delimiter;
+        this.quote = quote;
+        this.delimiterPattern = Swar.broadcast((byte)delimiter);
+        this.quotePattern = Swar.broadcast((byte)quote);
+        this.maxColumns = maxColumns;
+    }
+
+    // the records of a[off...off+len-1], offsets are indices in a
+    public void reset(byte[] a, int off, int len) {
+        bytes = a;
+        chars = null;
+        pos = off;
+        limit = off + len;
+        fieldCount = 0;
+    }
+
+    // the records of s, offsets are indices in s
+    public void reset(CharSequence s) {
+        bytes = null;
+        chars = s;
+        pos = 0;
+        limit = s.length();
+        fieldCount = 0;
+    }
+
+    // next record, false at the end of the input
+    public boolean next() {
+        fieldCount = 0;
+        if (pos >= limit)
+            return false;
+        recordStart = pos;
+        if (bytes != null)
+            pos = tokenize(bytes, pos);
+        else
+            pos = tokenize(chars, pos);
+        return true;
+    }
+
+    // fields of the record at i into starts/ends, returns the start of the
+    // next record
+    private int tokenize(byte[] a, int i) {
+        byte q = (byte)quote;
+        for (;;) {
+            if (fieldCount == maxColumns)
+                return skipRecord(a, i);
+            int start = i, end = i;
+            boolean isQuoted = quote != NO_QUOTE && i < limit && a[i] == q;
+            if (isQuoted) {
+                start = ++i;
+                for (;;) {
+                    i = indexOf(a, i, limit, quotePattern, quotePattern);
+                    if (i + 1 < limit && a[i + 1] == q) // "" inside
+                        i += 2;
+                    else
+                        break;
+                }
+                end = i;
+                if (i < limit)
+                    ++i; // the closing quote
+            }
+            i = indexOf(a, i, limit, delimiterPattern, NEWLINE);
+            if (!isQuoted)
+                end = i;
+            if (i == limit || a[i] == '\n') {
+                if (!isQuoted && end > start && a[end - 1] == '\r')
+                    --end;
+                addField(start, end, isQuoted);
+                return i == limit ? i : i + 1;
+            }
+            addField(start, end, isQuoted);
+            ++i; // the delimiter
+        }
+    }
+
+    private int tokenize(CharSequence s, int i) {
+        for (;;) {
+            if (fieldCount == maxColumns)
+                return skipRecord(s, i);
+            int start = i, end = i;
+            char c = 0;
+            boolean isQuoted = quote != NO_QUOTE && i < limit && s.charAt(i) == quote;
+            if (isQuoted) {
+                start = ++i;
+                for ( ; i < limit; ++i) {
+                    if (s.charAt(i) == quote) {
+                        if (i + 1 < limit && s.charAt(i + 1) == quote)
+                            ++i; // "" inside
+                        else
+                            break;
+                    }
+                }
+                end = i;
+                if (i < limit)
+                    ++i;
+            }
+            for ( ; i < limit && (c = s.charAt(i)) != delimiter && c != '\n'; ++i);
+            if (!isQuoted)
+                end = i;
+            if (i == limit || c == '\n') {
+                if (!isQuoted && end > start && s.charAt(end - 1) == '\r')
+                    --end;
+                addField(start, end, isQuoted);
+                return i == limit ? i : i + 1;
+            }
+            addField(start, end, isQuoted);
+            ++i;
+        }
+    }
+
+    // The fields behind the first maxColumns ones: only the end of the
+    // record is searched (the quotes must still be followed, a quoted
+    // field may contain a '\n'; as the fields are not split here, every
+    // quote char counts, also one inside an unquoted field).
+    private int skipRecord(byte[] a, int i) {
+        if (quote == NO_QUOTE)
+            i = indexOf(a, i, limit, NEWLINE, NEWLINE);
+        else
+            while ((i = indexOf(a, i, limit, quotePattern, NEWLINE)) < limit
+                       && a[i] == (byte)quote)
+                i = indexOf(a, i + 1, limit, quotePattern, quotePattern) + 1;
+        return i >= limit ? limit : i + 1;
+    }
+
+    private int skipRecord(CharSequence s, int i) {
+        boolean inQuotes = false;
+        for ( ; i < limit; ++i) {
+            char c = s.charAt(i);
+            if (c == quote && quote != NO_QUOTE)
+                inQuotes = !inQuotes;
+            else if (c == '\n' && !inQuotes)
+                return i + 1;
+        }
+        return limit;
+    }
+
+    // index of the first byte in a[from..to-1] which is one of the bytes
+    // of the patterns p1 and p2 (see Swar.broadcast(...)), or to
+    private static int indexOf(byte[] a, int from, int to, long p1, long p2) {
+        int i = from;
+        for ( ; i <= to - 8; i += 8) {
+            long v = Swar.getLongLE(a, i);
+            long m = Swar.zeroBytes(v ^ p1) | Swar.zeroBytes(v ^ p2);
+            if (m != 0L)
+                return i + (Long.numberOfTrailingZeros(m) >>> 3);
+        }
+        byte b1 = (byte)p1, b2 = (byte)p2;
+        for ( ; i < to && a[i] != b1 && a[i] != b2; ++i);
+        return i;
+    }
+
+    private void addField(int start, int end, boolean isQuoted) {
+        if (fieldCount == starts.length) {
+            starts = Arrays.copyOf(starts, 2 * fieldCount);
+            ends = Arrays.copyOf(ends, 2 * fieldCount);
+            quoted = Arrays.copyOf(quoted, 2 * fieldCount);
+        }
+        starts[fieldCount] = start;
+        ends[fieldCount] = end;
+        quoted[fieldCount++] = isQuoted;
+    }
+
+    // number of fields of the current record (at most maxColumns)
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    // offset of the current record in the input
+    public int recordStart() {
+        return recordStart;
+    }
+
+    // offset of the next record in the input
+    public int position() {
+        return pos;
+    }
+
+    // offsets of the first char and behind the last char of field col
+    // (inside the quotes of a quoted field), col < fieldCount()
+    public int start(int col) {
+        return starts[col];
+    }
+
+    public int end(int col) {
+        return ends[col];
+    }
+
+    public boolean isQuoted(int col) {
+        return quoted[col];
+    }
+
+    // Field col as int, by the rules of IntBox.tryParse(...), false if it
+    // is no int or the record has no field col.
+    public boolean tryParse(int col, IntBox intBox) {
+        if (col < 0 || col >= fieldCount)
+            return false;
+        if (bytes != null)
+            return IntBox.tryParse(bytes, starts[col], ends[col] - starts[col], intBox);
+        return IntBox.tryParse(chars, starts[col], ends[col], intBox);
+    }
+
+    // The int fields columns[k] into dst[dstOff + k], invalid or missing
+    // ones as defaultValue. Returns the number of those.
+    public int parseInts(int[] columns, int[] dst, int dstOff, int defaultValue) {
+        int invalid = 0;
+        for (int k = 0; k < columns.length; ++k) {
+            if (tryParse(columns[k], box)) {
+                dst[dstOff + k] = box._n;
+            } else {
+                dst[dstOff + k] = defaultValue;
+                ++invalid;
+            }
+        }
+        return invalid;
+    }
+
+    // field col as String (bytes as UTF-8, doubled quotes of a quoted
+    // field unescaped), null if the record has no field col
+    public String field(int col) {
+        if (col < 0 || col >= fieldCount)
+            return null;
+        String f = bytes != null
+                ? new String(bytes, starts[col], ends[col] - starts[col], UTF_8)
+                : chars.subSequence(starts[col], ends[col]).toString();
+        if (quoted[col] && f.indexOf(quote) >= 0) {
+            String q = String.valueOf(quote);
+            f = f.replace(q + q, q);
+        }
+        return f;
+    }
+}
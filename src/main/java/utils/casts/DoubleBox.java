@@ -0,0 +1,346 @@
+/** DoubleBox class for Java published under the GNU General Public Licence
+ *  (GPL) version 1 or any newer version
+ *
+ * Class that holds exactly one double, the double counterpart of IntBox
+ * (see the Java-Doc of IntBox for the ideas behind it). As IntBox it has
+ * no public constructors, but static fabric methods makeDoubleBox(...),
+ * and no method throws an exception.
+ *
+ * Usage:
+ *
+ * DoubleBox price = DoubleBox.makeDoubleBox();
+ * if (DoubleBox.tryParse(field, price))
+ *     ... price.v() ...
+ *
+ * tryParse(...) returns exactly the same double as Double.parseDouble(...)
+ * (correctly rounded, round half to even), but returns false instead of
+ * throwing a NumberFormatException. Accepted are (as by Double.parseDouble)
+ * leading and trailing whitespace, an optional sign ('-' or '+'), digits
+ * with an optional decimal point (".5" and "5." are fine), an optional
+ * exponent ("e-7", "E+10") and "NaN" and "Infinity". Not accepted are
+ * the rarely used hexadecimal form ("0x1.8p1") and the type suffixes
+ * ('f', 'F', 'd', 'D') of Double.parseDouble.
+ *
+ * Speed:
+ *
+ * The digits are read once into a long (up to 19 significant digits).
+ * If the long and the power of ten are both exact doubles (at most 2^53
+ * and 10^22), one multiplication or division is the correctly rounded
+ * result (Clinger's fast path, the usual case for sensor values and
+ * prices). All other numbers are converted with the Eisel-Lemire
+ * algorithm (as in fast_float by Daniel Lemire): one (rarely two) 64x128
+ * bit multiplications with a table of the powers of 5. Only if more than
+ * 19 significant digits do not allow a decision, Double.parseDouble(...)
+ * is called (the syntax is already checked then, so it cannot throw).
+ */
+package utils.casts;
+
+import java.math.BigInteger;
+
+import javax.validation.constraints.NotNull;
+
+public class DoubleBox implements Cloneable {
+
+    // BEGIN the following statements are only executed once (see IntBox)
+        // significant digits which always fit into an (unsigned) long
+        public static final int MAX_MANTISSA_DIGITS = 19;
+        static final int SMALLEST_POWER_OF_TEN = -342; // below: always 0
+        static final int LARGEST_POWER_OF_TEN = 308;   // above: infinity
+        static final long MAX_FAST_PATH_MANTISSA = 1L << 53;
+        static final int MAX_FAST_PATH_EXPONENT = 22;
+        static final double[] POWERS_OF_TEN = {
+                1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+                1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+        };
+        static final long INFINITY_BITS = 0x7FF0000000000000L;
+    // END the following statements are only executed once
+
+    protected double _d;
+
+    @NotNull
+    public static DoubleBox makeDoubleBox() {
+        return new DoubleBox();
+    }
+    @NotNull
+    public static DoubleBox makeDoubleBox(double d) {
+        return new DoubleBox(d);
+    }
+    @NotNull
+    public static DoubleBox makeDoubleBox(String s, double defaultValue) {
+        return new DoubleBox(s,defaultValue);
+    }
+    @NotNull
+    public static DoubleBox makeDoubleBox(DoubleBox db, double defaultValue) {
+        return new DoubleBox(db,defaultValue);
+    }
+
+    public DoubleBox() {
+        _d=0.0; // 0.0 is the default value of DoubleBox, if all else fails
+    }
+    protected DoubleBox(double d) {
+        _d=d;
+    }
+    protected DoubleBox(String s, double defaultValue) {
+        if (s == null || !tryParse(s,this))
+            _d=defaultValue;
+    }
+    protected DoubleBox(DoubleBox db, double defaultValue) {
+        if (db == null)
+            _d=defaultValue;
+        else
+            _d=db._d;
+    }
+
+    public double v() { // v for "value"
+        return _d;
+    }
+    public double get() {
+        return _d;
+    }
+    public double set(double d) {
+        _d=d;
+        return _d;
+    }
+    public double set(String s, double defaultValue) {
+        if (s == null || !tryParse(s,this))
+            _d=defaultValue;
+        return _d;
+    }
+
+    public static boolean tryParse(String s, DoubleBox doubleBox) {
+        if (s == null || doubleBox == null)
+            return false; // see IntBox.tryParse(String s,IntBox intBox)
+        return tryParse(s, 0, s.length(), doubleBox);
+    }
+
+    public static boolean tryParse(CharSequence s, int from, int to,
+                                   DoubleBox doubleBox) {
+        if (s == null || doubleBox == null || from < 0 || from > to
+                || to > s.length())
+            return false;
+        while (from < to && s.charAt(from) <= ' ')
+            ++from;
+        while (to > from && s.charAt(to - 1) <= ' ')
+            --to;
+        if (from == to)
+            return false;
+        int i = from;
+        char c = s.charAt(i);
+        boolean negative = c == '-';
+        if (negative || c == '+') {
+            if (++i == to)
+                return false;
+            c = s.charAt(i);
+        }
+        if (c == 'N' || c == 'I')
+            return tryParseSpecial(s, i, to, negative, doubleBox);
+        long w = 0L;     // significant digits (unsigned, at most 19)
+        int nd = 0;      // number of significant digits in w
+        int exp10 = 0;   // decimal exponent of w
+        boolean digits = false, truncated = false;
+        for ( ; i < to && (c = s.charAt(i)) >= '0' && c <= '9'; ++i) {
+            digits = true;
+            if (nd < MAX_MANTISSA_DIGITS) {
+                w = w * 10 + (c - '0');
+                if (w != 0)
+                    ++nd;
+            } else {
+                ++exp10;
+                truncated |= c != '0';
+            }
+        }
+        if (i < to && c == '.') {
+            for (++i; i < to && (c = s.charAt(i)) >= '0' && c <= '9'; ++i) {
+                digits = true;
+                if (nd < MAX_MANTISSA_DIGITS) {
+                    w = w * 10 + (c - '0');
+                    if (w != 0)
+                        ++nd;
+                    --exp10;
+                } else {
+                    truncated |= c != '0';
+                }
+            }
+        }
+        if (!digits)
+            return false;
+        if (i < to && (c == 'e' || c == 'E')) {
+            if (++i == to)
+                return false;
+            c = s.charAt(i);
+            boolean negativeExp = c == '-';
+            if ((negativeExp || c == '+') && ++i == to)
+                return false;
+            int e = 0;
+            int start = i;
+            for ( ; i < to && (c = s.charAt(i)) >= '0' && c <= '9'; ++i) {
+                if (e < 100000) // far beyond any double, avoids overflow
+                    e = e * 10 + (c - '0');
+            }
+            if (i == start)
+                return false;
+            exp10 += negativeExp ? -e : e;
+        }
+        if (i != to)
+            return false;
+        double d;
+        if (w == 0L) {
+            d = 0.0;
+        } else if (!truncated && w <= MAX_FAST_PATH_MANTISSA && w > 0L
+                   && exp10 >= -MAX_FAST_PATH_EXPONENT
+                   && exp10 <= MAX_FAST_PATH_EXPONENT) {
+            d = fastPath(w, exp10);
+        } else {
+            long bits = eiselLemire(w, exp10);
+            if (truncated && bits != eiselLemire(w + 1, exp10)) {
+                // the dropped digits decide the rounding, let the JDK
+                // (with its big integer arithmetic) do it
+                d = Double.parseDouble(s.subSequence(from, to).toString());
+                doubleBox._d = d;
+                return true;
+            }
+            d = Double.longBitsToDouble(bits);
+        }
+        doubleBox._d = negative ? -d : d;
+        return true;
+    }
+
+    private static boolean tryParseSpecial(CharSequence s, int i, int to,
+                                           boolean negative,
+                                           DoubleBox doubleBox) {
+        if (regionEquals(s, i, to, "NaN")) {
+            doubleBox._d = Double.NaN;
+            return true;
+        }
+        if (regionEquals(s, i, to, "Infinity")) {
+            doubleBox._d = negative ? Double.NEGATIVE_INFINITY
+                                    : Double.POSITIVE_INFINITY;
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean regionEquals(CharSequence s, int i, int to,
+                                        String word) {
+        if (to - i != word.length())
+            return false;
+        for (int k = 0; k < word.length(); ++k)
+            if (s.charAt(i + k) != word.charAt(k))
+                return false;
+        return true;
+    }
+
+    // w and 10^|exp10| are exact doubles, so this is correctly rounded
+    // (strictfp for old x87 JVMs, which could otherwise round twice;
+    // javac 17+ warns that it is redundant there, it is not for Java 6)
+    @SuppressWarnings("strictfp")
+    static strictfp double fastPath(long w, int exp10) {
+        double d = (double)w;
+        return exp10 < 0 ? d / POWERS_OF_TEN[-exp10] : d * POWERS_OF_TEN[exp10];
+    }
+
+    // Eisel-Lemire: bits of the double nearest to w * 10^q (w unsigned and
+    // not 0, sign bit not set). Correctly rounded for all w (see Noble
+    // Mushtak and Daniel Lemire, "Fast Number Parsing Without Fallback").
+    static long eiselLemire(long w, int q) {
+        if (w == 0L || q < SMALLEST_POWER_OF_TEN)
+            return 0L;
+        if (q > LARGEST_POWER_OF_TEN)
+            return INFINITY_BITS;
+        int lz = Long.numberOfLeadingZeros(w);
+        w <<= lz;
+        int index = 2 * (q - SMALLEST_POWER_OF_TEN);
+        long[] table = PowersOfFive.TABLE;
+        long hi = unsignedMultiplyHigh(w, table[index]);
+        long lo = w * table[index];
+        if ((hi & 0x1FFL) == 0x1FFL) { // lower 9 bits (not kept) all 1
+            long secondHi = unsignedMultiplyHigh(w, table[index + 1]);
+            lo += secondHi;
+            if ((lo ^ Long.MIN_VALUE) < (secondHi ^ Long.MIN_VALUE)) // carry
+                ++hi;
+        }
+        int upperbit = (int)(hi >>> 63);
+        long mantissa = hi >>> (upperbit + 9);
+        int power2 = (((152170 + 65536) * q) >> 16) + 63 + upperbit - lz + 1023;
+        if (power2 <= 0) { // subnormal
+            if (-power2 + 1 >= 64)
+                return 0L;
+            mantissa >>>= -power2 + 1;
+            mantissa += mantissa & 1L;
+            mantissa >>>= 1;
+            power2 = mantissa < (1L << 52) ? 0 : 1;
+            return mantissa | ((long)power2 << 52);
+        }
+        // exactly between two doubles (only possible if 5^q fits into 64
+        // bits): round to even instead of up
+        if ((lo == 0L || lo == 1L) && q >= -4 && q <= 23 && (mantissa & 3L) == 1L
+                && (mantissa << (upperbit + 9)) == hi)
+            mantissa &= ~1L;
+        mantissa += mantissa & 1L;
+        mantissa >>>= 1;
+        if (mantissa >= (2L << 52)) {
+            mantissa = 1L << 52;
+            ++power2;
+        }
+        mantissa &= ~(1L << 52);
+        if (power2 >= 0x7FF)
+            return INFINITY_BITS;
+        return mantissa | ((long)power2 << 52);
+    }
+
+    // upper 64 bits of the unsigned 128 bit product a * b
+    static long unsignedMultiplyHigh(long a, long b) {
+        long a0 = a & 0xFFFFFFFFL, a1 = a >>> 32;
+        long b0 = b & 0xFFFFFFFFL, b1 = b >>> 32;
+        long p01 = a0 * b1;
+        long middle = a1 * b0 + ((a0 * b0) >>> 32) + (p01 & 0xFFFFFFFFL);
+        return a1 * b1 + (middle >>> 32) + (p01 >>> 32);
+    }
+
+    // 5^q for SMALLEST_POWER_OF_TEN <= q <= LARGEST_POWER_OF_TEN, as 128
+    // bit numbers (most significant bit set, high long first), exactly the
+    // table of fast_float (computed instead of 1302 literals). In a holder
+    // class, so only the first number which needs Eisel-Lemire computes it.
+    static final class PowersOfFive {
+        static final long[] TABLE = powersOfFive128();
+    }
+
+    private static long[] powersOfFive128() {
+        long[] table = new long[2 * (LARGEST_POWER_OF_TEN - SMALLEST_POWER_OF_TEN + 1)];
+        BigInteger five = BigInteger.valueOf(5);
+        BigInteger two128 = BigInteger.ONE.shiftLeft(128);
+        BigInteger p = BigInteger.ONE; // 5^|q|
+        for (int q = 0; q <= LARGEST_POWER_OF_TEN; ++q, p = p.multiply(five)) {
+            // 5^q, shifted to exactly 128 bits (truncated)
+            int bits = p.bitLength();
+            setPowerOfFive(table, q, bits < 128 ? p.shiftLeft(128 - bits)
+                                                : p.shiftRight(bits - 128));
+        }
+        p = five;
+        for (int q = -1; q >= SMALLEST_POWER_OF_TEN; --q, p = p.multiply(five)) {
+            // 2^b / 5^-q rounded up, truncated to 128 bits
+            int z = p.subtract(BigInteger.ONE).bitLength(); // 2^z >= 5^-q
+            int b = q >= -27 ? z + 127 : 2 * z + 128;
+            BigInteger c = BigInteger.ONE.shiftLeft(b).divide(p).add(BigInteger.ONE);
+            if (q < -27 && c.compareTo(two128) >= 0)
+                c = c.shiftRight(c.bitLength() - 128);
+            setPowerOfFive(table, q, c);
+        }
+        return table;
+    }
+
+    private static void setPowerOfFive(long[] table, int q, BigInteger c) {
+        int index = 2 * (q - SMALLEST_POWER_OF_TEN);
+        table[index] = c.shiftRight(64).longValue();
+        table[index + 1] = c.longValue(); // lower 64 bits
+    }
+
+    @Override
+    public Object clone() {
+        return new DoubleBox(this._d);
+    }
+
+    public String toString() {
+        return Double.toString(_d);
+    }
+}
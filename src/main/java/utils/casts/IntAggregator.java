@@ -0,0 +1,183 @@
+/**
+ * Profile of a column of ints in one pass, without boxing and without
+ * keeping the ints: running stats (count, min, max, sum, mean, variance),
+ * optionally the frequency of each int (IntCountMap) and a histogram with
+ * fixed buckets (IntHistogram), and the number of invalid tokens.
+ *
+ * It consumes the parsed values directly: as an IntSink it takes the
+ * output of MappedIntScanner, and add(CharSequence...) parses with
+ * IntBox.parseStatus(...) into an own IntBox (no String, no exception for
+ * invalid tokens), so nothing is allocated per int (only the
+ * IntCountMap grows with the number of distinct ints).
+ *
+ * Not thread safe, but mergeable: one IntAggregator per thread (e. g. per
+ * range of a file, see ParallelIntParser), all merged into one with
+ * merge(...) at the end. The result does not depend on the order of the
+ * merges.
+ *
+ * Example:
+ *
+ * IntAggregator agg = new IntAggregator(new IntCountMap(),
+ *                                       new IntHistogram(0, 100, 10));
+ * new MappedIntScanner().scan(new File("ids.txt"), agg);
+ * ... agg.count() ... agg.invalidCount() ... agg.mean() ...
+ * ... agg.counts().mode(-1) ... agg.histogram().percentile(99) ...
+ */
+package utils.casts;
+
+public class IntAggregator implements IntSink {
+
+    private final IntCountMap counts;   // null: no frequencies
+    private final IntHistogram histogram; // null: no histogram
+    private final IntBox box = new IntBox();
+    private long count, invalidCount;
+    private int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+    private long sum;            // 2^32 ints of any value fit into a long
+    private double mean, m2;     // Welford: mean and sum of squared deviations
+
+    // running stats only
+    public IntAggregator() {
+        this(null, null);
+    }
+
+    // counts and histogram may be null (not collected)
+    public IntAggregator(IntCountMap counts, IntHistogram histogram) {
+        this.counts = counts;
+        this.histogram = histogram;
+    }
+
+    public void accept(int value) {
+        add(value);
+    }
+
+    public void reject(long position, int length) {
+        ++invalidCount;
+    }
+
+    public void add(int v) {
+        ++count;
+        if (v < min)
+            min = v;
+        if (v > max)
+            max = v;
+        sum += v;
+        double d = v - mean;
+        mean += d / count;
+        m2 += d * (v - mean);
+        if (counts != null)
+            counts.add(v);
+        if (histogram != null)
+            histogram.add(v);
+    }
+
+    public void addInvalid() {
+        ++invalidCount;
+    }
+
+    // parses s by the rules of IntBox.tryParse(...), returns if it was
+    // valid (null is counted as invalid, as any other invalid token)
+    public boolean add(CharSequence s) {
+        if (s == null) {
+            ++invalidCount;
+            return false;
+        }
+        return add(s, 0, s.length());
+    }
+
+    public boolean add(CharSequence s, int from, int to) {
+        if (IntBox.parseStatus(s, from, to, box) != IntBox.PARSE_OK) {
+            ++invalidCount;
+            return false;
+        }
+        add(box._n);
+        return true;
+    }
+
+    // The ints a[off...off+len-1] with the validity bitmap of
+    // IntBox.tryParseAll(...) or DelimitedIntParser.parse(...) (bit i
+    // for a[off + i]), invalid ones are only counted.
+    public void addAll(int[] a, int off, int len, long[] valid) {
+        for (int i = 0; i < len; ++i) {
+            if (IntBox.isValid(valid, i))
+                add(a[off + i]);
+            else
+                ++invalidCount;
+        }
+    }
+
+    // Adds everything of other (the stats with the parallel algorithm of
+    // Chan et al. for mean and variance). Both must collect the same:
+    // counts and histogram of both null or both not null, histograms
+    // with the same buckets.
+    public void merge(IntAggregator other) throws IllegalArgumentException {
+        if ((counts == null) != (other.counts == null)
+                || (histogram == null) != (other.histogram == null))
+            throw new IllegalArgumentException("Different aggregations");
+        if (histogram != null)
+            histogram.merge(other.histogram); // may throw, nothing changed yet
+        if (counts != null)
+            counts.merge(other.counts);
+        invalidCount += other.invalidCount;
+        if (other.count == 0L)
+            return;
+        long n = count + other.count;
+        double d = other.mean - mean;
+        mean += d * other.count / n;
+        m2 += other.m2 + d * d * ((double)count * other.count / n);
+        count = n;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public void reset() {
+        count = invalidCount = sum = 0L;
+        min = Integer.MAX_VALUE;
+        max = Integer.MIN_VALUE;
+        mean = m2 = 0.0;
+        if (counts != null)
+            counts.clear();
+        if (histogram != null)
+            histogram.clear();
+    }
+
+    // number of valid ints
+    public long count() {
+        return count;
+    }
+    public long invalidCount() {
+        return invalidCount;
+    }
+    // Integer.MAX_VALUE if count() == 0
+    public int min() {
+        return min;
+    }
+    // Integer.MIN_VALUE if count() == 0
+    public int max() {
+        return max;
+    }
+    public long sum() {
+        return sum;
+    }
+    // 0.0 if count() == 0
+    public double mean() {
+        return mean;
+    }
+    // population variance, 0.0 if count() == 0
+    public double variance() {
+        return count == 0L ? 0.0 : m2 / count;
+    }
+    // null if not collected
+    public IntCountMap counts() {
+        return counts;
+    }
+    public IntHistogram histogram() {
+        return histogram;
+    }
+
+    public String toString() {
+        return "count=" + count + ", invalid=" + invalidCount
+               + (count == 0L ? "" : ", min=" + min + ", max=" + max
+                                     + ", sum=" + sum + ", mean=" + mean);
+    }
+}
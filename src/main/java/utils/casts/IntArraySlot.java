@@ -0,0 +1,95 @@
+/**
+ * An IntBox which is a view of one element (slot) of an int[]: the value
+ * is read from and written into array[index], e. g. tryParse(...) parses
+ * directly into the array:
+ *
+ * IntArraySlot slot = IntArraySlot.makeIntArraySlot(values, 0);
+ * for (int i = 0; i < fields.length; ++i)
+ *     if (!IntBox.tryParse(fields[i], slot.at(i)))
+ *         values[i] = -1;
+ *
+ * It is a flyweight: at(index) moves the same object to another slot, so
+ * one IntArraySlot serves a whole array (or several arrays, see
+ * at(array, index)), instead of one new IntBox per value.
+ *
+ * As for every IntBox: no method throws an exception, except of course
+ * the ArrayIndexOutOfBoundsException of the array if index is not valid.
+ * The _n of the IntBox is not used.
+ */
+package utils.casts;
+
+import javax.validation.constraints.NotNull;
+
+public class IntArraySlot extends IntBox {
+
+    private int[] array;
+    private int index;
+
+    @NotNull
+    public static IntArraySlot makeIntArraySlot(int[] array, int index) {
+        return new IntArraySlot(array, index);
+    }
+
+    protected IntArraySlot(int[] array, int index) {
+        this.array = array;
+        this.index = index;
+    }
+
+    // moves the view to array[index], returns this (not a new object)
+    public IntArraySlot at(int index) {
+        this.index = index;
+        return this;
+    }
+    public IntArraySlot at(int[] array, int index) {
+        this.array = array;
+        this.index = index;
+        return this;
+    }
+
+    public int[] array() {
+        return array;
+    }
+    public int index() {
+        return index;
+    }
+
+    @Override
+    void store(int n) {
+        array[index] = n;
+    }
+
+    @Override
+    public int v() {
+        return array[index];
+    }
+    @Override
+    public int get() {
+        return array[index];
+    }
+    @Override
+    public int set(int n) {
+        return array[index] = n;
+    }
+    @Override
+    public int set(long l, int defaultValue) {
+        return array[index] = super.set(l, defaultValue);
+    }
+    @Override
+    public int set(double d, int defaultValue) {
+        return array[index] = super.set(d, defaultValue);
+    }
+    @Override
+    protected int set(IntBox ib) throws IllegalArgumentException {
+        return array[index] = super.set(ib);
+    }
+
+    // another view of the same slot
+    @Override
+    public Object clone() {
+        return new IntArraySlot(array, index);
+    }
+
+    public String toString() {
+        return Integer.toString(array[index]);
+    }
+}
@@ -41,7 +41,20 @@
  * cin >> input (C++) s="123someNoneWhiteSpaceCharacters" will not be parsed
  * to 123, but tryParse(...) will return false and the IntBox-argument will
  * not be changed (even if it is null).
- * 
+ *
+ * The number need not be a String of its own: tryParse(CharSequence s,
+ * int from, int to, IntBox intBox) and tryParse(char[] a, int off, int len,
+ * IntBox intBox) parse a part of a larger buffer (e. g. a StringBuilder or
+ * CharBuffer) with the same rules, without allocating anything. Numbers
+ * in ASCII bytes (network and file buffers) are parsed without decoding
+ * them to a String by tryParse(byte[] a, int off, int len, IntBox intBox)
+ * and tryParse(ByteBuffer buf, IntBox intBox).
+ *
+ * Most numbers must also lie in a range (ports, percentages, ids > 0).
+ * tryParseInRange(s, min, max, intBox) (also for char[], byte[] and
+ * ByteBuffer) checks the range while parsing and rejects e. g. too long
+ * numbers before their digits are converted.
+ *
  * Speed:
  * The tryParse function is slightly faster than the standard java method
  * int i=Integer.parseInt(String s), even when used without any error
@@ -68,15 +81,21 @@
  * optimized for speed (not for memory usage) and are not recommended
  * for educational purposes (how to parse a string to an int value).
  *
+ * The numbers above are hand-timed. Reproducible numbers (including the
+ * bytes allocated per parse) are produced by the JMH benchmarks in
+ * src/jmh/java/utils/casts, run them with "gradle jmh" (see build.gradle).
+ *
  * Note:
  * There is a function IntBox.tryParseWithTable(string s, IntBox intBox) which
  * may be useful on CPUs without or slow multiplication operation. See the
  * comment before the implementation of the function. On modern Intel processors
  * this function is slower than tryParse(...). Another implementation
- * tryParseForward(...) has been commented out, as it showed in a separate
- * benchmark program, that it is slower than tryParse (which parses backwards),
- * albeit the latter requires 2 instead of 1 multiplications inside the for(...)
- * loop.
+ * tryParseForward(...) was commented out for a long time, as it showed in a
+ * separate benchmark program, that it is slower than tryParse (which parses
+ * backwards), albeit the latter requires 2 instead of 1 multiplications inside
+ * the for(...) loop. As the winner depends on the CPU (and the run), all three
+ * are strategies of IntParseStrategies, which can pick the fastest one at
+ * startup (see there).
  *
  * Example(s):
  *
@@ -100,8 +119,6 @@
  * 
  * WRITE MORE UNIT TESTS! (see directory src/test/java/utils/casts)
  * 
- * Implement a similar LongBox (should be easy) and DoubleBox class 
- * 
  * Port it to pure Java Compiler (JDK) and other IDEs than IntelliJ
  *
  * 
@@ -135,6 +152,10 @@ package utils.casts;
 
 //import org.omg.CORBA.Object;
 
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.RandomAccess;
+
 import javax.validation.constraints.NotNull;
 
 public class IntBox implements Cloneable {
@@ -182,6 +203,16 @@ public class IntBox implements Cloneable {
                   600000000,700000000,800000000,900000000}
                 ,{0,1000000000,2000000000}
         };
+        // digits converted at once by the SWAR path of the byte parsers:
+        static final int SWAR_LEN = 8;
+        static final int SWAR_DEC = 100000000; // 10^SWAR_LEN
+        // "00", "01", ..., "99": the chars of r (0..99) at 2*r and 2*r+1,
+        // for the formatting methods (two digits per division, the
+        // reverse of the DECVALS table):
+        static final char[] DIGIT_PAIRS = digitPairs();
+        // value of an ASCII digit or letter (radix 36: 'a' and 'A' are 10,
+        // ..., 'z' and 'Z' are 35), -1 for all other ASCII chars:
+        static final byte[] DIGIT_VALUES = digitValues();
     // END the following statements are only executed at the...
     // tested with debugger
 
@@ -280,9 +311,49 @@ public class IntBox implements Cloneable {
         if (ib == null)
             _n=defaultValue;
         else
-            _n=ib._n;
+            _n=ib.v(); // not ib._n: ib may be an IntArraySlot
+    }
+
+    // All tryParse(...) methods store their result with this method, so
+    // a subclass (IntArraySlot) can put it somewhere else than into _n.
+    void store(int n) {
+        _n=n;
     }
 
+    // An IntBox for the current thread, as the out-parameter of tryParse
+    // in code which would otherwise allocate a new IntBox per call (e. g.
+    // in a request handler, where escape analysis often fails to remove
+    // the allocation). Only for immediate use: read the value before
+    // anything else (which might use the scratch box as well) is called,
+    // never store or pass the box on.
+    //
+    // IntBox box = IntBox.scratch();
+    // if (IntBox.tryParse(param, box))
+    //     limit = box.v();
+    @NotNull
+    public static IntBox scratch() {
+        return SCRATCH.get();
+    }
+    private static final ThreadLocal<IntBox> SCRATCH = new ThreadLocal<IntBox>() {
+        @Override
+        protected IntBox initialValue() {
+            return new IntBox();
+        }
+    };
+    // The out-parameter of this package itself (parseOrDefault(...) and
+    // the other classes here), not the box of scratch(), in which a
+    // caller may still hold a value, e. g.
+    // IntBox.tryParse(a, box) && IntBox.parseOrDefault(b, 0) < box.v().
+    static IntBox internalScratch() {
+        return INTERNAL_SCRATCH.get();
+    }
+    private static final ThreadLocal<IntBox> INTERNAL_SCRATCH = new ThreadLocal<IntBox>() {
+        @Override
+        protected IntBox initialValue() {
+            return new IntBox();
+        }
+    };
+
     public int v() { // v for "value"
         return _n;
     }
@@ -330,7 +401,7 @@ public class IntBox implements Cloneable {
     protected int set(IntBox ib) throws IllegalArgumentException {
         if (ib == null)
             throw new IllegalArgumentException(UNINITALIZED_INTBOX);
-        return _n=ib._n;
+        return _n=ib.v();
     }
     // This won't work:
     //public int set(IntBox ib, int defaultValue) {
@@ -362,12 +433,35 @@ public class IntBox implements Cloneable {
     //    }
     //    return _n;
     //}
+    // Old (an exception with a stack trace for every invalid String):
+    //public int set(String s,int defaultValue) {
+    //    try { _n=Integer.parseInt(s); }
+    //    catch (Exception e) {
+    //        _n=defaultValue;
+    //    }
+    //    return _n;
+    //}
+    // New, with tryParse of this class (as the constructor), i. e. the
+    // same rules as makeIntBox(String,int) and parseOrDefault(String,int):
     public int set(String s,int defaultValue) {
-        try { _n=Integer.parseInt(s); }
-        catch (Exception e) {
-            _n=defaultValue;
-        }
-        return _n;
+        if (!tryParse(s,this))
+            store(defaultValue);
+        return v(); // not _n (for IntArraySlot)
+    }
+    // The int of s, or defaultValue if s is no valid int (or null). The
+    // same rules as tryParse(...) (and set(String,int), makeIntBox(String,
+    // int)), with an IntBox of the thread as out-parameter (not the one
+    // of scratch()), so nothing is allocated and nothing is thrown:
+    //
+    // int limit = IntBox.parseOrDefault(request.getParameter("limit"), 100);
+    public static int parseOrDefault(String s, int defaultValue) {
+        IntBox box = internalScratch();
+        return parseStatus(s, box) == PARSE_OK ? box._n : defaultValue;
+    }
+    public static int parseOrDefault(CharSequence s, int from, int to,
+                                     int defaultValue) {
+        IntBox box = internalScratch();
+        return parseStatus(s, from, to, box) == PARSE_OK ? box._n : defaultValue;
     }
     // This works, but is not wanted:
     //public IntBox parse(String s) throws IllegalArgumentException {
@@ -423,13 +517,20 @@ public class IntBox implements Cloneable {
             // intBox=new IntBox(); // This doesn't work, as intBox itself is
                                     // passed by value
             return false; // so we simply return false
+        if (s == null)
+            return false;
         s=s.trim();
         int len=s.length();
         boolean negative=false;
         int rslt=0, d, i, j;
+        if (len == 0) // as tryParse(...), not charAt(0) of an empty String
+            return false;
         char c=s.charAt(0);
-        if (c == '-')
+        if (c == '-') {
+            if (len == 1) // a lonely sign is no number
+                return false;
             negative=true;
+        }
         if (len > MAX_INT_LEN) {
             s = ltrimZeroes(s);
             len = s.length();
@@ -442,7 +543,7 @@ public class IntBox implements Cloneable {
             int minIntLen = MIN_INT_LEN - 2;
             for (i = len - 1, j = 0; i >= 1; --i, ++j) {
                 c = s.charAt(i);
-                if (!Character.isDigit(c))
+                if ((char)(c - '0') > 9)
                     return false;
                 d = c-'0'; // convert current char (a digit) to int
                 if (j >= minIntLen) {
@@ -457,7 +558,7 @@ public class IntBox implements Cloneable {
             int maxIntLen = MAX_INT_LEN-1;
             for (i = len - 1, j = 0; i >= 0; --i, ++j) {
                 c = s.charAt(i);
-                if (!Character.isDigit(c))
+                if ((char)(c - '0') > 9)
                     return false;
                 d = c-'0'; // convert current char (a digit) to int
                 if (j >= maxIntLen) {
@@ -469,7 +570,7 @@ public class IntBox implements Cloneable {
                 rslt += DECVALS[j][d];
             }
         }
-        intBox._n=rslt;
+        intBox.store(rslt);
         return true;
     }
 
@@ -480,14 +581,20 @@ public class IntBox implements Cloneable {
         else
             return ltrimZeroesPositive(s);
     }
+    // The last digit is kept, so "000" gives "0" (and not "" or a
+    // StringIndexOutOfBoundsException).
     protected static String ltrimZeroesNegative(String s) {
         int i=1;
-        for ( ; s.charAt(i) == '0'; i++);
+        for ( ; i < s.length() - 1 && s.charAt(i) == '0'; i++);
+        if (ParseStats.ENABLED) // always a new String
+            ParseStats.increment(ParseStats.LTRIM_ALLOCATIONS);
         return ("-"+s.substring(i));
     }
     protected static String ltrimZeroesPositive(String s) {
         int i=0;
-        for ( ; s.charAt(i) == '0'; i++);
+        for ( ; i < s.length() - 1 && s.charAt(i) == '0'; i++);
+        if (ParseStats.ENABLED && i > 0) // substring(0) is s itself
+            ParseStats.increment(ParseStats.LTRIM_ALLOCATIONS);
         return (s.substring(i));
     }
 
@@ -495,37 +602,261 @@ public class IntBox implements Cloneable {
     //public static boolean tryParseBackward(String s,IntBox intBox) {
     // New name (as this method seems to be the fastest):
     public static boolean tryParse(String s,IntBox intBox) {
-        if (intBox == null)
-            // intBox=new IntBox(); // This doesn't work, as intBox itself is
-            // passed by value and cannot changed for the caller. I. e.
-            // "out"-arguments of C# cannot be simulated in Java.
-            return false; // so we simply return false
-        s=s.trim();
-        int len=s.length();
-        int rslt=0, d, dfirst=0, i, j;
-        char c=s.charAt(0);
+        // intBox == null: intBox=new IntBox(); doesn't work, as intBox
+        // itself is passed by value and cannot changed for the caller.
+        // I. e. "out"-arguments of C# cannot be simulated in Java, so we
+        // simply return false (PARSE_INVALID_ARGUMENT).
+        return parseStatus(s, intBox) == PARSE_OK;
+    }
+
+    // tryParse for a part of a CharSequence (String, StringBuilder,
+    // CharBuffer, ...), from inclusive and to exclusive (like in
+    // String.substring(from,to)). Same rules as tryParse(String,IntBox),
+    // i. e. whitespace (all chars <= ' ', like String.trim()) before and
+    // after the number is accepted. Allocates nothing. Returns false (and
+    // does not change intBox) for an empty or invalid range.
+    // Only the ASCII digits '0'..'9' are digits (as in all parsers of
+    // this package): (char)(c - '0') > 9 is one unsigned compare, no call
+    // of Character.isDigit(c), which also accepts e. g. Arabic-Indic or
+    // full-width digits (for which c-'0' is garbage). For those see
+    // tryParseUnicode(...).
+    public static boolean tryParse(CharSequence s, int from, int to,
+                                   IntBox intBox) {
+        return parseStatus(s, from, to, intBox) == PARSE_OK;
+    }
+
+    // Opt-in mode for decimal digits of all scripts (Character.digit(c,
+    // 10), e. g. "\u0664\u0662" (Arabic-Indic) gives 42, digits of
+    // different scripts may be mixed, like in Integer.parseInt(...)).
+    // Pure ASCII numbers take the normal (fast) tryParse(...), only if
+    // that fails the chars are decoded with Character.digit(...).
+    public static boolean tryParseUnicode(String s, IntBox intBox) {
+        if (s == null)
+            return false;
+        return tryParseUnicode(s, 0, s.length(), intBox);
+    }
+
+    public static boolean tryParseUnicode(CharSequence s, int from, int to,
+                                          IntBox intBox) {
+        int status = parseStatus(s, from, to, intBox);
+        if (status == PARSE_OK)
+            return true;
+        if (statusCode(status) != PARSE_INVALID_CHAR
+                || s.charAt(from + statusIndex(status)) < 128)
+            return false; // no non-ASCII char can make it valid
+        while (from < to && s.charAt(from) <= ' ')
+            ++from;
+        while (to > from && s.charAt(to - 1) <= ' ')
+            --to;
+        boolean negative = s.charAt(from) == '-'; // from < to (not PARSE_EMPTY)
+        if (negative && ++from == to)
+            return false;
+        long limit = negative ? -(long)Integer.MIN_VALUE : Integer.MAX_VALUE;
+        long rslt = 0L;
+        for (int i = from; i < to; ++i) {
+            int d = Character.digit(s.charAt(i), 10);
+            if (d < 0)
+                return false;
+            rslt = rslt * 10 + d;
+            if (rslt > limit)
+                return false;
+        }
+        intBox.store((int)(negative ? -rslt : rslt));
+        return true;
+    }
+
+    // Status codes of parseStatus(...): instead of the bare false of
+    // tryParse(...) they tell why a String is not an int, without an
+    // exception (and without parsing it again with Integer.parseInt(...)
+    // in a try/catch only to find out). The int returned by
+    // parseStatus(...) has the code in its lowest 4 bits and the index
+    // of the failing char (relative to from, i. e. the index in s for
+    // parseStatus(String, IntBox)) in the other bits, see statusCode(...)
+    // and statusIndex(...). PARSE_OK is 0, i. e. status == PARSE_OK is
+    // the same as tryParse(...) returning true.
+    public static final int PARSE_OK = 0;
+    public static final int PARSE_EMPTY = 1;        // nothing but whitespace
+    public static final int PARSE_NO_DIGITS = 2;    // only a '-' (index: the '-')
+    public static final int PARSE_INVALID_CHAR = 3; // index: the first bad char
+    public static final int PARSE_OVERFLOW = 4;     // > Integer.MAX_VALUE (index:
+    public static final int PARSE_UNDERFLOW = 5;    // < Integer.MIN_VALUE  the number)
+    public static final int PARSE_INVALID_ARGUMENT = 6; // null or bad range
+    private static final String[] STATUS_NAMES = {"OK", "EMPTY", "NO_DIGITS",
+            "INVALID_CHAR", "OVERFLOW", "UNDERFLOW", "INVALID_ARGUMENT"};
+    static final int STATUS_CODE_BITS = 4;
+
+    public static int statusCode(int status) {
+        return status & ((1 << STATUS_CODE_BITS) - 1);
+    }
+    public static int statusIndex(int status) {
+        return status >>> STATUS_CODE_BITS;
+    }
+    // e. g. "INVALID_CHAR at 3" (for log messages, allocates a String)
+    public static String statusToString(int status) {
+        return status == PARSE_OK ? "OK" : STATUS_NAMES[statusCode(status)]
+                                           + " at " + statusIndex(status);
+    }
+    static int status(int code, int index) {
+        return code | Math.min(index, Integer.MAX_VALUE >>> STATUS_CODE_BITS)
+                      << STATUS_CODE_BITS;
+    }
+
+    public static int parseStatus(String s, IntBox intBox) {
+        if (s == null)
+            return PARSE_INVALID_ARGUMENT;
+        return parseStatus(s, 0, s.length(), intBox);
+    }
+
+    // tryParse(...) above only compares its status with PARSE_OK.
+    // With ParseStats.ENABLED (a static final, so the JIT drops the test
+    // if it is false) the parse is counted and sampled by ParseStats.
+    public static int parseStatus(CharSequence s, int from, int to,
+                                  IntBox intBox) {
+        if (ParseStats.ENABLED)
+            return ParseStats.parseStatus(s, from, to, intBox);
+        return parseDecimal(s, from, to, intBox);
+    }
+
+    // The parser itself. The classification of an invalid number is done
+    // by parseFailure(...), so it costs nothing for valid numbers.
+    static int parseDecimal(CharSequence s, int from, int to, IntBox intBox) {
+        if (s == null || intBox == null || from < 0 || from > to || to > s.length())
+            return PARSE_INVALID_ARGUMENT;
+        final int begin = from;
+        while (from < to && s.charAt(from) <= ' ') // instead of s.trim()
+            ++from;
+        while (to > from && s.charAt(to - 1) <= ' ')
+            --to;
+        if (from == to)
+            return status(PARSE_EMPTY, to - begin);
+        final int start = from; // first char of the number
+        int len=to-from; // len and the indices below include the sign
+        int rslt=0, dfirst=0, i, j;
+        char c=s.charAt(from);
         if (c == '-') {
-            if (len > MIN_INT_LEN) { // corrected (added) 2016 08 17
-                s = ltrimZeroesNegative(s);
-                len = s.length();
+            if (len > MIN_INT_LEN) { // instead of ltrimZeroesNegative(s)
+                i = from + 1;
+                for ( ; i < to - 1 && s.charAt(i) == '0'; ++i);
+                if (ParseStats.ENABLED && i > from + 1)
+                    ParseStats.increment(ParseStats.LEADING_ZEROS);
+                from = i - 1; // the sign is never read again (len >= 2)
+                len = to - from;
             }
             if (len >= MIN_INT_LEN) {
-                c = s.charAt(1);
-                if (!Character.isDigit(c))
+                c = s.charAt(from + 1);
+                if ((char)(c - '0') > 9)
+                    return parseFailure(s, start, to, begin);
+                dfirst = c-'0';
+                if (len > MIN_INT_LEN || dfirst > MIN_INT_FIRSTDIGIT)
+                    return parseFailure(s, start, to, begin);
+            }
+            for (i = to - 1, j = 1; i >= from + 2; --i, j *= 10) {
+                c = s.charAt(i);
+                if ((char)(c - '0') > 9)
+                    return parseFailure(s, start, to, begin);
+                rslt -= (c-'0')*j;
+            }
+            if (len < MIN_INT_LEN) {
+                c = s.charAt(i);
+                if ((char)(c - '0') > 9)
+                    return parseFailure(s, start, to, begin);
+                rslt -= (c-'0')*j;
+            } else {
+                if (dfirst >= MIN_INT_FIRSTDIGIT && rslt < MIN_INT_LASTDEC)
+                    return parseFailure(s, start, to, begin);
+                rslt -= dfirst * j;
+            }
+        } else {
+            if (len > MAX_INT_LEN) { // instead of ltrimZeroesPositive(s)
+                for ( ; from < to - 1 && s.charAt(from) == '0'; ++from);
+                if (ParseStats.ENABLED && from > start)
+                    ParseStats.increment(ParseStats.LEADING_ZEROS);
+                len = to - from;
+            }
+            if (len >= MAX_INT_LEN) {
+                c = s.charAt(from);
+                if ((char)(c - '0') > 9)
+                    return parseFailure(s, start, to, begin);
+                dfirst = c-'0';
+                if (len > MAX_INT_LEN || dfirst > MAX_INT_FIRSTDIGIT)
+                    return parseFailure(s, start, to, begin);
+            }
+            for (i = to - 1, j = 1; i >= from + 1; --i, j *= 10) {
+                c = s.charAt(i);
+                if ((char)(c - '0') > 9)
+                    return parseFailure(s, start, to, begin);
+                rslt += (c-'0')*j;
+            }
+            if (len < MAX_INT_LEN) {
+                c = s.charAt(i);
+                if ((char)(c - '0') > 9)
+                    return parseFailure(s, start, to, begin);
+                rslt += (c-'0')*j;
+            } else {
+                if (dfirst >= MAX_INT_FIRSTDIGIT && rslt > MAX_INT_LASTDEC)
+                    return parseFailure(s, start, to, begin);
+                rslt += dfirst * j;
+            }
+        }
+        intBox.store(rslt);
+        return PARSE_OK;
+    }
+
+    // only called for an invalid number s[from..to-1] (without the
+    // whitespace around it), begin is the from of the caller
+    private static int parseFailure(CharSequence s, int from, int to, int begin) {
+        int i = from;
+        boolean negative = s.charAt(i) == '-';
+        if (negative && ++i == to)
+            return status(PARSE_NO_DIGITS, from - begin);
+        for ( ; i < to; ++i)
+            if ((char)(s.charAt(i) - '0') > 9)
+                return status(PARSE_INVALID_CHAR, i - begin);
+        return status(negative ? PARSE_UNDERFLOW : PARSE_OVERFLOW, from - begin);
+    }
+
+    // Same as above for len chars of a char array, starting at off.
+    // A copy of the CharSequence version (instead of wrapping the array
+    // in a CharBuffer), so the hot loop has no interface call and no
+    // allocation at all.
+    public static boolean tryParse(char[] a, int off, int len,
+                                   IntBox intBox) {
+        if (intBox == null || off < 0 || len < 0 || len > a.length - off)
+            return false;
+        int from=off, to=off+len;
+        while (from < to && a[from] <= ' ')
+            ++from;
+        while (to > from && a[to - 1] <= ' ')
+            --to;
+        if (from == to)
+            return false;
+        len=to-from;
+        int rslt=0, dfirst=0, i, j;
+        char c=a[from];
+        if (c == '-') {
+            if (len > MIN_INT_LEN) {
+                i = from + 1;
+                for ( ; i < to - 1 && a[i] == '0'; ++i);
+                from = i - 1;
+                len = to - from;
+            }
+            if (len >= MIN_INT_LEN) {
+                c = a[from + 1];
+                if ((char)(c - '0') > 9)
                     return false;
                 dfirst = c-'0';
                 if (len > MIN_INT_LEN || dfirst > MIN_INT_FIRSTDIGIT)
                     return false;
             }
-            for (i = len - 1, j = 1; i >= 2; --i, j *= 10) {
-                c = s.charAt(i);
-                if (!Character.isDigit(c))
+            for (i = to - 1, j = 1; i >= from + 2; --i, j *= 10) {
+                c = a[i];
+                if ((char)(c - '0') > 9)
                     return false;
                 rslt -= (c-'0')*j;
             }
             if (len < MIN_INT_LEN) {
-                c = s.charAt(i);
-                if (!Character.isDigit(c))
+                c = a[i];
+                if ((char)(c - '0') > 9)
                     return false;
                 rslt -= (c-'0')*j;
             } else {
@@ -534,98 +865,846 @@ public class IntBox implements Cloneable {
                 rslt -= dfirst * j;
             }
         } else {
-            if (len > MAX_INT_LEN) { // corrected (added) 2016 08 16
-                s = ltrimZeroesPositive(s);
-                len=s.length();
+            if (len > MAX_INT_LEN) {
+                for ( ; from < to - 1 && a[from] == '0'; ++from);
+                len = to - from;
             }
             if (len >= MAX_INT_LEN) {
-                c = s.charAt(0);
-                if (!Character.isDigit(c))
+                c = a[from];
+                if ((char)(c - '0') > 9)
                     return false;
                 dfirst = c-'0';
                 if (len > MAX_INT_LEN || dfirst > MAX_INT_FIRSTDIGIT)
                     return false;
             }
-            for (i = len - 1, j = 1; i >= 1; --i, j *= 10) {
-                c = s.charAt(i);
-                if (!Character.isDigit(c))
+            for (i = to - 1, j = 1; i >= from + 1; --i, j *= 10) {
+                c = a[i];
+                if ((char)(c - '0') > 9)
                     return false;
                 rslt += (c-'0')*j;
             }
             if (len < MAX_INT_LEN) {
-                c = s.charAt(i);
-                if (!Character.isDigit(c))
+                c = a[i];
+                if ((char)(c - '0') > 9)
                     return false;
                 rslt += (c-'0')*j;
-            } else { // corrected: 2015 08 17
+            } else {
                 if (dfirst >= MAX_INT_FIRSTDIGIT && rslt > MAX_INT_LASTDEC)
                     return false;
                 rslt += dfirst * j;
             }
         }
-        intBox._n=rslt;
+        intBox.store(rslt);
         return true;
     }
 
-    // Commented out, cause it is slightly slower than tryParse(Backward): 
-    //public static boolean tryParseForward(String s,IntBox intBox) {
-    //    if (intBox == null)
-    //        return false;
-    //    s=s.trim();
-    //    int len=s.length();
-    //    char c;
-    //    int rslt=0,i=0,d=0;
-    //    c=s.charAt(i++);
-    //    if (c == '-') {
-    //        for (int iend=len-1; i < iend; ++i) {
-    //            c=s.charAt(i);
-    //            rslt *= 10;
-    //            if (!Character.isDigit(c))
-    //                return false;
-    //            rslt -= c-'0';
-    //        }
-    //        c=s.charAt(i);
-    //        if (!Character.isDigit(c))
-    //            return false;
-    //        d=c-'0';
-    //        if (len >= MIN_INT_LEN) {
-    //            if (len > MIN_INT_LEN)
-    //                return false;
-    //            if (rslt >= MIN_INT_FIRSTDEC) {
-    //                if (rslt > MIN_INT_FIRSTDEC)
-    //                    return false;
-    //                if (d > MIN_INT_LASTDIGIT)
-    //                    return false;
-    //            }
-    //        }
-    //        rslt *= 10;
-    //        rslt -= d;
-    //    } else {
-    //        int iend;
-    //        for (i=0, iend=len-1; i < iend; ++i) {
-    //            c=s.charAt(i);
-    //            rslt *= 10;
-    //            if (!Character.isDigit(c))
-    //                return false;
-    //            rslt += c-'0';
-    //        }
-    //        c=s.charAt(i);
-    //        if (!Character.isDigit(c))
-    //            return false;
-    //        d=c-'0';
-    //        if (len >= MAX_INT_LEN) {
-    //            if (len > MAX_INT_LEN)
-    //                return false;
-    //            if (d > MAX_INT_LASTDIGIT)
-    //                return false;
-    //        }
-    //        rslt *= 10;
-    //        rslt += d;
-    //    }
-    //    intBox._n=rslt;
-    //    return true;
-    //}
+    // tryParse for len ASCII bytes of a byte array (e. g. a network or file
+    // buffer), starting at off. Same rules and same overflow checks as the
+    // char versions above, without decoding the bytes into a String first.
+    // Only the ASCII digits '0'..'9' are digits here, bytes >= 0x80 are
+    // neither digits nor whitespace.
+    public static boolean tryParse(byte[] a, int off, int len,
+                                   IntBox intBox) {
+        if (intBox == null || off < 0 || len < 0 || len > a.length - off)
+            return false;
+        int from=off, to=off+len;
+        while (from < to && a[from] >= 0 && a[from] <= ' ')
+            ++from;
+        while (to > from && a[to - 1] >= 0 && a[to - 1] <= ' ')
+            --to;
+        if (from == to)
+            return false;
+        len=to-from;
+        int rslt=0, dfirst=0, i, j;
+        long chunk;
+        byte c=a[from];
+        if (c == '-') {
+            if (len > MIN_INT_LEN) {
+                i = from + 1;
+                for ( ; i < to - 1 && a[i] == '0'; ++i);
+                from = i - 1;
+                len = to - from;
+            }
+            if (len >= MIN_INT_LEN) {
+                c = a[from + 1];
+                if (c < '0' || c > '9')
+                    return false;
+                dfirst = c-'0';
+                if (len > MIN_INT_LEN || dfirst > MIN_INT_FIRSTDIGIT)
+                    return false;
+            }
+            i = to - 1;
+            j = 1;
+            if (len >= SWAR_LEN + 1 && Swar.isEightDigits(
+                    chunk = Swar.getLongLE(a, to - SWAR_LEN))) {
+                rslt = -Swar.parseEightDigits(chunk);
+                if (len == SWAR_LEN + 1) {
+                    intBox.store(rslt);
+                    return true;
+                }
+                i = to - 1 - SWAR_LEN;
+                j = SWAR_DEC;
+            }
+            for ( ; i >= from + 2; --i, j *= 10) {
+                c = a[i];
+                if (c < '0' || c > '9')
+                    return false;
+                rslt -= (c-'0')*j;
+            }
+            if (len < MIN_INT_LEN) {
+                c = a[i];
+                if (c < '0' || c > '9')
+                    return false;
+                rslt -= (c-'0')*j;
+            } else {
+                if (dfirst >= MIN_INT_FIRSTDIGIT && rslt < MIN_INT_LASTDEC)
+                    return false;
+                rslt -= dfirst * j;
+            }
+        } else {
+            if (len > MAX_INT_LEN) {
+                for ( ; from < to - 1 && a[from] == '0'; ++from);
+                len = to - from;
+            }
+            if (len >= MAX_INT_LEN) {
+                c = a[from];
+                if (c < '0' || c > '9')
+                    return false;
+                dfirst = c-'0';
+                if (len > MAX_INT_LEN || dfirst > MAX_INT_FIRSTDIGIT)
+                    return false;
+            }
+            i = to - 1;
+            j = 1;
+            if (len >= SWAR_LEN && Swar.isEightDigits(
+                    chunk = Swar.getLongLE(a, to - SWAR_LEN))) {
+                rslt = Swar.parseEightDigits(chunk);
+                if (len == SWAR_LEN) {
+                    intBox.store(rslt);
+                    return true;
+                }
+                i = to - 1 - SWAR_LEN;
+                j = SWAR_DEC;
+            }
+            for ( ; i >= from + 1; --i, j *= 10) {
+                c = a[i];
+                if (c < '0' || c > '9')
+                    return false;
+                rslt += (c-'0')*j;
+            }
+            if (len < MAX_INT_LEN) {
+                c = a[i];
+                if (c < '0' || c > '9')
+                    return false;
+                rslt += (c-'0')*j;
+            } else {
+                if (dfirst >= MAX_INT_FIRSTDIGIT && rslt > MAX_INT_LASTDEC)
+                    return false;
+                rslt += dfirst * j;
+            }
+        }
+        intBox.store(rslt);
+        return true;
+    }
+
+    // tryParse for the ASCII bytes between position and limit of a
+    // ByteBuffer. The position of the buffer is not changed (only absolute
+    // get(i) is used). Heap buffers are parsed directly in their backing
+    // array, direct buffers (e. g. from FileChannel.map) byte by byte.
+    public static boolean tryParse(ByteBuffer buf, IntBox intBox) {
+        return tryParse(buf, buf.position(), buf.limit(), intBox);
+    }
+
+    // Same for the absolute indices from (inclusive) to to (exclusive) of
+    // a ByteBuffer, independent of its position and limit.
+    public static boolean tryParse(ByteBuffer buf, int from, int to,
+                                   IntBox intBox) {
+        if (intBox == null || from < 0 || from > to || to > buf.limit())
+            return false;
+        if (buf.hasArray())
+            return tryParse(buf.array(), buf.arrayOffset() + from,
+                            to - from, intBox);
+        byte c;
+        while (from < to && (c = buf.get(from)) >= 0 && c <= ' ')
+            ++from;
+        while (to > from && (c = buf.get(to - 1)) >= 0 && c <= ' ')
+            --to;
+        if (from == to)
+            return false;
+        int len=to-from;
+        int rslt=0, dfirst=0, i, j;
+        long chunk;
+        c=buf.get(from);
+        if (c == '-') {
+            if (len > MIN_INT_LEN) {
+                i = from + 1;
+                for ( ; i < to - 1 && buf.get(i) == '0'; ++i);
+                from = i - 1;
+                len = to - from;
+            }
+            if (len >= MIN_INT_LEN) {
+                c = buf.get(from + 1);
+                if (c < '0' || c > '9')
+                    return false;
+                dfirst = c-'0';
+                if (len > MIN_INT_LEN || dfirst > MIN_INT_FIRSTDIGIT)
+                    return false;
+            }
+            i = to - 1;
+            j = 1;
+            if (len >= SWAR_LEN + 1 && Swar.isEightDigits(
+                    chunk = Swar.getLongLE(buf, to - SWAR_LEN))) {
+                rslt = -Swar.parseEightDigits(chunk);
+                if (len == SWAR_LEN + 1) {
+                    intBox.store(rslt);
+                    return true;
+                }
+                i = to - 1 - SWAR_LEN;
+                j = SWAR_DEC;
+            }
+            for ( ; i >= from + 2; --i, j *= 10) {
+                c = buf.get(i);
+                if (c < '0' || c > '9')
+                    return false;
+                rslt -= (c-'0')*j;
+            }
+            if (len < MIN_INT_LEN) {
+                c = buf.get(i);
+                if (c < '0' || c > '9')
+                    return false;
+                rslt -= (c-'0')*j;
+            } else {
+                if (dfirst >= MIN_INT_FIRSTDIGIT && rslt < MIN_INT_LASTDEC)
+                    return false;
+                rslt -= dfirst * j;
+            }
+        } else {
+            if (len > MAX_INT_LEN) {
+                for ( ; from < to - 1 && buf.get(from) == '0'; ++from);
+                len = to - from;
+            }
+            if (len >= MAX_INT_LEN) {
+                c = buf.get(from);
+                if (c < '0' || c > '9')
+                    return false;
+                dfirst = c-'0';
+                if (len > MAX_INT_LEN || dfirst > MAX_INT_FIRSTDIGIT)
+                    return false;
+            }
+            i = to - 1;
+            j = 1;
+            if (len >= SWAR_LEN && Swar.isEightDigits(
+                    chunk = Swar.getLongLE(buf, to - SWAR_LEN))) {
+                rslt = Swar.parseEightDigits(chunk);
+                if (len == SWAR_LEN) {
+                    intBox.store(rslt);
+                    return true;
+                }
+                i = to - 1 - SWAR_LEN;
+                j = SWAR_DEC;
+            }
+            for ( ; i >= from + 1; --i, j *= 10) {
+                c = buf.get(i);
+                if (c < '0' || c > '9')
+                    return false;
+                rslt += (c-'0')*j;
+            }
+            if (len < MAX_INT_LEN) {
+                c = buf.get(i);
+                if (c < '0' || c > '9')
+                    return false;
+                rslt += (c-'0')*j;
+            } else {
+                if (dfirst >= MAX_INT_FIRSTDIGIT && rslt > MAX_INT_LASTDEC)
+                    return false;
+                rslt += dfirst * j;
+            }
+        }
+        intBox.store(rslt);
+        return true;
+    }
+
+    // Range checked parsing, e. g. tryParseInRange(s, 1, 65535, ib) for a
+    // port: true only for a valid int with min <= value <= max (otherwise
+    // intBox is not changed), in one pass instead of tryParse(...) and a
+    // range check afterwards. The bounds are folded into the length and
+    // first digit pruning (which uses MAX_INT_LEN and MAX_INT_FIRSTDIGIT
+    // in tryParse(...)): a number with the wrong sign, with more digits
+    // than max (or fewer than min) or with a too large first digit is
+    // rejected before any digit is converted, e. g. a 10 digit id for a
+    // percentage (0..100). As the remaining numbers have at most 10
+    // digits they are accumulated forwards in a long, no overflow check
+    // is needed. Same rules as tryParse(...) otherwise, false for min >
+    // max.
+    public static boolean tryParseInRange(String s, int min, int max,
+                                          IntBox intBox) {
+        if (s == null)
+            return false;
+        return tryParseInRange(s, 0, s.length(), min, max, intBox);
+    }
+
+    public static boolean tryParseInRange(CharSequence s, int from, int to,
+                                          int min, int max, IntBox intBox) {
+        if (s == null || intBox == null || min > max
+                || from < 0 || from > to || to > s.length())
+            return false;
+        while (from < to && s.charAt(from) <= ' ')
+            ++from;
+        while (to > from && s.charAt(to - 1) <= ' ')
+            --to;
+        if (from == to)
+            return false;
+        boolean negative = s.charAt(from) == '-';
+        if (negative ? min > 0 : max < 0)
+            return false; // the wrong sign: no digit is read
+        if (negative)
+            ++from;
+        for ( ; from < to - 1 && s.charAt(from) == '0'; ++from);
+        if (from == to)
+            return false;
+        long lo = rangeLo(negative, min, max), hi = rangeHi(negative, min, max);
+        char c = s.charAt(from);
+        if ((char)(c - '0') > 9 || !mayBeInRange(to - from, c - '0', lo, hi))
+            return false;
+        long rslt = 0L;
+        for (int i = from; i < to; ++i) {
+            c = s.charAt(i);
+            if ((char)(c - '0') > 9)
+                return false;
+            rslt = rslt * 10 + (c - '0');
+        }
+        if (rslt < lo || rslt > hi)
+            return false;
+        intBox.store((int)(negative ? -rslt : rslt));
+        return true;
+    }
+
+    // the same for len chars of a, starting at off
+    public static boolean tryParseInRange(char[] a, int off, int len,
+                                          int min, int max, IntBox intBox) {
+        if (intBox == null || min > max || off < 0 || len < 0 || len > a.length - off)
+            return false;
+        int from=off, to=off+len;
+        while (from < to && a[from] <= ' ')
+            ++from;
+        while (to > from && a[to - 1] <= ' ')
+            --to;
+        if (from == to)
+            return false;
+        boolean negative = a[from] == '-';
+        if (negative ? min > 0 : max < 0)
+            return false;
+        if (negative)
+            ++from;
+        for ( ; from < to - 1 && a[from] == '0'; ++from);
+        if (from == to)
+            return false;
+        long lo = rangeLo(negative, min, max), hi = rangeHi(negative, min, max);
+        char c = a[from];
+        if ((char)(c - '0') > 9 || !mayBeInRange(to - from, c - '0', lo, hi))
+            return false;
+        long rslt = 0L;
+        for (int i = from; i < to; ++i) {
+            c = a[i];
+            if ((char)(c - '0') > 9)
+                return false;
+            rslt = rslt * 10 + (c - '0');
+        }
+        if (rslt < lo || rslt > hi)
+            return false;
+        intBox.store((int)(negative ? -rslt : rslt));
+        return true;
+    }
+
+    // the same for len ASCII bytes of a, starting at off
+    public static boolean tryParseInRange(byte[] a, int off, int len,
+                                          int min, int max, IntBox intBox) {
+        if (intBox == null || min > max || off < 0 || len < 0 || len > a.length - off)
+            return false;
+        int from=off, to=off+len;
+        while (from < to && a[from] >= 0 && a[from] <= ' ')
+            ++from;
+        while (to > from && a[to - 1] >= 0 && a[to - 1] <= ' ')
+            --to;
+        if (from == to)
+            return false;
+        boolean negative = a[from] == '-';
+        if (negative ? min > 0 : max < 0)
+            return false;
+        if (negative)
+            ++from;
+        for ( ; from < to - 1 && a[from] == '0'; ++from);
+        if (from == to)
+            return false;
+        long lo = rangeLo(negative, min, max), hi = rangeHi(negative, min, max);
+        byte c = a[from];
+        if (c < '0' || c > '9' || !mayBeInRange(to - from, c - '0', lo, hi))
+            return false;
+        long rslt = 0L;
+        for (int i = from; i < to; ++i) {
+            c = a[i];
+            if (c < '0' || c > '9')
+                return false;
+            rslt = rslt * 10 + (c - '0');
+        }
+        if (rslt < lo || rslt > hi)
+            return false;
+        intBox.store((int)(negative ? -rslt : rslt));
+        return true;
+    }
+
+    // the same for the absolute indices from (inclusive) to to
+    // (exclusive) of a ByteBuffer (heap buffers in their backing array)
+    public static boolean tryParseInRange(ByteBuffer buf, int from, int to,
+                                          int min, int max, IntBox intBox) {
+        if (intBox == null || min > max || from < 0 || from > to || to > buf.limit())
+            return false;
+        if (buf.hasArray())
+            return tryParseInRange(buf.array(), buf.arrayOffset() + from,
+                                   to - from, min, max, intBox);
+        byte c;
+        while (from < to && (c = buf.get(from)) >= 0 && c <= ' ')
+            ++from;
+        while (to > from && (c = buf.get(to - 1)) >= 0 && c <= ' ')
+            --to;
+        if (from == to)
+            return false;
+        boolean negative = buf.get(from) == '-';
+        if (negative ? min > 0 : max < 0)
+            return false;
+        if (negative)
+            ++from;
+        for ( ; from < to - 1 && buf.get(from) == '0'; ++from);
+        if (from == to)
+            return false;
+        long lo = rangeLo(negative, min, max), hi = rangeHi(negative, min, max);
+        c = buf.get(from);
+        if (c < '0' || c > '9' || !mayBeInRange(to - from, c - '0', lo, hi))
+            return false;
+        long rslt = 0L;
+        for (int i = from; i < to; ++i) {
+            c = buf.get(i);
+            if (c < '0' || c > '9')
+                return false;
+            rslt = rslt * 10 + (c - '0');
+        }
+        if (rslt < lo || rslt > hi)
+            return false;
+        intBox.store((int)(negative ? -rslt : rslt));
+        return true;
+    }
+
+    // The range min..max as bounds lo..hi of the absolute value (0 ..
+    // 2^31) of the numbers with the given sign (which is possible, see
+    // the sign check above), e. g. -50..100 is 0..100 for positive and
+    // 0..50 for negative numbers, 10..20 is 10..20 for positive ones.
+    private static long rangeLo(boolean negative, int min, int max) {
+        return negative ? Math.max(-(long)max, 0L) : Math.max(min, 0);
+    }
+    private static long rangeHi(boolean negative, int min, int max) {
+        return negative ? -(long)min : max;
+    }
+
+    // The pruning of tryParseInRange(...): can a number of n digits
+    // (without leading zeroes) with the first digit dfirst lie in lo..hi?
+    // It lies in dfirst * 10^(n-1) ... (dfirst + 1) * 10^(n-1) - 1, so
+    // two multiplications with one DECVALS entry check the length and
+    // the first digit against both bounds at once (the counterpart of
+    // the checks of len against MAX_INT_LEN and of dfirst against
+    // MAX_INT_FIRSTDIGIT, with the range instead of the limits of int).
+    private static boolean mayBeInRange(int n, int dfirst, long lo, long hi) {
+        if (n > DECVALS.length)
+            return false;
+        long dec = DECVALS[n - 1][1];
+        return dfirst * dec <= hi && (dfirst + 1) * dec > lo;
+    }
+
+    private static byte[] digitValues() {
+        byte[] a = new byte[128];
+        java.util.Arrays.fill(a, (byte)-1);
+        for (int c = 0; c < 128; ++c)
+            if (Character.digit(c, 36) >= 0)
+                a[c] = (byte)Character.digit(c, 36);
+        return a;
+    }
+
+    // Radix and unsigned parsing, e. g. for hex request ids and 32 bit
+    // unsigned counters. Same rules as tryParse(...): whitespace around
+    // the number is accepted (leading zeroes as well), no '+', overflow
+    // returns false, nothing is thrown or allocated. Only ASCII digits
+    // and letters are accepted (Integer.parseInt(s, radix) accepts all
+    // Unicode digits). The digits are decoded with the DIGIT_VALUES table
+    // and accumulated forwards (in a long, so overflow is one compare).
+
+    // Signed, like Integer.parseInt(s, radix). radix 2..36, otherwise
+    // false. E. g. tryParseRadix("-ff", 16, ib) gives -255.
+    public static boolean tryParseRadix(String s, int radix, IntBox intBox) {
+        if (s == null)
+            return false;
+        return tryParseRadix(s, 0, s.length(), radix, intBox);
+    }
+
+    public static boolean tryParseRadix(CharSequence s, int from, int to,
+                                        int radix, IntBox intBox) {
+        if (s == null || intBox == null || from < 0 || from > to || to > s.length()
+                || radix < Character.MIN_RADIX || radix > Character.MAX_RADIX)
+            return false;
+        while (from < to && s.charAt(from) <= ' ')
+            ++from;
+        while (to > from && s.charAt(to - 1) <= ' ')
+            --to;
+        boolean negative = from < to && s.charAt(from) == '-';
+        if (negative)
+            ++from;
+        if (from == to)
+            return false;
+        long limit = negative ? -(long)Integer.MIN_VALUE : Integer.MAX_VALUE;
+        long rslt = 0L;
+        for (int i = from; i < to; ++i) {
+            char c = s.charAt(i);
+            int d = c < 128 ? DIGIT_VALUES[c] : -1;
+            if (d < 0 || d >= radix)
+                return false;
+            rslt = rslt * radix + d;
+            if (rslt > limit)
+                return false;
+        }
+        intBox.store((int)(negative ? -rslt : rslt));
+        return true;
+    }
+
+    // 32 bit unsigned decimal, like Integer.parseUnsignedInt(s) (Java 8):
+    // "0" ... "4294967295", the values above Integer.MAX_VALUE are stored
+    // as negative ints (the same bits, use v() & 0xFFFFFFFFL to get them).
+    public static boolean tryParseUnsigned(String s, IntBox intBox) {
+        if (s == null)
+            return false;
+        return tryParseUnsigned(s, 0, s.length(), 10, intBox);
+    }
+
+    // unsigned in any radix 2..36, like Integer.parseUnsignedInt(s, radix)
+    public static boolean tryParseUnsigned(CharSequence s, int from, int to,
+                                           int radix, IntBox intBox) {
+        if (s == null || intBox == null || from < 0 || from > to || to > s.length()
+                || radix < Character.MIN_RADIX || radix > Character.MAX_RADIX)
+            return false;
+        while (from < to && s.charAt(from) <= ' ')
+            ++from;
+        while (to > from && s.charAt(to - 1) <= ' ')
+            --to;
+        if (from == to)
+            return false;
+        long rslt = 0L;
+        for (int i = from; i < to; ++i) {
+            char c = s.charAt(i);
+            int d = c < 128 ? DIGIT_VALUES[c] : -1;
+            if (d < 0 || d >= radix)
+                return false;
+            rslt = rslt * radix + d;
+            if (rslt > 0xFFFFFFFFL)
+                return false;
+        }
+        intBox.store((int)rslt);
+        return true;
+    }
+
+    // 32 bit unsigned hex (Integer.parseUnsignedInt(s, 16)), i. e. up to 8
+    // hex digits (both cases, no "0x") after the leading zeroes, e. g.
+    // "deadbeef" gives 0xdeadbeef (a negative int). One table lookup and
+    // one shift per digit.
+    public static boolean tryParseHex(String s, IntBox intBox) {
+        if (s == null)
+            return false;
+        return tryParseHex(s, 0, s.length(), intBox);
+    }
+
+    public static boolean tryParseHex(CharSequence s, int from, int to,
+                                      IntBox intBox) {
+        if (s == null || intBox == null || from < 0 || from > to || to > s.length())
+            return false;
+        while (from < to && s.charAt(from) <= ' ')
+            ++from;
+        while (to > from && s.charAt(to - 1) <= ' ')
+            --to;
+        if (from == to)
+            return false;
+        int rslt = 0;
+        for (int i = from; i < to; ++i) {
+            char c = s.charAt(i);
+            int d = c < 128 ? DIGIT_VALUES[c] : -1;
+            if (d < 0 || d >= 16 || (rslt >>> 28) != 0) // or a 9th digit
+                return false;
+            rslt = rslt << 4 | d;
+        }
+        intBox.store(rslt);
+        return true;
+    }
+
+    // Same for len ASCII bytes of a, starting at off. Exactly 8 hex digits
+    // (the usual length of 32 bit ids, leading zeroes included) are
+    // checked and converted at once, see Swar.isEightHexDigits(...).
+    public static boolean tryParseHex(byte[] a, int off, int len, IntBox intBox) {
+        if (intBox == null || off < 0 || len < 0 || len > a.length - off)
+            return false;
+        int from=off, to=off+len;
+        while (from < to && a[from] >= 0 && a[from] <= ' ')
+            ++from;
+        while (to > from && a[to - 1] >= 0 && a[to - 1] <= ' ')
+            --to;
+        if (from == to)
+            return false;
+        for ( ; to - from > SWAR_LEN && a[from] == '0'; ++from);
+        if (to - from == SWAR_LEN) {
+            long chunk = Swar.getLongLE(a, from);
+            if (!Swar.isEightHexDigits(chunk))
+                return false;
+            intBox.store(Swar.parseEightHexDigits(chunk));
+            return true;
+        }
+        if (to - from > SWAR_LEN)
+            return false;
+        int rslt = 0;
+        for (int i = from; i < to; ++i) {
+            byte c = a[i];
+            int d = c >= 0 ? DIGIT_VALUES[c] : -1;
+            if (d < 0 || d >= 16)
+                return false;
+            rslt = rslt << 4 | d;
+        }
+        intBox.store(rslt);
+        return true;
+    }
+
+    // Batch version of tryParse for a whole column of numbers: parses
+    // len CharSequences of src (starting at srcOff) into dst (starting at
+    // dstOff). Invalid numbers (and null elements) get defaultValue, like
+    // makeIntBox(String s, int defaultValue) does. If valid is not null,
+    // bit i of valid (i. e. valid[i >>> 6] & (1L << i)) is set to 1 for a
+    // valid number in dst[i] and to 0 for a defaultValue (see isValid(...)).
+    // Returns the number of valid numbers. The bits are collected in a
+    // local long and written once per 64 numbers, so the inner loop is a
+    // simple counted loop the JIT can unroll.
+    public static int tryParseAll(CharSequence[] src, int srcOff,
+                                  int[] dst, int dstOff, int len,
+                                  long[] valid, int defaultValue) {
+        long t0 = ParseStats.ENABLED ? System.nanoTime() : 0L;
+        IntBox box = new IntBox(); // one box per batch, not per number
+        int count = 0;
+        for (int i = 0, d = dstOff; i < len; ) {
+            int b0 = d & 63;
+            int n = Math.min(64 - b0, len - i);
+            long bits = 0L;
+            for (int b = 0; b < n; ++b) {
+                CharSequence s = src[srcOff + i + b];
+                boolean ok = s != null && tryParse(s, 0, s.length(), box);
+                dst[d + b] = ok ? box._n : defaultValue;
+                bits |= (ok ? 1L : 0L) << (b0 + b);
+            }
+            if (valid != null) {
+                long mask = (n == 64 ? -1L : (1L << n) - 1L) << b0;
+                int w = d >>> 6;
+                valid[w] = (valid[w] & ~mask) | bits;
+            }
+            count += Long.bitCount(bits);
+            i += n;
+            d += n;
+        }
+        if (ParseStats.ENABLED)
+            ParseStats.batch("IntBox.tryParseAll", len, len - count,
+                             System.nanoTime() - t0);
+        return count;
+    }
+
+    public static int tryParseAll(CharSequence[] src, int[] dst,
+                                  long[] valid, int defaultValue) {
+        return tryParseAll(src, 0, dst, 0, src.length, valid, defaultValue);
+    }
+
+    public static int tryParseAll(List<? extends CharSequence> src, int[] dst,
+                                  long[] valid, int defaultValue) {
+        if (!(src instanceof RandomAccess))
+            return tryParseAll(src.toArray(new CharSequence[src.size()]), dst,
+                               valid, defaultValue);
+        long t0 = ParseStats.ENABLED ? System.nanoTime() : 0L;
+        IntBox box = new IntBox();
+        int count = 0, len = src.size();
+        for (int i = 0; i < len; ) {
+            int n = Math.min(64, len - i);
+            long bits = 0L;
+            for (int b = 0; b < n; ++b) {
+                CharSequence s = src.get(i + b);
+                boolean ok = s != null && tryParse(s, 0, s.length(), box);
+                dst[i + b] = ok ? box._n : defaultValue;
+                bits |= (ok ? 1L : 0L) << b;
+            }
+            if (valid != null) {
+                long mask = n == 64 ? -1L : (1L << n) - 1L;
+                valid[i >>> 6] = (valid[i >>> 6] & ~mask) | bits;
+            }
+            count += Long.bitCount(bits);
+            i += n;
+        }
+        if (ParseStats.ENABLED)
+            ParseStats.batch("IntBox.tryParseAll", len, len - count,
+                             System.nanoTime() - t0);
+        return count;
+    }
+
+    // Size of the long[] validity bitmap for n numbers (see tryParseAll)
+    public static int validityWords(int n) {
+        return (n + 63) >>> 6;
+    }
+
+    public static boolean isValid(long[] valid, int i) {
+        return (valid[i >>> 6] & (1L << i)) != 0;
+    }
+
+    // Forward parsing (one multiplication per digit, the result is
+    // accumulated negative as in Integer.parseInt(...), so the overflow
+    // check is rslt < limit / 10 before and rslt < limit + d after the
+    // multiplication). Once commented out, as it was slightly slower than
+    // tryParse(Backward) in the hand-timed runs above, now one of the
+    // strategies of IntParseStrategies (which one wins depends on the
+    // CPU). Same rules as tryParse(String, IntBox).
+    public static boolean tryParseForward(String s, IntBox intBox) {
+        if (s == null || intBox == null)
+            return false;
+        int from = 0, to = s.length();
+        while (from < to && s.charAt(from) <= ' ')
+            ++from;
+        while (to > from && s.charAt(to - 1) <= ' ')
+            --to;
+        if (from == to)
+            return false;
+        boolean negative = s.charAt(from) == '-';
+        if (negative && ++from == to)
+            return false;
+        int limit = negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+        int multmin = limit / 10, rslt = 0, d;
+        for ( ; from < to; ++from) {
+            d = s.charAt(from) - '0';
+            if (d < 0 || d > 9 || rslt < multmin)
+                return false;
+            rslt *= 10;
+            if (rslt < limit + d)
+                return false;
+            rslt -= d;
+        }
+        intBox.store(negative ? rslt : -rslt);
+        return true;
+    }
     
+    private static char[] digitPairs() {
+        char[] a = new char[200];
+        for (int r = 0; r < 100; ++r) {
+            a[2 * r] = (char)('0' + r / 10);
+            a[2 * r + 1] = (char)('0' + r % 10);
+        }
+        return a;
+    }
+
+    // Formatting: the reverse of tryParse(...), without a String per
+    // value (as toString() and Integer.toString(...) create). The digits
+    // are written backwards from the end, two per division by 100 (with
+    // the DIGIT_PAIRS table). As in Integer.toString(...) the number is
+    // made negative, not positive, so Integer.MIN_VALUE needs no special
+    // case. The array (or buffer) must have room for stringSize(n) chars
+    // (at most MIN_INT_LEN) starting at off, the new offset (behind the
+    // last digit) is returned.
+
+    // number of chars of n, e. g. 3 for -42
+    public static int stringSize(int n) {
+        int len = 1, v = n < 0 ? n : -n; // v <= 0
+        for (int p = -10; len < MAX_INT_LEN && v <= p; p *= 10)
+            ++len;
+        return n < 0 ? len + 1 : len;
+    }
+
+    public static int writeTo(int n, char[] a, int off) {
+        int end = off + stringSize(n), i = end, v = n < 0 ? n : -n, q, r;
+        while (v <= -100) {
+            q = v / 100;
+            r = q * 100 - v; // 0..99
+            v = q;
+            a[--i] = DIGIT_PAIRS[2 * r + 1];
+            a[--i] = DIGIT_PAIRS[2 * r];
+        }
+        if (v <= -10) {
+            a[--i] = DIGIT_PAIRS[-2 * v + 1];
+            a[--i] = DIGIT_PAIRS[-2 * v];
+        } else
+            a[--i] = (char)('0' - v);
+        if (n < 0)
+            a[--i] = '-';
+        return end;
+    }
+
+    // as ASCII bytes
+    public static int writeTo(int n, byte[] a, int off) {
+        int end = off + stringSize(n), i = end, v = n < 0 ? n : -n, q, r;
+        while (v <= -100) {
+            q = v / 100;
+            r = q * 100 - v;
+            v = q;
+            a[--i] = (byte)DIGIT_PAIRS[2 * r + 1];
+            a[--i] = (byte)DIGIT_PAIRS[2 * r];
+        }
+        if (v <= -10) {
+            a[--i] = (byte)DIGIT_PAIRS[-2 * v + 1];
+            a[--i] = (byte)DIGIT_PAIRS[-2 * v];
+        } else
+            a[--i] = (byte)('0' - v);
+        if (n < 0)
+            a[--i] = '-';
+        return end;
+    }
+
+    // as ASCII bytes at the absolute index off of buf (the position of
+    // buf is not changed)
+    public static int writeTo(int n, ByteBuffer buf, int off) {
+        if (buf.hasArray())
+            return writeTo(n, buf.array(), buf.arrayOffset() + off)
+                   - buf.arrayOffset();
+        int end = off + stringSize(n), i = end, v = n < 0 ? n : -n, q, r;
+        while (v <= -100) {
+            q = v / 100;
+            r = q * 100 - v;
+            v = q;
+            buf.put(--i, (byte)DIGIT_PAIRS[2 * r + 1]);
+            buf.put(--i, (byte)DIGIT_PAIRS[2 * r]);
+        }
+        if (v <= -10) {
+            buf.put(--i, (byte)DIGIT_PAIRS[-2 * v + 1]);
+            buf.put(--i, (byte)DIGIT_PAIRS[-2 * v]);
+        } else
+            buf.put(--i, (byte)('0' - v));
+        if (n < 0)
+            buf.put(--i, (byte)'-');
+        return end;
+    }
+
+    // StringBuilder.append(int) does not create a String either, and
+    // it is faster than every way to put the digits of the table into
+    // the StringBuilder (one append(char) per char, or setLength(...) and
+    // setCharAt(...) backwards) which we measured (IntBoxFormatBenchmark).
+    public static StringBuilder appendTo(int n, StringBuilder sb) {
+        return sb.append(n);
+    }
+
+    // the same for the value of this IntBox:
+    public StringBuilder appendTo(StringBuilder sb) {
+        return appendTo(v(), sb);
+    }
+    public int writeTo(char[] a, int off) {
+        return writeTo(v(), a, off);
+    }
+    public int writeTo(byte[] a, int off) {
+        return writeTo(v(), a, off);
+    }
+    public int writeTo(ByteBuffer buf, int off) {
+        return writeTo(v(), buf, off);
+    }
+
     @Override
     public Object clone() {
         //super.clone();
@@ -0,0 +1,116 @@
+/**
+ * Growable list of ints, stored in int[] chunks of CHUNK_SIZE ints, with
+ * a validity bitmap per chunk (same layout as the bitmap of
+ * IntBox.tryParseAll(...): bit i of a chunk is valid[i >>> 6] & 1L << i).
+ *
+ * Growing never copies the ints (only the small array of chunk
+ * references), so there is no 2 GB limit and no 2x peak memory as with
+ * a single int[] that is doubled again and again. Indices are longs.
+ *
+ * As an IntSink it takes the output of MappedIntScanner: invalid tokens
+ * are stored as defaultValue with a 0 bit.
+ */
+package utils.casts;
+
+import java.util.Arrays;
+
+public class IntChunks implements IntSink {
+
+    public static final int CHUNK_SHIFT = 16;
+    public static final int CHUNK_SIZE = 1 << CHUNK_SHIFT; // 64 Ki ints
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final int defaultValue;
+    private int[][] chunks = new int[8][];
+    private long[][] valids = new long[8][];
+    private long size;
+    private long invalidCount;
+
+    public IntChunks() {
+        this(0);
+    }
+
+    // defaultValue: the value stored for invalid tokens
+    public IntChunks(int defaultValue) {
+        this.defaultValue = defaultValue;
+    }
+
+    public void accept(int value) {
+        add(value, true);
+    }
+
+    public void reject(long position, int length) {
+        add(defaultValue, false);
+    }
+
+    public void add(int value, boolean valid) {
+        int c = (int)(size >>> CHUNK_SHIFT), i = (int)size & CHUNK_MASK;
+        if (i == 0) { // first int of a new chunk
+            if (c == chunks.length) {
+                chunks = Arrays.copyOf(chunks, 2 * c);
+                valids = Arrays.copyOf(valids, 2 * c);
+            }
+            chunks[c] = new int[CHUNK_SIZE];
+            valids[c] = new long[CHUNK_SIZE >>> 6];
+        }
+        chunks[c][i] = value;
+        if (valid)
+            valids[c][i >>> 6] |= 1L << i;
+        else
+            ++invalidCount;
+        ++size;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public long invalidCount() {
+        return invalidCount;
+    }
+
+    // no range check beyond the one of the arrays: i must be < size()
+    public int get(long i) {
+        return chunks[(int)(i >>> CHUNK_SHIFT)][(int)i & CHUNK_MASK];
+    }
+
+    public boolean isValid(long i) {
+        int j = (int)i & CHUNK_MASK;
+        return (valids[(int)(i >>> CHUNK_SHIFT)][j >>> 6] & 1L << j) != 0L;
+    }
+
+    // For processing without any copy: chunk c holds the ints
+    // c * CHUNK_SIZE ..., all chunks but the last one are full.
+    public int chunkCount() {
+        return (int)((size + CHUNK_MASK) >>> CHUNK_SHIFT);
+    }
+
+    public int[] chunk(int c) {
+        return chunks[c];
+    }
+
+    public long[] validity(int c) {
+        return valids[c];
+    }
+
+    // copies len ints starting at index from into dst[dstOff...]
+    public void copyTo(long from, int[] dst, int dstOff, int len) {
+        while (len > 0) {
+            int c = (int)(from >>> CHUNK_SHIFT), i = (int)from & CHUNK_MASK;
+            int n = Math.min(len, CHUNK_SIZE - i);
+            System.arraycopy(chunks[c], i, dst, dstOff, n);
+            from += n;
+            dstOff += n;
+            len -= n;
+        }
+    }
+
+    // all ints in one array (only possible for less than 2^31 ints)
+    public int[] toArray() throws IllegalStateException {
+        if (size > Integer.MAX_VALUE - 8)
+            throw new IllegalStateException("Too many ints for one array: " + size);
+        int[] a = new int[(int)size];
+        copyTo(0L, a, 0, a.length);
+        return a;
+    }
+}
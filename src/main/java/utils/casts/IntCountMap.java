@@ -0,0 +1,152 @@
+/**
+ * Map int -> count (frequency of each int) without boxing: instead of a
+ * HashMap<Integer,Long> (an Integer, a Long and an entry object per
+ * distinct int, and the boxing of every key to look it up), two arrays
+ * with open addressing (linear probing). A slot with count 0 is empty,
+ * so any int (0 as well) can be a key.
+ *
+ * Not thread safe: one IntCountMap per thread, merged with merge(...) at
+ * the end (see IntAggregator).
+ */
+package utils.casts;
+
+import java.util.Arrays;
+
+public class IntCountMap {
+
+    private int[] keys;
+    private long[] counts; // 0: empty slot
+    private int size;
+    private int mask;
+
+    public IntCountMap() {
+        this(16);
+    }
+
+    // expected number of distinct ints (the arrays grow if needed)
+    public IntCountMap(int expectedSize) {
+        int n = 16;
+        while (n < 2 * expectedSize && n < 1 << 30)
+            n <<= 1;
+        keys = new int[n];
+        counts = new long[n];
+        mask = n - 1;
+    }
+
+    // the last step of MurmurHash3, so that keys in a row (e. g. ids) or
+    // multiples of 2^k do not fill neighbouring slots
+    private static int hash(int k) {
+        k ^= k >>> 16;
+        k *= 0x85EBCA6B;
+        k ^= k >>> 13;
+        k *= 0xC2B2AE35;
+        return k ^ (k >>> 16);
+    }
+
+    public void add(int key) {
+        add(key, 1L);
+    }
+
+    // n > 0
+    public void add(int key, long n) {
+        int i = hash(key) & mask;
+        for ( ; counts[i] != 0L; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                counts[i] += n;
+                return;
+            }
+        }
+        keys[i] = key;
+        counts[i] = n;
+        if (++size > (mask + 1) >>> 1) // load factor 0.5
+            grow();
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        long[] oldCounts = counts;
+        keys = new int[oldKeys.length << 1];
+        counts = new long[oldKeys.length << 1];
+        mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; ++j) {
+            if (oldCounts[j] != 0L) {
+                int i = hash(oldKeys[j]) & mask;
+                for ( ; counts[i] != 0L; i = (i + 1) & mask);
+                keys[i] = oldKeys[j];
+                counts[i] = oldCounts[j];
+            }
+        }
+    }
+
+    // how often key was added (0 if never)
+    public long get(int key) {
+        for (int i = hash(key) & mask; counts[i] != 0L; i = (i + 1) & mask)
+            if (keys[i] == key)
+                return counts[i];
+        return 0L;
+    }
+
+    // number of distinct keys
+    public int size() {
+        return size;
+    }
+
+    // sum of all counts
+    public long total() {
+        long total = 0L;
+        for (long c : counts)
+            total += c;
+        return total;
+    }
+
+    public void merge(IntCountMap other) {
+        for (int j = 0; j < other.keys.length; ++j)
+            if (other.counts[j] != 0L)
+                add(other.keys[j], other.counts[j]);
+    }
+
+    public void clear() {
+        Arrays.fill(counts, 0L);
+        size = 0;
+    }
+
+    // all keys, in ascending order
+    public int[] keys() {
+        int[] a = new int[size];
+        for (int j = 0, k = 0; j < keys.length; ++j)
+            if (counts[j] != 0L)
+                a[k++] = keys[j];
+        Arrays.sort(a);
+        return a;
+    }
+
+    // the key which was added most often (the smallest one of those with
+    // the same count), or defaultValue if the map is empty
+    public int mode(int defaultValue) {
+        int key = defaultValue;
+        long max = 0L;
+        for (int j = 0; j < keys.length; ++j) {
+            if (counts[j] > max || (counts[j] == max && max != 0L && keys[j] < key)) {
+                max = counts[j];
+                key = keys[j];
+            }
+        }
+        return key;
+    }
+
+    // The exact p-th percentile (0 <= p <= 100) of all added ints (with
+    // their counts), nearest rank method, e. g. percentile(50) is the
+    // median. Sorts the keys, i. e. O(size() log size()). defaultValue
+    // if the map is empty.
+    public int percentile(double p, int defaultValue) {
+        if (size == 0)
+            return defaultValue;
+        int[] sorted = keys();
+        long rank = (long)Math.ceil(p / 100.0 * total());
+        long n = 0L;
+        for (int key : sorted)
+            if ((n += get(key)) >= rank)
+                return key;
+        return sorted[sorted.length - 1];
+    }
+}
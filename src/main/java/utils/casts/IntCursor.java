@@ -0,0 +1,229 @@
+/**
+ * Cursor over the delimiter separated ints of a CharSequence or a byte[]
+ * (the rules of DelimitedIntParser: each token is parsed as by
+ * IntBox.tryParse(...), empty tokens are invalid, a delimiter at the very
+ * end does not start another token), the Java 6 counterpart of a
+ * Spliterator.OfInt: no Stream<String>, no Integer, nothing allocated per
+ * int.
+ *
+ *   tryAdvance(box)         - the next int into box, false at the end,
+ *   forEachRemaining(sink)  - all remaining ints into an IntSink (e. g.
+ *                             an IntAggregator or IntChunks),
+ *   trySplit()              - a new cursor for the first half of the
+ *                             remaining input, this one keeps the second
+ *                             half; the cut is right after a delimiter,
+ *                             so both halves have whole tokens and
+ *                             together the same ints as before,
+ *   aggregate(executor, n)  - split into n cursors, each aggregated by a
+ *                             thread of executor, the results merged
+ *                             (what intStream.parallel().sum() does).
+ *
+ * Invalid tokens are handled by the Invalid policy of the cursor: SKIP
+ * them (forEachRemaining(...) gives them to sink.reject(...)), use the
+ * DEFAULT value, or FAIL with a NumberFormatException (with the position
+ * of the token, as Integer.parseInt(...) would).
+ *
+ * Example:
+ *
+ * IntCursor c = new IntCursor(text, ",\n", IntCursor.Invalid.SKIP, 0);
+ * long sum = c.aggregate(executor, 8).sum();
+ *
+ * A cursor is not thread safe, but the cursors from trySplit() are
+ * independent of each other.
+ */
+package utils.casts;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+public class IntCursor {
+
+    // trySplit() does not split less than this (chars or bytes)
+    public static final int MIN_SPLIT_SIZE = 1 << 12;
+
+    private static final Charset LATIN_1 = Charset.forName("ISO-8859-1");
+
+    public enum Invalid {
+        SKIP,    // ignore the token
+        DEFAULT, // the token is defaultValue
+        FAIL     // throw a NumberFormatException
+    }
+
+    private final DelimitedIntParser parser;
+    private final Invalid invalid;
+    private final int defaultValue;
+    private final byte[] bytes; // the input: bytes or chars
+    private final CharSequence chars;
+    private final IntBox box = new IntBox(); // for forEachRemaining(...)
+    private int pos, end;
+
+    // delimiters: as for DelimitedIntParser, e. g. ",\n"
+    public IntCursor(CharSequence s, String delimiters, Invalid invalid,
+                     int defaultValue) throws IllegalArgumentException {
+        this(new DelimitedIntParser(delimiters), invalid, defaultValue,
+             null, s, 0, s.length());
+    }
+
+    public IntCursor(byte[] a, int off, int len, String delimiters,
+                     Invalid invalid, int defaultValue)
+            throws IllegalArgumentException {
+        this(new DelimitedIntParser(delimiters), invalid, defaultValue,
+             a, null, off, off + len);
+        if (off < 0 || len < 0 || len > a.length - off)
+            throw new IllegalArgumentException("Invalid range: " + off + ", " + len);
+    }
+
+    private IntCursor(DelimitedIntParser parser, Invalid invalid, int defaultValue,
+                      byte[] bytes, CharSequence chars, int pos, int end) {
+        if (invalid == null)
+            throw new IllegalArgumentException("No policy for invalid tokens given");
+        this.parser = parser;
+        this.invalid = invalid;
+        this.defaultValue = defaultValue;
+        this.bytes = bytes;
+        this.chars = chars;
+        this.pos = pos;
+        this.end = end;
+    }
+
+    // The next int into intBox (with the Invalid policy), false if there
+    // is none left.
+    public boolean tryAdvance(IntBox intBox) throws NumberFormatException {
+        while (pos < end) {
+            int start = pos, to = indexOfDelimiter(pos);
+            pos = to < end ? to + 1 : end;
+            if (parse(start, to, intBox))
+                return true;
+            if (invalid == Invalid.DEFAULT) {
+                intBox.store(defaultValue);
+                return true;
+            }
+            if (invalid == Invalid.FAIL)
+                throw invalidToken(start, to);
+        }
+        return false;
+    }
+
+    // All remaining ints into sink, returns the number of tokens. With
+    // SKIP the invalid tokens go to sink.reject(...).
+    public long forEachRemaining(IntSink sink) throws NumberFormatException {
+        long n = 0L;
+        while (pos < end) {
+            int start = pos, to = indexOfDelimiter(pos);
+            pos = to < end ? to + 1 : end;
+            ++n;
+            if (parse(start, to, box))
+                sink.accept(box._n);
+            else if (invalid == Invalid.DEFAULT)
+                sink.accept(defaultValue);
+            else if (invalid == Invalid.SKIP)
+                sink.reject(start, to - start);
+            else
+                throw invalidToken(start, to);
+        }
+        return n;
+    }
+
+    public IntCursor trySplit() {
+        return trySplit(MIN_SPLIT_SIZE);
+    }
+
+    // As Spliterator.trySplit(): a new cursor for the first part of the
+    // remaining input (up to the first delimiter in its second half),
+    // this one goes on behind it. null if less than minSize remains or
+    // there is no delimiter to cut at.
+    public IntCursor trySplit(int minSize) {
+        if (end - pos < Math.max(2, minSize))
+            return null;
+        int cut = indexOfDelimiter(pos + (end - pos) / 2);
+        if (cut >= end - 1) // nothing behind the cut
+            return null;
+        IntCursor prefix = new IntCursor(parser, invalid, defaultValue,
+                                         bytes, chars, pos, cut + 1);
+        pos = cut + 1;
+        return prefix;
+    }
+
+    // chars or bytes left (an upper bound of the number of ints left)
+    public int remaining() {
+        return end - pos;
+    }
+
+    // offset of the next token in the input
+    public int position() {
+        return pos;
+    }
+
+    // Splits this cursor into up to parts cursors (the largest one is
+    // split again and again) and aggregates them with the threads of
+    // executor, each into an own IntAggregator (stats only), which are
+    // merged at the end. This cursor is at its end afterwards. The
+    // ExecutorService belongs to the caller (as in ParallelIntParser).
+    public IntAggregator aggregate(ExecutorService executor, int parts)
+            throws InterruptedException, NumberFormatException {
+        List<IntCursor> cursors = new ArrayList<IntCursor>();
+        cursors.add(this);
+        while (cursors.size() < parts) {
+            IntCursor largest = cursors.get(0);
+            for (IntCursor c : cursors)
+                if (c.remaining() > largest.remaining())
+                    largest = c;
+            IntCursor prefix = largest.trySplit();
+            if (prefix == null)
+                break;
+            cursors.add(prefix);
+        }
+        List<Callable<IntAggregator>> tasks =
+                new ArrayList<Callable<IntAggregator>>(cursors.size());
+        for (final IntCursor c : cursors) {
+            tasks.add(new Callable<IntAggregator>() {
+                public IntAggregator call() {
+                    IntAggregator agg = new IntAggregator();
+                    c.forEachRemaining(agg);
+                    return agg;
+                }
+            });
+        }
+        IntAggregator result = new IntAggregator();
+        for (Future<IntAggregator> f : executor.invokeAll(tasks)) {
+            try {
+                result.merge(f.get());
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException)
+                    throw (RuntimeException)cause;
+                if (cause instanceof Error)
+                    throw (Error)cause;
+                throw new IllegalStateException(cause);
+            }
+        }
+        return result;
+    }
+
+    // index of the first delimiter at or after from, or end
+    private int indexOfDelimiter(int from) {
+        if (bytes != null)
+            return parser.indexOfDelimiter(bytes, from, end);
+        int i = from;
+        for (char c; i < end && ((c = chars.charAt(i)) > 127
+                                 || !parser.isDelimiter((byte)c)); ++i);
+        return i;
+    }
+
+    private boolean parse(int from, int to, IntBox intBox) {
+        if (bytes != null)
+            return IntBox.tryParse(bytes, from, to - from, intBox);
+        return IntBox.tryParse(chars, from, to, intBox);
+    }
+
+    private NumberFormatException invalidToken(int from, int to) {
+        String token = bytes != null ? new String(bytes, from, to - from, LATIN_1)
+                                     : chars.subSequence(from, to).toString();
+        return new NumberFormatException("Invalid int at " + from + ": \"" + token + "\"");
+    }
+}
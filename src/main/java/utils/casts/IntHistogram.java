@@ -0,0 +1,104 @@
+/**
+ * Histogram of ints with fixed buckets: bucket i counts the ints in
+ * min + i * width ... min + (i + 1) * width - 1, the ints below min and
+ * above the last bucket are counted in underflow() and overflow(). One
+ * long[], add(...) is a subtraction, a division and an increment.
+ *
+ * Gives approximate percentiles in constant memory (unlike IntCountMap,
+ * whose memory grows with the number of distinct ints). Not thread
+ * safe: one IntHistogram per thread, merged with merge(...) at the end.
+ */
+package utils.casts;
+
+public class IntHistogram {
+
+    private final int min;
+    private final int width;
+    private final long[] buckets;
+    private long underflow, overflow;
+
+    public IntHistogram(int min, int width, int bucketCount)
+            throws IllegalArgumentException {
+        if (width <= 0 || bucketCount <= 0)
+            throw new IllegalArgumentException("Invalid width or bucket count: "
+                                               + width + ", " + bucketCount);
+        this.min = min;
+        this.width = width;
+        this.buckets = new long[bucketCount];
+    }
+
+    public void add(int v) {
+        long d = (long)v - min; // long: no overflow for any min and v
+        if (d < 0L)
+            ++underflow;
+        else if (d / width >= buckets.length)
+            ++overflow;
+        else
+            ++buckets[(int)(d / width)];
+    }
+
+    public int min() {
+        return min;
+    }
+    public int width() {
+        return width;
+    }
+    public int bucketCount() {
+        return buckets.length;
+    }
+    public long count(int bucket) {
+        return buckets[bucket];
+    }
+    // lowest int of bucket (as long, the last buckets may be > MAX_VALUE)
+    public long lowerBound(int bucket) {
+        return (long)min + (long)bucket * width;
+    }
+    public long underflow() {
+        return underflow;
+    }
+    public long overflow() {
+        return overflow;
+    }
+    public long total() {
+        long total = underflow + overflow;
+        for (long c : buckets)
+            total += c;
+        return total;
+    }
+
+    // Approximate p-th percentile (0 <= p <= 100): the lower bound of
+    // the bucket with the ranked int, linear interpolation inside the
+    // bucket. Long.MIN_VALUE if it is in underflow, Long.MAX_VALUE if it
+    // is in overflow, 0 for an empty histogram.
+    public long percentile(double p) {
+        long total = total();
+        if (total == 0L)
+            return 0L;
+        long rank = Math.max(1L, (long)Math.ceil(p / 100.0 * total));
+        if (rank <= underflow)
+            return Long.MIN_VALUE;
+        long n = underflow;
+        for (int i = 0; i < buckets.length; ++i) {
+            if (n + buckets[i] >= rank)
+                return lowerBound(i) + (rank - n - 1) * width / buckets[i];
+            n += buckets[i];
+        }
+        return Long.MAX_VALUE;
+    }
+
+    // other must have the same min, width and bucket count
+    public void merge(IntHistogram other) throws IllegalArgumentException {
+        if (other.min != min || other.width != width
+                || other.buckets.length != buckets.length)
+            throw new IllegalArgumentException("Different buckets");
+        for (int i = 0; i < buckets.length; ++i)
+            buckets[i] += other.buckets[i];
+        underflow += other.underflow;
+        overflow += other.overflow;
+    }
+
+    public void clear() {
+        java.util.Arrays.fill(buckets, 0L);
+        underflow = overflow = 0L;
+    }
+}
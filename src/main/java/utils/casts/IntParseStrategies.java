@@ -0,0 +1,283 @@
+/**
+ * The strategies for IntBox.tryParse(String, IntBox) and the selection
+ * of one of them for the whole JVM:
+ *
+ *   BACKWARD - IntBox.tryParse(...) (two multiplications per digit, the
+ *              overflow check only for the first digit),
+ *   FORWARD  - IntBox.tryParseForward(...) (one multiplication per digit,
+ *              an overflow check per digit),
+ *   TABLE    - IntBox.tryParseWithTable(...) (no multiplication at all,
+ *              for CPUs with a slow multiplication).
+ *
+ * Which one is the fastest depends on the CPU, the JVM and the inputs
+ * (see the Java-Doc of IntBox). SELECTED is chosen once, when this class
+ * is loaded, by the system property utils.casts.IntParseStrategy:
+ *
+ *   not set       - BACKWARD (no startup cost),
+ *   BACKWARD, ... - that strategy,
+ *   a class name  - an own IntParseStrategy (public, with a public
+ *                   constructor without arguments),
+ *   calibrate     - calibrate(...) on a sample: the first lines of the
+ *                   file in utils.casts.IntParseStrategy.sample (e. g. a
+ *                   day of our own feed) or a built-in mix of ids, large
+ *                   and negative numbers and invalid tokens.
+ *
+ * SELECTED is a static final field, so the JIT treats it as a constant
+ * and inlines the selected strategy into the callers of tryParse(...)
+ * below. An invalid property never fails (this class must load): then
+ * SELECTED is BACKWARD and selection() says why.
+ *
+ * Example:
+ *
+ * java -Dutils.casts.IntParseStrategy=calibrate ...
+ * if (IntParseStrategies.tryParse(s, box)) ...
+ */
+package utils.casts;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public final class IntParseStrategies {
+
+    public static final String PROPERTY = "utils.casts.IntParseStrategy";
+    public static final String SAMPLE_PROPERTY = PROPERTY + ".sample";
+    public static final String CALIBRATE = "calibrate";
+    public static final int MAX_SAMPLE_SIZE = 10000;
+
+    private static final class Backward implements IntParseStrategy {
+        public boolean tryParse(String s, IntBox intBox) {
+            return IntBox.tryParse(s, intBox);
+        }
+        public String toString() {
+            return "BACKWARD";
+        }
+    }
+
+    private static final class Forward implements IntParseStrategy {
+        public boolean tryParse(String s, IntBox intBox) {
+            return IntBox.tryParseForward(s, intBox);
+        }
+        public String toString() {
+            return "FORWARD";
+        }
+    }
+
+    private static final class Table implements IntParseStrategy {
+        public boolean tryParse(String s, IntBox intBox) {
+            return IntBox.tryParseWithTable(s, intBox);
+        }
+        public String toString() {
+            return "TABLE";
+        }
+    }
+
+    public static final IntParseStrategy BACKWARD = new Backward();
+    public static final IntParseStrategy FORWARD = new Forward();
+    public static final IntParseStrategy TABLE = new Table();
+
+    private static final IntParseStrategy[] BUILT_IN = {BACKWARD, FORWARD, TABLE};
+
+    // Numbers on the edges of the rules: calibrate(...) drops every
+    // strategy which does not give the same results as BACKWARD for
+    // these and for the sample.
+    private static final String[] EDGE_CASES = {
+        "0", "-0", "7", "-7", " 42\t", "2147483647", "-2147483648",
+        "2147483648", "-2147483649", "00000000000000002147483647",
+        "-00000000000000002147483648", "000000000000", "-000000000000",
+        "9999999999", "-9999999999", "", " ", "-", "+1", "--1", "1-",
+        "1 2", "- 1", "12x", "\u0664\u0662", "\uFF11"
+    };
+
+    private static String selection;
+
+    public static final IntParseStrategy SELECTED = select();
+
+    private IntParseStrategies() {
+    }
+
+    // IntBox.tryParse(...) with the SELECTED strategy
+    public static boolean tryParse(String s, IntBox intBox) {
+        return SELECTED.tryParse(s, intBox);
+    }
+
+    // how SELECTED was chosen, e. g. "FORWARD (calibrated: ...)"
+    public static String selection() {
+        return selection;
+    }
+
+    // the built-in strategy with this name, or null
+    public static IntParseStrategy byName(String name) {
+        for (IntParseStrategy p : BUILT_IN)
+            if (p.toString().equals(name))
+                return p;
+        return null;
+    }
+
+    private static IntParseStrategy select() {
+        String value = System.getProperty(PROPERTY);
+        if (value == null || value.length() == 0) {
+            selection = BACKWARD + " (default)";
+            return BACKWARD;
+        }
+        if (value.equals(CALIBRATE)) {
+            String[] sample = builtInSample();
+            String file = System.getProperty(SAMPLE_PROPERTY);
+            if (file != null) {
+                try {
+                    sample = readSample(file);
+                } catch (IOException e) {
+                    selection = "(sample " + file + " not readable: " + e + ")";
+                }
+            }
+            StringBuilder report = new StringBuilder();
+            IntParseStrategy p = calibrate(sample, report);
+            selection = p + " (calibrated: " + report
+                        + (selection != null ? ", " + selection : "") + ")";
+            return p;
+        }
+        IntParseStrategy p = byName(value);
+        if (p != null) {
+            selection = p + " (" + PROPERTY + ")";
+            return p;
+        }
+        try {
+            p = (IntParseStrategy)Class.forName(value).getDeclaredConstructor().newInstance();
+            selection = value + " (" + PROPERTY + ")";
+            return p;
+        } catch (Exception e) { // not found, no IntParseStrategy, ...
+            selection = BACKWARD + " (invalid " + PROPERTY + " " + value + ": " + e + ")";
+            return BACKWARD;
+        }
+    }
+
+    public static IntParseStrategy calibrate(String[] sample) {
+        return calibrate(sample, new StringBuilder());
+    }
+
+    // The fastest of the built-in strategies on sample (at most the first
+    // MAX_SAMPLE_SIZE Strings), the time per String of each one is
+    // appended to report. Each strategy is first checked against BACKWARD
+    // (on sample and on edge cases), then all are warmed up (so the JIT
+    // has compiled them) and timed in turns, round after round, so a
+    // later JIT compilation or a noisy neighbour hits all of them, the
+    // best round of each counts. A rough measure (it takes some 100 ms),
+    // but enough to see which one the CPU likes.
+    public static IntParseStrategy calibrate(String[] sample, StringBuilder report) {
+        int n = Math.min(sample.length, MAX_SAMPLE_SIZE);
+        if (n == 0) {
+            report.append("empty sample");
+            return BACKWARD;
+        }
+        boolean[] ok = new boolean[BUILT_IN.length];
+        long[] nanos = new long[BUILT_IN.length];
+        int rounds = Math.max(1, 100000 / n);
+        for (int k = 0; k < BUILT_IN.length; ++k) {
+            IntParseStrategy p = BUILT_IN[k];
+            ok[k] = agrees(p, sample, n) && agrees(p, EDGE_CASES, EDGE_CASES.length);
+            nanos[k] = Long.MAX_VALUE;
+            for (int r = 0; ok[k] && r < 2 * rounds; ++r) // warm-up
+                run(p, sample, n);
+        }
+        for (int turn = 0; turn < 7; ++turn) {
+            for (int k = 0; k < BUILT_IN.length; ++k) {
+                if (!ok[k])
+                    continue;
+                long t = System.nanoTime();
+                for (int r = 0; r < rounds; ++r)
+                    run(BUILT_IN[k], sample, n);
+                nanos[k] = Math.min(nanos[k], System.nanoTime() - t);
+            }
+        }
+        IntParseStrategy best = BACKWARD;
+        long bestNanos = Long.MAX_VALUE;
+        for (int k = 0; k < BUILT_IN.length; ++k) {
+            if (report.length() > 0)
+                report.append(", ");
+            report.append(BUILT_IN[k]);
+            if (!ok[k]) {
+                report.append(" wrong");
+                continue;
+            }
+            report.append(' ').append(nanos[k] / rounds / n).append(" ns");
+            if (nanos[k] < bestNanos) {
+                bestNanos = nanos[k];
+                best = BUILT_IN[k];
+            }
+        }
+        return best;
+    }
+
+    private static boolean agrees(IntParseStrategy p, String[] sample, int n) {
+        IntBox expected = new IntBox(), actual = new IntBox();
+        for (int i = 0; i < n; ++i) {
+            expected.set(-1);
+            actual.set(-1);
+            boolean ok;
+            try {
+                ok = p.tryParse(sample[i], actual);
+            } catch (RuntimeException e) {
+                return false;
+            }
+            if (ok != IntBox.tryParse(sample[i], expected) || actual.v() != expected.v())
+                return false;
+        }
+        return true;
+    }
+
+    // the sum of the results, so the JIT cannot drop the calls
+    private static int sink;
+
+    private static void run(IntParseStrategy p, String[] sample, int n) {
+        IntBox box = new IntBox();
+        int sum = 0;
+        for (int i = 0; i < n; ++i)
+            if (p.tryParse(sample[i], box))
+                sum += box.v();
+        sink += sum;
+    }
+
+    private static String[] readSample(String file) throws IOException {
+        List<String> lines = new ArrayList<String>();
+        BufferedReader in = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), "UTF-8"));
+        try {
+            for (String line; lines.size() < MAX_SAMPLE_SIZE
+                              && (line = in.readLine()) != null; )
+                lines.add(line);
+        } finally {
+            in.close();
+        }
+        return lines.toArray(new String[lines.size()]);
+    }
+
+    // ids, large and negative numbers, some with whitespace, 5 % invalid
+    private static String[] builtInSample() {
+        Random rnd = new Random(20160728L);
+        String[] a = new String[MAX_SAMPLE_SIZE];
+        for (int i = 0; i < a.length; ++i) {
+            switch (rnd.nextInt(20)) {
+                case 0:
+                    a[i] = "x" + rnd.nextInt(100);
+                    break;
+                case 1:
+                case 2:
+                    a[i] = " " + rnd.nextInt(100000) + " ";
+                    break;
+                case 3:
+                case 4:
+                case 5:
+                    a[i] = String.valueOf(rnd.nextInt());
+                    break;
+                default:
+                    a[i] = String.valueOf(rnd.nextInt(100000));
+                    break;
+            }
+        }
+        return a;
+    }
+}
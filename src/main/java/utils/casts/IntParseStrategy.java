@@ -0,0 +1,16 @@
+/**
+ * One algorithm for IntBox.tryParse(String, IntBox): the same rules
+ * (whitespace around the number, no '+', only ASCII digits, false for
+ * overflow), but a different way to get there. The built-in strategies
+ * and the selection of the fastest one are in IntParseStrategies, own
+ * implementations can be selected there by their class name.
+ */
+package utils.casts;
+
+public interface IntParseStrategy {
+
+    // true and the int in intBox (with intBox.set(int), which e. g. an
+    // IntArraySlot overrides to write into its array), or false and
+    // intBox unchanged, exactly as IntBox.tryParse(s, intBox)
+    boolean tryParse(String s, IntBox intBox);
+}
@@ -0,0 +1,238 @@
+/**
+ * Push parser for delimiter separated ints which arrive in chunks (socket
+ * reads, InputStream.read(buffer), Reader.read(buffer)), where a number
+ * is often cut in two by the end of a chunk: "...,12" + "34,..." is the
+ * int 1234. Each feed(...) parses what it gets and gives the complete
+ * ints to an IntSink, the rest of the last token is kept as state (sign,
+ * accumulator, whitespace seen, overflow), not as bytes. So no String is
+ * built from the chunks and the memory is constant, however long the
+ * lines or tokens are.
+ *
+ * The rules are those of DelimitedIntParser and IntBox.tryParse(...):
+ * whitespace around the number is accepted, nothing else (no '+'),
+ * overflow makes the token invalid, empty tokens are invalid, a
+ * delimiter at the very end does not start another token. Invalid tokens
+ * go to sink.reject(...) with their position in the whole stream.
+ *
+ * Tokens which lie completely inside a chunk (nearly all of them) are
+ * found with the SWAR search of DelimitedIntParser and parsed with
+ * IntBox.tryParse(...) directly in the chunk, only the token at the end
+ * of a chunk goes through the state machine, byte by byte.
+ *
+ * Example:
+ *
+ * IntPushParser p = new IntPushParser(",\n", sink);
+ * for (int n; (n = in.read(buffer)) > 0; )
+ *     p.feed(buffer, 0, n);
+ * p.finish(); // the last token, if the stream does not end with "\n"
+ *
+ * Not thread safe (one parser per stream).
+ */
+package utils.casts;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+
+public class IntPushParser {
+
+    // states of the token at the end of the last chunk
+    private static final int START = 0;    // only whitespace so far
+    private static final int SIGN = 1;     // '-'
+    private static final int DIGITS = 2;   // at least one digit
+    private static final int TRAILING = 3; // whitespace after the digits
+    private static final int INVALID = 4;  // anything else, or overflow
+
+    private static final int BUFFER_SIZE = 1 << 13;
+
+    private final DelimitedIntParser parser;
+    private final IntSink sink;
+    private final IntBox box = new IntBox();
+    private long position;    // stream position of the next byte or char
+    private long tokenCount;
+    // the pending token (tokenLength == 0: none)
+    private long tokenStart;
+    private long tokenLength;
+    private int state;
+    private boolean negative;
+    private int acc;          // -(the digits so far), negative as in tryParse
+    private byte[] byteBuffer;
+    private char[] charBuffer;
+
+    // delimiters: as for DelimitedIntParser, e. g. ",\n"
+    public IntPushParser(String delimiters, IntSink sink)
+            throws IllegalArgumentException {
+        if (sink == null)
+            throw new IllegalArgumentException("No sink given");
+        this.parser = new DelimitedIntParser(delimiters);
+        this.sink = sink;
+    }
+
+    public void feed(byte[] a, int off, int len) {
+        int i = off, to = off + len;
+        if (tokenLength > 0L) { // continue the pending token
+            for ( ; i < to && !parser.isDelimiter(a[i]); ++i)
+                step(a[i] & 0xFF);
+            if (i == to) {
+                position += len;
+                return;
+            }
+            endToken();
+            ++i;
+        }
+        while (i < to) {
+            int d = parser.indexOfDelimiter(a, i, to);
+            if (d == to) { // the token goes on in the next chunk
+                tokenStart = position + (i - off);
+                for ( ; i < to; ++i)
+                    step(a[i] & 0xFF);
+                break;
+            }
+            if (IntBox.tryParse(a, i, d - i, box))
+                sink.accept(box._n);
+            else
+                sink.reject(position + (i - off), d - i);
+            ++tokenCount;
+            i = d + 1;
+        }
+        position += len;
+    }
+
+    public void feed(char[] a, int off, int len) {
+        int i = off, to = off + len;
+        if (tokenLength > 0L) {
+            for ( ; i < to && !isDelimiter(a[i]); ++i)
+                step(a[i]);
+            if (i == to) {
+                position += len;
+                return;
+            }
+            endToken();
+            ++i;
+        }
+        while (i < to) {
+            int d = i;
+            for ( ; d < to && !isDelimiter(a[d]); ++d);
+            if (d == to) {
+                tokenStart = position + (i - off);
+                for ( ; i < to; ++i)
+                    step(a[i]);
+                break;
+            }
+            if (IntBox.tryParse(a, i, d - i, box))
+                sink.accept(box._n);
+            else
+                sink.reject(position + (i - off), d - i);
+            ++tokenCount;
+            i = d + 1;
+        }
+        position += len;
+    }
+
+    // end of the stream: the pending token (if the stream does not end
+    // with a delimiter) goes to the sink
+    public void finish() {
+        if (tokenLength > 0L)
+            endToken();
+    }
+
+    // all of in (until read(...) returns -1), then finish(); in is not
+    // closed. Returns the number of tokens.
+    public long parse(InputStream in) throws IOException {
+        if (byteBuffer == null)
+            byteBuffer = new byte[BUFFER_SIZE];
+        for (int n; (n = in.read(byteBuffer)) >= 0; )
+            feed(byteBuffer, 0, n);
+        finish();
+        return tokenCount;
+    }
+
+    public long parse(Reader in) throws IOException {
+        if (charBuffer == null)
+            charBuffer = new char[BUFFER_SIZE];
+        for (int n; (n = in.read(charBuffer)) >= 0; )
+            feed(charBuffer, 0, n);
+        finish();
+        return tokenCount;
+    }
+
+    // back to the start of a new stream (a pending token is dropped)
+    public void reset() {
+        position = tokenCount = tokenLength = 0L;
+        state = START;
+    }
+
+    // bytes or chars fed since the start
+    public long position() {
+        return position;
+    }
+
+    // number of tokens given to the sink
+    public long tokenCount() {
+        return tokenCount;
+    }
+
+    private boolean isDelimiter(char c) {
+        return c < 128 && parser.isDelimiter((byte)c);
+    }
+
+    // next char (or byte & 0xFF) of the pending token
+    private void step(int c) {
+        ++tokenLength;
+        int d = c - '0';
+        switch (state) {
+            case START:
+                if (c <= ' ')
+                    break;
+                if (c == '-') {
+                    negative = true;
+                    state = SIGN;
+                } else {
+                    negative = false;
+                    firstDigit(d);
+                }
+                break;
+            case SIGN:
+                firstDigit(d);
+                break;
+            case DIGITS:
+                if (d >= 0 && d <= 9) {
+                    // acc * 10 - d >= limit without overflow of acc
+                    int limit = negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+                    if (acc < limit / 10 || (acc *= 10) < limit + d)
+                        state = INVALID;
+                    else
+                        acc -= d;
+                } else {
+                    state = c <= ' ' ? TRAILING : INVALID;
+                }
+                break;
+            case TRAILING:
+                if (c > ' ')
+                    state = INVALID;
+                break;
+            default: // INVALID up to the delimiter
+                break;
+        }
+    }
+
+    // d: the value of the first non-whitespace char after the sign (if any)
+    private void firstDigit(int d) {
+        if (d < 0 || d > 9) {
+            state = INVALID;
+        } else {
+            acc = -d;
+            state = DIGITS;
+        }
+    }
+
+    private void endToken() {
+        if (state == DIGITS || state == TRAILING)
+            sink.accept(negative ? acc : -acc);
+        else
+            sink.reject(tokenStart, (int)Math.min(tokenLength, Integer.MAX_VALUE));
+        ++tokenCount;
+        tokenLength = 0L;
+        state = START;
+    }
+}
@@ -0,0 +1,19 @@
+/**
+ * Receiver of the ints found by a scanner (e. g. MappedIntScanner), one
+ * call per token in the order of the input. Nothing is boxed and nothing
+ * is allocated per token.
+ *
+ * For the usual case (collect everything into int arrays) see IntChunks.
+ */
+package utils.casts;
+
+public interface IntSink {
+
+    // a valid int
+    void accept(int value);
+
+    // an invalid token (not an int by the rules of IntBox.tryParse(...)):
+    // position is the offset of its first byte in the input (e. g. the
+    // file), length its number of bytes (without the delimiter)
+    void reject(long position, int length);
+}
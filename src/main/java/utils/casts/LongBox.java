@@ -0,0 +1,214 @@
+/** LongBox class for Java published under the GNU General Public Licence
+ *  (GPL) version 1 or any newer version
+ *
+ * Class that holds exactly one long, the long counterpart of IntBox (see
+ * the Java-Doc of IntBox for the ideas behind it). As IntBox it has no
+ * public constructors, but static fabric methods makeLongBox(...), and no
+ * method throws an exception.
+ *
+ * Usage:
+ *
+ * Mainly for epoch millisecond timestamps and 64 bit ids, which would
+ * otherwise be parsed with Long.parseLong(...) and a try/catch:
+ *
+ * LongBox millis = LongBox.makeLongBox();
+ * if (LongBox.tryParse(field, millis))
+ *     ... millis.v() ...
+ *
+ * tryParse(...) has the same rules as IntBox.tryParse(...): leading and
+ * trailing whitespace is accepted, anything else (e. g. a '+' sign) is
+ * not. It parses backwards like IntBox.tryParse(...), overflow is found
+ * with the MAX_LONG_.../MIN_LONG_... constants (long equivalents of the
+ * MAX_INT_.../MIN_INT_... constants of IntBox) without any exception.
+ * Nothing is allocated, not even for surrounding whitespace or leading
+ * zeroes.
+ */
+package utils.casts;
+
+import javax.validation.constraints.NotNull;
+
+public class LongBox implements Cloneable {
+
+    // BEGIN the following statements are only executed once (see IntBox)
+        public static final int MAX_LONG_LEN =
+                String.valueOf(Long.MAX_VALUE).length();
+        public static final int MIN_LONG_LEN =
+                String.valueOf(Long.MIN_VALUE).length();
+        public static final long MAX_LONG_LASTDEC =
+                Long.parseLong(String.valueOf(Long.MAX_VALUE).substring(1));
+        public static final int MAX_LONG_FIRSTDIGIT =
+                Integer.parseInt(String.valueOf(Long.MAX_VALUE).substring(0, 1));
+        public static final long MIN_LONG_LASTDEC =
+                -Long.parseLong(String.valueOf(Long.MIN_VALUE).substring(2));
+        public static final int MIN_LONG_FIRSTDIGIT =
+                Integer.parseInt(String.valueOf(Long.MIN_VALUE).substring(1,2));
+    // END the following statements are only executed once
+
+    protected long _n;
+
+    @NotNull
+    public static LongBox makeLongBox() {
+        return new LongBox();
+    }
+    @NotNull
+    public static LongBox makeLongBox(long n) {
+        return new LongBox(n);
+    }
+    @NotNull
+    public static LongBox makeLongBox(double d, long defaultValue) {
+        return new LongBox(d,defaultValue);
+    }
+    @NotNull
+    public static LongBox makeLongBox(String s, long defaultValue) {
+        return new LongBox(s,defaultValue);
+    }
+    @NotNull
+    public static LongBox makeLongBox(LongBox lb, long defaultValue) {
+        return new LongBox(lb,defaultValue);
+    }
+
+    public LongBox() {
+        _n=0L; // 0 is the default value of LongBox, if all else fails
+    }
+    protected LongBox(long n) {
+        _n=n;
+    }
+    protected LongBox(double d, long defaultValue) {
+        if (d < Long.MAX_VALUE && d > Long.MIN_VALUE)
+            _n=(long)d;
+        else
+            _n=defaultValue;
+    }
+    protected LongBox(String s, long defaultValue) {
+        if (s == null || !tryParse(s,this))
+            _n=defaultValue;
+    }
+    protected LongBox(LongBox lb, long defaultValue) {
+        if (lb == null)
+            _n=defaultValue;
+        else
+            _n=lb._n;
+    }
+
+    public long v() { // v for "value"
+        return _n;
+    }
+    public long get() {
+        return _n;
+    }
+    public long set(long n) {
+        _n=n;
+        return _n;
+    }
+    public long set(double d, long defaultValue) {
+        if (d < Long.MAX_VALUE && d > Long.MIN_VALUE)
+            _n=(long)d;
+        else
+            _n=defaultValue;
+        return _n;
+    }
+    // As IntBox.set(String,int) this uses tryParse, i. e. no exception
+    // is thrown (and caught) for an invalid String:
+    public long set(String s, long defaultValue) {
+        if (s == null || !tryParse(s,this))
+            _n=defaultValue;
+        return _n;
+    }
+
+    public static boolean tryParse(String s, LongBox longBox) {
+        if (s == null || longBox == null)
+            return false; // see IntBox.tryParse(String s,IntBox intBox)
+        return tryParse(s, 0, s.length(), longBox);
+    }
+
+    // Backward parsing as in IntBox.tryParse(CharSequence s, int from,
+    // int to, IntBox intBox), with long accumulator and multiplier.
+    public static boolean tryParse(CharSequence s, int from, int to,
+                                   LongBox longBox) {
+        if (s == null || longBox == null || from < 0 || from > to
+                || to > s.length())
+            return false;
+        while (from < to && s.charAt(from) <= ' ')
+            ++from;
+        while (to > from && s.charAt(to - 1) <= ' ')
+            --to;
+        if (from == to)
+            return false;
+        int len=to-from; // len and the indices below include the sign
+        long rslt=0L, j;
+        int dfirst=0, i;
+        char c=s.charAt(from);
+        if (c == '-') {
+            if (len > MIN_LONG_LEN) { // skip leading zeroes
+                i = from + 1;
+                for ( ; i < to - 1 && s.charAt(i) == '0'; ++i);
+                from = i - 1; // the sign is never read again (len >= 2)
+                len = to - from;
+            }
+            if (len >= MIN_LONG_LEN) {
+                c = s.charAt(from + 1);
+                if ((char)(c - '0') > 9)
+                    return false;
+                dfirst = c-'0';
+                if (len > MIN_LONG_LEN || dfirst > MIN_LONG_FIRSTDIGIT)
+                    return false;
+            }
+            for (i = to - 1, j = 1L; i >= from + 2; --i, j *= 10L) {
+                c = s.charAt(i);
+                if ((char)(c - '0') > 9)
+                    return false;
+                rslt -= (c-'0')*j;
+            }
+            if (len < MIN_LONG_LEN) {
+                c = s.charAt(i);
+                if ((char)(c - '0') > 9)
+                    return false;
+                rslt -= (c-'0')*j;
+            } else {
+                if (dfirst >= MIN_LONG_FIRSTDIGIT && rslt < MIN_LONG_LASTDEC)
+                    return false;
+                rslt -= dfirst * j;
+            }
+        } else {
+            if (len > MAX_LONG_LEN) {
+                for ( ; from < to - 1 && s.charAt(from) == '0'; ++from);
+                len = to - from;
+            }
+            if (len >= MAX_LONG_LEN) {
+                c = s.charAt(from);
+                if ((char)(c - '0') > 9)
+                    return false;
+                dfirst = c-'0';
+                if (len > MAX_LONG_LEN || dfirst > MAX_LONG_FIRSTDIGIT)
+                    return false;
+            }
+            for (i = to - 1, j = 1L; i >= from + 1; --i, j *= 10L) {
+                c = s.charAt(i);
+                if ((char)(c - '0') > 9)
+                    return false;
+                rslt += (c-'0')*j;
+            }
+            if (len < MAX_LONG_LEN) {
+                c = s.charAt(i);
+                if ((char)(c - '0') > 9)
+                    return false;
+                rslt += (c-'0')*j;
+            } else {
+                if (dfirst >= MAX_LONG_FIRSTDIGIT && rslt > MAX_LONG_LASTDEC)
+                    return false;
+                rslt += dfirst * j;
+            }
+        }
+        longBox._n=rslt;
+        return true;
+    }
+
+    @Override
+    public Object clone() {
+        return new LongBox(this._n);
+    }
+
+    public String toString() {
+        return Long.toString(_n);
+    }
+}
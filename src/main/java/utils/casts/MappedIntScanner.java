@@ -0,0 +1,148 @@
+/**
+ * Scanner for (multi GB) files of delimiter separated ints, usually one
+ * int per line. Replaces BufferedReader.readLine() + IntBox.tryParse(...),
+ * which creates a String per line (and a second one for the trim).
+ *
+ * The file is mapped with FileChannel.map(...) window by window (a
+ * MappedByteBuffer can hold at most 2 GB, the default window is 1 GB)
+ * and the mapped bytes are parsed in place with the rules of
+ * IntBox.tryParse(ByteBuffer, ...) and the SWAR delimiter search of
+ * DelimitedIntParser. Each value goes to an IntSink, e. g. an IntChunks
+ * object. Nothing is allocated per line.
+ *
+ * Each window ends after its last delimiter, the next window starts right
+ * there, so a number is never cut at the edge of a window. Only a token
+ * longer than a whole window (which is no int anyway, unless it is padded
+ * with some hundred MB of whitespace or zeroes) is rejected unparsed.
+ *
+ * Example:
+ *
+ * IntChunks values = new MappedIntScanner().scan(new File("ids.txt"), -1);
+ *
+ * Java 6 cannot unmap a MappedByteBuffer, the windows are unmapped by the
+ * garbage collector. With 1 GB windows this only needs address space.
+ */
+package utils.casts;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+public class MappedIntScanner {
+
+    public static final int DEFAULT_WINDOW_SIZE = 1 << 30;
+    public static final String NEWLINE = "\n";
+
+    private final DelimitedIntParser parser;
+    private final int windowSize;
+
+    public MappedIntScanner() {
+        this(NEWLINE, DEFAULT_WINDOW_SIZE);
+    }
+
+    // delimiters: as for DelimitedIntParser, e. g. ",\n"
+    public MappedIntScanner(String delimiters, int windowSize)
+            throws IllegalArgumentException {
+        if (windowSize <= 0)
+            throw new IllegalArgumentException("Invalid window size: " + windowSize);
+        this.parser = new DelimitedIntParser(delimiters);
+        this.windowSize = windowSize;
+    }
+
+    // all ints of file into a new IntChunks (invalid ones as defaultValue)
+    public IntChunks scan(File file, int defaultValue) throws IOException {
+        IntChunks chunks = new IntChunks(defaultValue);
+        scan(file, chunks);
+        return chunks;
+    }
+
+    // all ints of file into sink, returns the number of tokens
+    public long scan(File file, IntSink sink) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            FileChannel ch = raf.getChannel();
+            return scan(ch, 0L, ch.size(), sink);
+        } finally {
+            raf.close();
+        }
+    }
+
+    // The tokens of the bytes from..to-1 of ch. from should be the start
+    // of a token (0 or the byte after a delimiter), otherwise the first
+    // token is only the end of a number. The positions given to
+    // sink.reject(...) are positions in ch.
+    public long scan(FileChannel ch, long from, long to, IntSink sink)
+            throws IOException {
+        IntBox box = new IntBox();
+        long n = 0L, pos = from;
+        while (pos < to) {
+            long end = Math.min(to, pos + windowSize);
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, pos, end - pos);
+            buf.order(ByteOrder.LITTLE_ENDIAN); // single loads in Swar.getLongLE
+            int limit = (int)(end - pos);
+            if (end < to) { // end the window after its last delimiter
+                int i = limit - 1;
+                for ( ; i >= 0 && !parser.isDelimiter(buf.get(i)); --i);
+                if (i < 0) { // no delimiter in the whole window
+                    long tokenEnd = indexOfDelimiter(ch, end, to);
+                    sink.reject(pos, (int)Math.min(tokenEnd - pos, Integer.MAX_VALUE));
+                    ++n;
+                    pos = tokenEnd + 1;
+                    continue;
+                }
+                limit = i + 1;
+            }
+            n += scan(buf, limit, pos, box, sink);
+            pos += limit;
+        }
+        return n;
+    }
+
+    // Tokens of buf[0..to-1] (the delimiters found as in
+    // DelimitedIntParser.parse(...)), base is the position of buf[0].
+    private long scan(MappedByteBuffer buf, int to, long base,
+                      IntBox box, IntSink sink) {
+        long n = 0L;
+        int start = 0, i = 0, end;
+        for ( ; i <= to - 8; i += 8) {
+            for (long m = parser.delimiterBytes(Swar.getLongLE(buf, i)); m != 0L;
+                 m &= m - 1L) {
+                end = i + (Long.numberOfTrailingZeros(m) >>> 3);
+                if (IntBox.tryParse(buf, start, end, box))
+                    sink.accept(box._n);
+                else
+                    sink.reject(base + start, end - start);
+                ++n;
+                start = end + 1;
+            }
+        }
+        for ( ; i <= to; ++i) {
+            if (i == to ? start < to : parser.isDelimiter(buf.get(i))) {
+                if (IntBox.tryParse(buf, start, i, box))
+                    sink.accept(box._n);
+                else
+                    sink.reject(base + start, i - start);
+                ++n;
+                start = i + 1;
+            }
+        }
+        return n;
+    }
+
+    // position of the first delimiter in ch at or after from, or to
+    private long indexOfDelimiter(FileChannel ch, long from, long to)
+            throws IOException {
+        for (long pos = from; pos < to; pos += windowSize) {
+            long end = Math.min(to, pos + windowSize);
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, pos, end - pos);
+            buf.order(ByteOrder.LITTLE_ENDIAN);
+            int i = parser.indexOfDelimiter(buf, 0, (int)(end - pos));
+            if (i < end - pos)
+                return pos + i;
+        }
+        return to;
+    }
+}
@@ -0,0 +1,199 @@
+/**
+ * Column of ints outside of the Java heap: the off-heap counterpart of
+ * IntChunks for hundreds of millions of values per JVM. The ints are
+ * stored in direct ByteBuffers of CHUNK_SIZE ints (4 MB) each, with a
+ * validity bitmap (also a direct buffer) per chunk: the heap only holds
+ * a few objects per chunk, so the GC neither copies nor scans the values
+ * (a heap int[] of this size makes every full GC longer). Indices are
+ * longs, there is no 2^31 limit.
+ *
+ * It is filled straight by the parsers: as an IntSink by MappedIntScanner,
+ * IntPushParser, IntCursor, ..., or by tryParseAndAdd(...) for single
+ * values. Invalid values are stored as defaultValue with a 0 bit, the
+ * policy of IntBox.makeIntBox(String s, int defaultValue).
+ *
+ * Reading is zero-copy: chunk(c) and validity(c) are views (IntBuffer,
+ * LongBuffer) of the off-heap memory itself, e. g. for a sequential scan
+ * chunk by chunk, and writeTo(...) hands the chunks to a channel (file
+ * or socket) without copying them to the heap (in native byte order).
+ * copyTo(...) copies into an int[] in one bulk get per chunk.
+ *
+ * Java 6 has no MemorySegment (and no way to free a direct buffer
+ * explicitly), the off-heap memory of a chunk is released by the GC
+ * together with its ByteBuffer. The JVM limits the total size of direct
+ * buffers with -XX:MaxDirectMemorySize (default: the maximum heap size).
+ *
+ * Not thread safe (one writer, or readers after the writer is done).
+ */
+package utils.casts;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+public class OffHeapIntColumn implements IntSink {
+
+    public static final int CHUNK_SHIFT = 20;
+    public static final int CHUNK_SIZE = 1 << CHUNK_SHIFT; // 1 Mi ints, 4 MB
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final int defaultValue;
+    private final IntBox box = new IntBox();
+    private ByteBuffer[] chunks = new ByteBuffer[8];
+    private ByteBuffer[] valids = new ByteBuffer[8];
+    private IntBuffer ints;    // views of the last chunk
+    private LongBuffer bits;
+    private long size;
+    private long invalidCount;
+
+    public OffHeapIntColumn() {
+        this(0);
+    }
+
+    // defaultValue: the value stored for invalid values
+    public OffHeapIntColumn(int defaultValue) {
+        this.defaultValue = defaultValue;
+    }
+
+    public void accept(int value) {
+        add(value, true);
+    }
+
+    public void reject(long position, int length) {
+        add(defaultValue, false);
+    }
+
+    public void add(int value, boolean valid) {
+        int i = (int)size & CHUNK_MASK;
+        if (i == 0) { // first int of a new chunk
+            int c = (int)(size >>> CHUNK_SHIFT);
+            if (c == chunks.length) {
+                chunks = Arrays.copyOf(chunks, 2 * c);
+                valids = Arrays.copyOf(valids, 2 * c);
+            }
+            // allocateDirect(...) fills with zeroes, i. e. all invalid
+            chunks[c] = ByteBuffer.allocateDirect(CHUNK_SIZE * 4)
+                                  .order(ByteOrder.nativeOrder());
+            valids[c] = ByteBuffer.allocateDirect(CHUNK_SIZE / 8)
+                                  .order(ByteOrder.nativeOrder());
+            ints = chunks[c].asIntBuffer();
+            bits = valids[c].asLongBuffer();
+        }
+        ints.put(i, value);
+        if (valid)
+            bits.put(i >>> 6, bits.get(i >>> 6) | 1L << i);
+        else
+            ++invalidCount;
+        ++size;
+    }
+
+    // Parses s (with the rules of IntBox.tryParse(...)) and adds it, or
+    // defaultValue as invalid. Returns whether s was valid.
+    public boolean tryParseAndAdd(CharSequence s) {
+        return tryParseAndAdd(s, 0, s == null ? 0 : s.length());
+    }
+
+    public boolean tryParseAndAdd(CharSequence s, int from, int to) {
+        boolean ok = s != null && IntBox.tryParse(s, from, to, box);
+        add(ok ? box._n : defaultValue, ok);
+        return ok;
+    }
+
+    // the ASCII bytes a[off..off+len-1]
+    public boolean tryParseAndAdd(byte[] a, int off, int len) {
+        boolean ok = IntBox.tryParse(a, off, len, box);
+        add(ok ? box._n : defaultValue, ok);
+        return ok;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public long invalidCount() {
+        return invalidCount;
+    }
+
+    // no range check beyond the one of the buffers: i must be < size()
+    public int get(long i) {
+        return chunks[(int)(i >>> CHUNK_SHIFT)].getInt(((int)i & CHUNK_MASK) << 2);
+    }
+
+    public boolean isValid(long i) {
+        int j = (int)i & CHUNK_MASK;
+        return (valids[(int)(i >>> CHUNK_SHIFT)].getLong((j >>> 6) << 3) & 1L << j) != 0L;
+    }
+
+    // For processing without any copy: chunk c holds the ints
+    // c * CHUNK_SIZE ..., all chunks but the last one are full.
+    public int chunkCount() {
+        return (int)((size + CHUNK_MASK) >>> CHUNK_SHIFT);
+    }
+
+    // the ints of chunk c (a view: position 0, limit the number of ints
+    // in the chunk), read only
+    public IntBuffer chunk(int c) {
+        IntBuffer view = chunks[c].asReadOnlyBuffer().order(chunks[c].order())
+                                  .asIntBuffer();
+        view.limit(chunkLength(c));
+        return view;
+    }
+
+    // the validity bitmap of chunk c (bit i is word i >>> 6, 1L << i)
+    public LongBuffer validity(int c) {
+        LongBuffer view = valids[c].asReadOnlyBuffer().order(valids[c].order())
+                                   .asLongBuffer();
+        view.limit(IntBox.validityWords(chunkLength(c)));
+        return view;
+    }
+
+    private int chunkLength(int c) {
+        return (int)Math.min(CHUNK_SIZE, size - ((long)c << CHUNK_SHIFT));
+    }
+
+    // copies len ints starting at index from into dst[dstOff...]
+    public void copyTo(long from, int[] dst, int dstOff, int len) {
+        while (len > 0) {
+            int c = (int)(from >>> CHUNK_SHIFT), i = (int)from & CHUNK_MASK;
+            int n = Math.min(len, CHUNK_SIZE - i);
+            IntBuffer view = chunks[c].duplicate().order(chunks[c].order()).asIntBuffer();
+            view.position(i);
+            view.get(dst, dstOff, n);
+            from += n;
+            dstOff += n;
+            len -= n;
+        }
+    }
+
+    // All ints (4 bytes each, native byte order) to ch, straight from the
+    // off-heap memory. Returns the number of bytes written.
+    public long writeTo(WritableByteChannel ch) throws IOException {
+        long n = 0L;
+        for (int c = 0; c < chunkCount(); ++c) {
+            ByteBuffer view = chunks[c].duplicate();
+            view.limit(chunkLength(c) << 2);
+            while (view.hasRemaining())
+                n += ch.write(view);
+        }
+        return n;
+    }
+
+    // the valid ints into agg, the invalid ones only counted (a scan
+    // over all chunks)
+    public void aggregate(IntAggregator agg) {
+        for (int c = 0; c < chunkCount(); ++c) {
+            IntBuffer v = chunks[c].asIntBuffer();
+            LongBuffer b = valids[c].asLongBuffer();
+            for (int i = 0, len = chunkLength(c); i < len; ++i) {
+                if ((b.get(i >>> 6) & 1L << i) != 0L)
+                    agg.add(v.get(i));
+                else
+                    agg.addInvalid();
+            }
+        }
+    }
+}
@@ -0,0 +1,300 @@
+/**
+ * Parses one large buffer or file of delimiter separated ints with several
+ * threads, into one int[] in the original order (the same result as
+ * DelimitedIntParser.parse(...) on the whole input).
+ *
+ * The input is cut into ranges of about splitSize bytes, each cut is
+ * moved behind the next delimiter, so every token is in exactly one
+ * range. Then the threads of an ExecutorService
+ *   1. count the tokens of each range (cheap: SWAR, see countTokens(...)),
+ *      the prefix sums of the counts are the offsets of the ranges in
+ *      the result, and
+ *   2. parse each range directly into its part of the result int[] (no
+ *      per-range arrays which have to be stitched together) and into a
+ *      small validity bitmap of its own, which is aligned to the words of
+ *      the result bitmap and ORed into it at the end (neighbour ranges
+ *      share a word, so they must not write into the same long[]).
+ * Invalid tokens get defaultValue, their index and position (in the
+ * byte[], ByteBuffer or file) are in the Result (only the ranges with
+ * invalid tokens are scanned once more to find the positions).
+ *
+ * Java 6 has no ForkJoinPool, the tasks are plain Callables, one per
+ * range, given to invokeAll(...) of the ExecutorService, e. g. of
+ * Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors()).
+ * The ExecutorService belongs to the caller (it is never shut down here).
+ * The ranges should be much more than the threads (the default splitSize
+ * of 1 MB gives 1000 ranges per GB), so all threads finish at about the
+ * same time.
+ *
+ * Example:
+ *
+ * ParallelIntParser p = new ParallelIntParser("\n", executor);
+ * ParallelIntParser.Result r = p.parse(new File("ids.txt"), -1);
+ * ... r.values() ... r.errorCount() ...
+ */
+package utils.casts;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+public class ParallelIntParser {
+
+    public static final int DEFAULT_SPLIT_SIZE = 1 << 20;
+
+    private final DelimitedIntParser parser;
+    private final ExecutorService executor;
+    private final int splitSize;
+
+    public ParallelIntParser(String delimiters, ExecutorService executor) {
+        this(delimiters, executor, DEFAULT_SPLIT_SIZE);
+    }
+
+    // splitSize: the (minimum) number of bytes of a range
+    public ParallelIntParser(String delimiters, ExecutorService executor,
+                             int splitSize) throws IllegalArgumentException {
+        if (executor == null)
+            throw new IllegalArgumentException("No executor given");
+        if (splitSize <= 0)
+            throw new IllegalArgumentException("Invalid split size: " + splitSize);
+        this.parser = new DelimitedIntParser(delimiters);
+        this.executor = executor;
+        this.splitSize = splitSize;
+    }
+
+    public static class Result {
+        private final int[] values;
+        private final long[] valid;
+        private final int[] errorIndices;
+        private final long[] errorPositions;
+
+        Result(int[] values, long[] valid, int[] errorIndices, long[] errorPositions) {
+            this.values = values;
+            this.valid = valid;
+            this.errorIndices = errorIndices;
+            this.errorPositions = errorPositions;
+        }
+
+        // all tokens, invalid ones as defaultValue
+        public int[] values() {
+            return values;
+        }
+
+        // validity bitmap as in IntBox.tryParseAll(...), see IntBox.isValid(...)
+        public long[] valid() {
+            return valid;
+        }
+
+        public int errorCount() {
+            return errorIndices.length;
+        }
+
+        // index (in values()) of the k-th invalid token
+        public int errorIndex(int k) {
+            return errorIndices[k];
+        }
+
+        // position of the first byte of the k-th invalid token
+        public long errorPosition(int k) {
+            return errorPositions[k];
+        }
+    }
+
+    // one range of the input, with everything the tasks find out about it
+    private static final class Range {
+        final long start, end; // positions in the input
+        ByteBuffer buf;        // the bytes buf[from..to-1] are the range
+        int from, to;
+        int count, dstOff;
+        long[] valid;          // bit dstOff & 63 is the first token
+        int[] errorIndices;
+        long[] errorPositions;
+
+        Range(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    public Result parse(byte[] a, int off, int len, int defaultValue)
+            throws InterruptedException {
+        return parse(ByteBuffer.wrap(a), off, off + len, defaultValue);
+    }
+
+    // the bytes between position and limit of buf (not changed)
+    public Result parse(ByteBuffer buf, int defaultValue) throws InterruptedException {
+        return parse(buf, buf.position(), buf.limit(), defaultValue);
+    }
+
+    private Result parse(ByteBuffer buf, int from, int to, int defaultValue)
+            throws InterruptedException {
+        List<Range> ranges = new ArrayList<Range>();
+        for (int start = from; start < to; ) {
+            int end = to;
+            if (to - start > splitSize) {
+                end = parser.indexOfDelimiter(buf, start + splitSize, to);
+                end = end < to ? end + 1 : to;
+            }
+            Range r = new Range(start, end);
+            r.buf = buf;
+            r.from = start;
+            r.to = end;
+            ranges.add(r);
+            start = end;
+        }
+        try {
+            return parse(ranges, null, defaultValue);
+        } catch (IOException e) { // never thrown without a FileChannel
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Every range is mapped by the task which counts its tokens. Tokens
+    // are limited by the int[] of the result (2^31), not the file size.
+    public Result parse(File file, int defaultValue)
+            throws IOException, InterruptedException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            FileChannel ch = raf.getChannel();
+            long to = ch.size();
+            List<Range> ranges = new ArrayList<Range>();
+            for (long start = 0L; start < to; ) {
+                long end = to;
+                if (to - start > splitSize) {
+                    end = indexOfDelimiter(ch, start + splitSize, to);
+                    end = end < to ? end + 1 : to;
+                }
+                ranges.add(new Range(start, end));
+                start = end;
+            }
+            return parse(ranges, ch, defaultValue);
+        } finally {
+            raf.close();
+        }
+    }
+
+    private Result parse(final List<Range> ranges, final FileChannel ch,
+                         final int defaultValue)
+            throws IOException, InterruptedException {
+        // 1. count the tokens of each range
+        List<Callable<Object>> tasks = new ArrayList<Callable<Object>>(ranges.size());
+        for (final Range r : ranges) {
+            tasks.add(new Callable<Object>() {
+                public Object call() throws IOException {
+                    if (ch != null) {
+                        r.buf = ch.map(FileChannel.MapMode.READ_ONLY,
+                                       r.start, r.end - r.start)
+                                  .order(ByteOrder.LITTLE_ENDIAN);
+                        r.from = 0;
+                        r.to = (int)(r.end - r.start);
+                    }
+                    r.count = parser.countTokens(r.buf, r.from, r.to);
+                    return null;
+                }
+            });
+        }
+        invokeAll(tasks);
+        long total = 0L;
+        for (Range r : ranges) {
+            r.dstOff = (int)total;
+            total += r.count;
+        }
+        if (total > Integer.MAX_VALUE - 8)
+            throw new IllegalStateException("Too many ints for one array: " + total);
+        // 2. parse each range into its part of values
+        final int[] values = new int[(int)total];
+        tasks.clear();
+        for (final Range r : ranges) {
+            tasks.add(new Callable<Object>() {
+                public Object call() {
+                    parse(r, values, defaultValue);
+                    return null;
+                }
+            });
+        }
+        invokeAll(tasks);
+        // 3. the validity bitmaps of the ranges and the errors
+        long[] valid = new long[IntBox.validityWords(values.length)];
+        int errors = 0;
+        for (Range r : ranges) {
+            for (int w = 0, v = r.dstOff >>> 6; w < r.valid.length; ++w, ++v)
+                valid[v] |= r.valid[w];
+            errors += r.errorIndices.length;
+        }
+        int[] errorIndices = new int[errors];
+        long[] errorPositions = new long[errors];
+        errors = 0;
+        for (Range r : ranges) {
+            System.arraycopy(r.errorIndices, 0, errorIndices, errors, r.errorIndices.length);
+            System.arraycopy(r.errorPositions, 0, errorPositions, errors, r.errorPositions.length);
+            errors += r.errorIndices.length;
+        }
+        return new Result(values, valid, errorIndices, errorPositions);
+    }
+
+    private void parse(Range r, int[] values, int defaultValue) {
+        ByteBuffer view = r.buf.duplicate().order(r.buf.order()); // own position
+        view.limit(r.to);
+        view.position(r.from);
+        int validOff = r.dstOff & 63;
+        r.valid = new long[IntBox.validityWords(validOff + r.count)];
+        parser.parse(view, values, r.dstOff, r.valid, validOff, defaultValue);
+        int errors = r.count;
+        for (long w : r.valid)
+            errors -= Long.bitCount(w);
+        r.errorIndices = new int[errors];
+        r.errorPositions = new long[errors];
+        if (errors == 0)
+            return;
+        // find the positions of the invalid tokens (should be rare)
+        for (int k = 0, e = 0, start = r.from; e < errors; ++k) {
+            int end = parser.indexOfDelimiter(r.buf, start, r.to);
+            if (!IntBox.isValid(r.valid, validOff + k)) {
+                r.errorIndices[e] = r.dstOff + k;
+                r.errorPositions[e++] = r.start + (start - r.from);
+            }
+            start = end + 1;
+        }
+    }
+
+    private void invokeAll(List<Callable<Object>> tasks)
+            throws IOException, InterruptedException {
+        for (Future<Object> f : executor.invokeAll(tasks)) {
+            try {
+                f.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException)
+                    throw (IOException)cause;
+                if (cause instanceof RuntimeException)
+                    throw (RuntimeException)cause;
+                if (cause instanceof Error)
+                    throw (Error)cause;
+                throw new IllegalStateException(cause);
+            }
+        }
+    }
+
+    // position of the first delimiter in ch at or after from, or to
+    private long indexOfDelimiter(FileChannel ch, long from, long to)
+            throws IOException {
+        for (long pos = from; pos < to; pos += 4096) {
+            long end = Math.min(to, pos + 4096);
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, pos, end - pos);
+            int i = parser.indexOfDelimiter(buf, 0, (int)(end - pos));
+            if (i < end - pos)
+                return pos + i;
+        }
+        return to;
+    }
+}
@@ -0,0 +1,22 @@
+/**
+ * Receiver of the events of ParseStats (only if the instrumentation is
+ * switched on, see there). The methods are called by the parsing thread,
+ * right in the parse, so they must be fast and must not parse themselves
+ * (e. g. log asynchronously or just count). s is the caller's
+ * CharSequence: copy the part from..to-1 if it is needed later.
+ */
+package utils.casts;
+
+public interface ParseListener {
+
+    // a sampled parse which took at least ParseStats.SLOW_PARSE_NANOS,
+    // status as of IntBox.parseStatus(...)
+    void slowParse(CharSequence s, int from, int to, int status, long nanos);
+
+    // a sampled parse which failed (e. g. to find the dirty feed)
+    void sampledReject(CharSequence s, int from, int to, int status);
+
+    // a whole batch, e. g. operation "IntBox.tryParseAll": count numbers
+    // (tokens), invalid of them not valid, in nanos
+    void batch(String operation, int count, int invalid, long nanos);
+}
@@ -0,0 +1,153 @@
+/**
+ * Opt-in instrumentation of the parsers of this package, to see in a
+ * running JVM how many values are rejected and why (a dirty upstream
+ * feed), and what the parsing costs:
+ *
+ *   counters - per status code of IntBox.parseStatus(...) (PARSE_OK,
+ *              PARSE_INVALID_CHAR, PARSE_OVERFLOW, ... are the indices
+ *              for count(...)), plus LEADING_ZEROS (numbers with leading
+ *              zeroes which had to be skipped), LTRIM_ALLOCATIONS (calls
+ *              of IntBox.ltrimZeroes(...) which created a new String)
+ *              and SLOW_PARSES,
+ *   events   - to a ParseListener: every SAMPLE_INTERVAL-th parse of a
+ *              thread is timed and reported if it is slow or invalid,
+ *              batches (IntBox.tryParseAll(...),
+ *              DelimitedIntParser.parse(...)) are timed every time.
+ *
+ * Counted are all String and CharSequence parses (they all go through
+ * IntBox.parseStatus(...)); the byte[], char[] and ByteBuffer variants
+ * are only seen in the batches of DelimitedIntParser.
+ *
+ * Switched on with the system property utils.casts.ParseStats=true (it
+ * cannot be switched at runtime). ENABLED is a static final, so the JIT
+ * treats it as a constant: switched off, the "if (ParseStats.ENABLED)"
+ * in the parsers is removed completely, i. e. it costs nothing.
+ * Switched on, a parse costs one atomic increment more (on a counter of
+ * the thread's own stripe, see StripedIntBox), a sampled one two
+ * System.nanoTime() calls more.
+ *
+ * JDK Flight Recorder events would be the tool of choice for this, but
+ * JFR has no API for own events before Java 9 (this package is for Java
+ * 6), so a ParseListener gets the events instead.
+ *
+ * Example:
+ *
+ * java -Dutils.casts.ParseStats=true ...
+ * ParseStats.setListener(myListener);
+ * ... ParseStats.count(IntBox.PARSE_INVALID_CHAR) ... ParseStats.report()
+ */
+package utils.casts;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public final class ParseStats {
+
+    public static final String PROPERTY = "utils.casts.ParseStats";
+    public static final boolean ENABLED = Boolean.getBoolean(PROPERTY);
+
+    // a parse which takes longer is reported (if sampled)
+    public static final long SLOW_PARSE_NANOS =
+            Long.getLong(PROPERTY + ".slowNanos", 10000L);
+    public static final int SAMPLE_INTERVAL = 1024; // a power of two
+
+    // counter indices behind the status codes (0..PARSE_INVALID_ARGUMENT)
+    public static final int LEADING_ZEROS = IntBox.PARSE_INVALID_ARGUMENT + 1;
+    public static final int LTRIM_ALLOCATIONS = LEADING_ZEROS + 1;
+    public static final int SLOW_PARSES = LTRIM_ALLOCATIONS + 1;
+    public static final int COUNTERS = SLOW_PARSES + 1;
+    private static final int TICKS = COUNTERS; // for the sampling
+
+    private static final String[] NAMES = {
+        "ok", "empty", "noDigits", "invalidChar", "overflow", "underflow",
+        "invalidArgument", "leadingZeros", "ltrimAllocations", "slowParses"
+    };
+
+    private static final int PAD = 16; // longs per stripe: 2 cache lines
+    private static final int STRIPES = stripes();
+    private static final AtomicLongArray CELLS = new AtomicLongArray(STRIPES * PAD);
+
+    private static volatile ParseListener listener;
+
+    private ParseStats() {
+    }
+
+    private static int stripes() {
+        int n = 1;
+        while (n < 2 * Runtime.getRuntime().availableProcessors() && n < 64)
+            n <<= 1;
+        return n;
+    }
+
+    // first cell of the stripe of the current thread
+    private static int stripe() {
+        int h = System.identityHashCode(Thread.currentThread());
+        return ((h ^ (h >>> 16)) & (STRIPES - 1)) * PAD;
+    }
+
+    public static void setListener(ParseListener l) {
+        listener = l;
+    }
+
+    // sum of counter over all threads (no atomic snapshot), counter is a
+    // status code of IntBox.parseStatus(...) or LEADING_ZEROS, ...
+    public static long count(int counter) {
+        long sum = 0L;
+        for (int k = counter; k < CELLS.length(); k += PAD)
+            sum += CELLS.get(k);
+        return sum;
+    }
+
+    public static void reset() {
+        for (int k = 0; k < CELLS.length(); ++k)
+            CELLS.set(k, 0L);
+    }
+
+    // all counters as "ok=123, empty=0, ..."
+    public static String report() {
+        StringBuilder sb = new StringBuilder();
+        for (int c = 0; c < COUNTERS; ++c) {
+            if (c > 0)
+                sb.append(", ");
+            sb.append(NAMES[c]).append('=').append(count(c));
+        }
+        return sb.toString();
+    }
+
+    static void increment(int counter) {
+        CELLS.getAndIncrement(stripe() + counter);
+    }
+
+    // IntBox.parseStatus(...) if ENABLED: the parse with counting and
+    // sampling
+    static int parseStatus(CharSequence s, int from, int to, IntBox intBox) {
+        int base = stripe();
+        // the sampling tick needs no atomic increment: a lost tick (two
+        // threads on one stripe) only shifts the next sample
+        long tick = CELLS.get(base + TICKS);
+        CELLS.lazySet(base + TICKS, tick + 1L);
+        int status;
+        if ((tick & (SAMPLE_INTERVAL - 1)) != 0L) {
+            status = IntBox.parseDecimal(s, from, to, intBox);
+        } else {
+            long t = System.nanoTime();
+            status = IntBox.parseDecimal(s, from, to, intBox);
+            long nanos = System.nanoTime() - t;
+            ParseListener l = listener;
+            if (nanos >= SLOW_PARSE_NANOS) {
+                CELLS.getAndIncrement(base + SLOW_PARSES);
+                if (l != null)
+                    l.slowParse(s, from, to, status, nanos);
+            }
+            if (status != IntBox.PARSE_OK && l != null)
+                l.sampledReject(s, from, to, status);
+        }
+        CELLS.getAndIncrement(base + IntBox.statusCode(status));
+        return status;
+    }
+
+    static void batch(String operation, int count, int invalid, long nanos) {
+        ParseListener l = listener;
+        if (l != null)
+            l.batch(operation, count, invalid, nanos);
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * Int counter for many threads incrementing it at the same time (the
+ * idea of java.util.concurrent.atomic.LongAdder, which needs Java 8).
+ *
+ * With one AtomicIntBox all threads do their CAS on the same cache line,
+ * which moves from core to core for every increment. A StripedIntBox
+ * has several cells (stripes), each in its own cache line, and a thread
+ * adds to "its" cell (chosen by the identity hash code of the thread; if
+ * the CAS on the cell fails, the next cell is tried). Only sum() reads
+ * all cells, so it is much slower than AtomicIntBox.get(), and it is no
+ * atomic snapshot if other threads add at the same time.
+ *
+ * I. e. StripedIntBox wins if there are a lot more add(...) than sum()
+ * calls by many threads (statistics, e. g. the number of invalid input
+ * lines), AtomicIntBox if the value is read often or needs CAS.
+ * Overflow wraps around as for int arithmetic.
+ *
+ * As IntBox there are no public constructors but static fabric methods
+ * makeStripedIntBox(...), and no method throws an exception.
+ */
+package utils.casts;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import javax.validation.constraints.NotNull;
+
+public class StripedIntBox {
+
+    private static final int PAD = 16; // ints per cell: a 64 byte cache line
+    private static final int MAX_STRIPES = 1 << 10;
+
+    private final AtomicIntegerArray cells; // cell k at index k * PAD
+    private final int mask;
+
+    // two stripes per core (rounded up to a power of two)
+    @NotNull
+    public static StripedIntBox makeStripedIntBox() {
+        return new StripedIntBox(2 * Runtime.getRuntime().availableProcessors());
+    }
+    // stripes is rounded up to a power of two (1 .. 1024)
+    @NotNull
+    public static StripedIntBox makeStripedIntBox(int stripes) {
+        return new StripedIntBox(stripes);
+    }
+
+    protected StripedIntBox(int stripes) {
+        int n = 1;
+        while (n < stripes && n < MAX_STRIPES)
+            n <<= 1;
+        cells = new AtomicIntegerArray(n * PAD);
+        mask = n - 1;
+    }
+
+    public void add(int delta) {
+        int h = System.identityHashCode(Thread.currentThread());
+        for (int i = h ^ (h >>> 16); ; ++i) { // on contention the next cell
+            int k = (i & mask) * PAD, v = cells.get(k);
+            if (cells.compareAndSet(k, v, v + delta))
+                return;
+        }
+    }
+    public void increment() {
+        add(1);
+    }
+    public void decrement() {
+        add(-1);
+    }
+
+    // parses s (see AtomicIntBox.tryParseAndSet(...)) and adds the value
+    public boolean tryParseAndAdd(String s) {
+        if (s == null)
+            return false;
+        return tryParseAndAdd(s, 0, s.length());
+    }
+    public boolean tryParseAndAdd(CharSequence s, int from, int to) {
+        IntBox box = IntBox.internalScratch();
+        if (s == null || !IntBox.tryParse(s, from, to, box))
+            return false;
+        add(box._n);
+        return true;
+    }
+
+    public int sum() {
+        int sum = 0;
+        for (int k = 0; k < cells.length(); k += PAD)
+            sum += cells.get(k);
+        return sum;
+    }
+    public int v() {
+        return sum();
+    }
+
+    // The sum, all cells are 0 afterwards. Adds of other threads during
+    // the call are either in the sum or stay in the cells (not lost).
+    public int sumThenReset() {
+        int sum = 0;
+        for (int k = 0; k < cells.length(); k += PAD)
+            sum += cells.getAndSet(k, 0);
+        return sum;
+    }
+    public void reset() {
+        sumThenReset();
+    }
+
+    public int stripes() {
+        return mask + 1;
+    }
+
+    public String toString() {
+        return Integer.toString(sum());
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * SWAR ("SIMD within a register") helpers for the byte parsers of this
+ * package: 8 ASCII bytes are loaded into one long (first byte in the
+ * lowest 8 bits, i. e. little endian) and checked/converted together,
+ * instead of one byte per loop iteration.
+ *
+ * The tricks are the well known ones from simdjson and fast_float
+ * (Daniel Lemire et al.). Java has no unsigned long, but + - * and >>>
+ * give exactly the same bits as the unsigned C code.
+ */
+package utils.casts;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+final class Swar {
+
+    static final long ZEROES = 0x3030303030303030L; // "00000000"
+    static final long HIGH_NIBBLES = 0xF0F0F0F0F0F0F0F0L;
+
+    private Swar() {
+    }
+
+    // 8 bytes of a starting at i, a[i] in the lowest byte of the result.
+    // Assembled from two int halves, which the JIT handles noticeably
+    // better than 8 long shifts.
+    static long getLongLE(byte[] a, int i) {
+        int lo = (a[i] & 0xFF) | (a[i + 1] & 0xFF) << 8
+                | (a[i + 2] & 0xFF) << 16 | a[i + 3] << 24;
+        int hi = (a[i + 4] & 0xFF) | (a[i + 5] & 0xFF) << 8
+                | (a[i + 6] & 0xFF) << 16 | a[i + 7] << 24;
+        return (long)hi << 32 | (lo & 0xFFFFFFFFL);
+    }
+
+    // same for an absolute index of a ByteBuffer (one getLong(i), which is
+    // a single load on direct buffers), independent of the buffer's order
+    static long getLongLE(ByteBuffer buf, int i) {
+        long v = buf.getLong(i);
+        return buf.order() == ByteOrder.LITTLE_ENDIAN ? v : Long.reverseBytes(v);
+    }
+
+    // the byte b in all 8 bytes of a long
+    static long broadcast(byte b) {
+        return (b & 0xFFL) * 0x0101010101010101L;
+    }
+
+    // high bit (0x80) set in exactly those bytes of v which are 0, all
+    // other bits 0. Without the carries of the shorter "v - 0x0101..."
+    // trick, so the result may also be counted with Long.bitCount(...).
+    // Bytes equal to b are found with zeroBytes(v ^ broadcast(b)).
+    static long zeroBytes(long v) {
+        return ~(((v & 0x7F7F7F7F7F7F7F7FL) + 0x7F7F7F7F7F7F7F7FL)
+                 | v | 0x7F7F7F7F7F7F7F7FL);
+    }
+
+    // true if all 8 bytes are ASCII digits '0'..'9': the high nibble of
+    // each byte must be 3 and must still be 3 after adding 6 (i. e. the
+    // byte is <= '9'). A non-ASCII byte (>= 0x80) always fails.
+    static boolean isEightDigits(long v) {
+        return ((v & HIGH_NIBBLES)
+                | (((v + 0x0606060606060606L) & HIGH_NIBBLES) >>> 4))
+                == 0x3333333333333333L;
+    }
+
+    // value of 8 ASCII digits (check with isEightDigits(v) first), the
+    // lowest byte is the most significant digit. 3 multiplications:
+    // neighbour digits to 2 digit numbers, then 2+2 -> 4 -> 8 digits.
+    static int parseEightDigits(long v) {
+        v -= ZEROES;
+        v = v * 10 + (v >>> 8);
+        v = (((v & 0x000000FF000000FFL) * 0x000F424000000064L) // 100 + 1000000 << 32
+             + (((v >>> 16) & 0x000000FF000000FFL) * 0x0000271000000001L)) // 1 + 10000 << 32
+            >>> 32;
+        return (int)v;
+    }
+
+    // true if all 8 bytes are ASCII hex digits ('0'..'9', 'a'..'f',
+    // 'A'..'F'): every byte must be in '0'..'9', or in 'a'..'f' after
+    // | 0x20 (lower case). x + (0x80 - lo) has the high bit set for
+    // x >= lo, x + (0x7F - hi) for x > hi. No carries between the bytes,
+    // as all bytes are < 0x80 (checked first).
+    static boolean isEightHexDigits(long v) {
+        if ((v & 0x8080808080808080L) != 0L)
+            return false;
+        long x = v | 0x2020202020202020L;
+        long digit = (v + 0x5050505050505050L) & ~(v + 0x4646464646464646L);
+        long letter = (x + 0x1F1F1F1F1F1F1F1FL) & ~(x + 0x1919191919191919L);
+        return ((digit | letter) & 0x8080808080808080L) == 0x8080808080808080L;
+    }
+
+    // value of 8 ASCII hex digits (check with isEightHexDigits(v) first),
+    // the lowest byte is the most significant digit: each byte to its
+    // nibble ('a'/'A' = 0x?1 + 9), then 2 -> 4 -> 8 nibbles.
+    static int parseEightHexDigits(long v) {
+        v = (v & 0x0F0F0F0F0F0F0F0FL) + 9 * ((v >>> 6) & 0x0101010101010101L);
+        v = ((v << 4) | (v >>> 8)) & 0x00FF00FF00FF00FFL;
+        v = ((v << 8) | (v >>> 16)) & 0x0000FFFF0000FFFFL;
+        return (int)((v << 16) | (v >>> 32));
+    }
+}
@@ -0,0 +1,84 @@
+/**
+ * Unit Tests for Classes AtomicIntBox and StripedIntBox
+ */
+package utils.casts;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class AtomicIntBox_concurrencyTest1 {
+
+    public static final int THREADS = 4;
+    public static final int ADDS = 100000;
+
+    // runs r in THREADS threads at the same time
+    private static void inThreads(Runnable r) throws InterruptedException {
+        Thread[] t = new Thread[THREADS];
+        for (int i = 0; i < THREADS; ++i)
+            (t[i] = new Thread(r)).start();
+        for (int i = 0; i < THREADS; ++i)
+            t[i].join();
+    }
+
+    @Test
+    public void atomic_test() throws InterruptedException {
+        System.out.printf("*** In atomic_test(): ***%n");
+        final AtomicIntBox aib = AtomicIntBox.makeAtomicIntBox("17", -1);
+        assertEquals(17, aib.v());
+        assertEquals(-1, AtomicIntBox.makeAtomicIntBox("1.5", -1).v());
+        assertEquals(false, aib.compareAndSet(16, 0));
+        assertEquals(true, aib.compareAndSet(17, 0));
+        assertEquals(false, aib.tryParseAndSet("x"));
+        assertEquals(false, aib.tryParseAndSet(null));
+        assertEquals(0, aib.get());
+        IntBox scratch = IntBox.scratch(); // not used by tryParseAndSet
+        assertEquals(true, IntBox.tryParse("4711", scratch));
+        assertEquals(true, aib.tryParseAndSet(" 2147483647 "));
+        assertEquals(4711, scratch.v());
+        assertEquals(Integer.MAX_VALUE, aib.getAndSet(0));
+        aib.lazySet(5);
+        assertEquals(5, aib.getAndAdd(2));
+        assertEquals(7, aib.toIntBox().v());
+        aib.set(0);
+        inThreads(new Runnable() {
+            public void run() {
+                for (int i = 0; i < ADDS; ++i)
+                    aib.incrementAndGet();
+            }
+        });
+        assertEquals(THREADS * ADDS, aib.get());
+        inThreads(new Runnable() {
+            public void run() {
+                for (int i = 0; i < ADDS; ++i) {
+                    int v;
+                    do {
+                        v = aib.get();
+                    } while (!aib.weakCompareAndSet(v, v - 1));
+                }
+            }
+        });
+        assertEquals(0, aib.get());
+    }
+
+    @Test
+    public void striped_test() throws InterruptedException {
+        System.out.printf("*** In striped_test(): ***%n");
+        assertEquals(8, StripedIntBox.makeStripedIntBox(5).stripes());
+        assertEquals(1, StripedIntBox.makeStripedIntBox(0).stripes());
+        for (int stripes : new int[] {1, 2, 64}) {
+            final StripedIntBox sib = StripedIntBox.makeStripedIntBox(stripes);
+            inThreads(new Runnable() {
+                public void run() {
+                    for (int i = 0; i < ADDS; ++i)
+                        sib.increment();
+                    sib.tryParseAndAdd("10");
+                    sib.tryParseAndAdd("ten");
+                }
+            });
+            assertEquals(THREADS * (ADDS + 10), sib.sum());
+            assertEquals(THREADS * (ADDS + 10), sib.sumThenReset());
+            assertEquals("0", sib.toString());
+        }
+    }
+}
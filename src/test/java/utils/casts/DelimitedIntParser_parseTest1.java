@@ -0,0 +1,144 @@
+/**
+ * Unit Tests for Class DelimitedIntParser
+ */
+package utils.casts;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class DelimitedIntParser_parseTest1 {
+
+    private static byte[] bytes(String s) {
+        byte[] a = new byte[s.length()];
+        for (int i = 0; i < a.length; ++i)
+            a[i] = (byte)s.charAt(i);
+        return a;
+    }
+
+    @Test
+    public void parse_test() {
+        System.out.printf("*** In parse_test(): ***%n");
+        DelimitedIntParser p = new DelimitedIntParser(DelimitedIntParser.COMMA_OR_NEWLINE);
+        byte[] a = bytes("17,-4, 2147483647\r\n0,,x,-00000000002147483648\n");
+        int n = p.countTokens(a, 0, a.length);
+        assertEquals(7, n);
+        int[] dst = new int[n];
+        long[] valid = new long[IntBox.validityWords(n)];
+        assertEquals(n, p.parse(a, 0, a.length, dst, 0, valid, -1));
+        int[] expected = {17, -4, Integer.MAX_VALUE, 0, -1, -1, Integer.MIN_VALUE};
+        boolean[] ok = {true, true, true, true, false, false, true};
+        for (int i = 0; i < n; ++i) {
+            assertEquals(expected[i], dst[i]);
+            assertEquals(ok[i], IntBox.isValid(valid, i));
+        }
+        // the same in a direct ByteBuffer:
+        ByteBuffer buf = ByteBuffer.allocateDirect(a.length + 4);
+        buf.put(bytes("9,9,")).put(a).flip();
+        buf.position(4);
+        int[] dst2 = new int[n + 1];
+        assertEquals(n, p.countTokens(buf, 4, buf.limit()));
+        assertEquals(n, p.parse(buf, dst2, 1, null, -1));
+        for (int i = 0; i < n; ++i)
+            assertEquals(dst[i], dst2[i + 1]);
+        assertEquals(4, buf.position());
+        // no delimiter at the end, only delimiters, nothing:
+        assertEquals(2, p.countTokens(bytes("1,2"), 0, 3));
+        assertEquals(2, p.parse(bytes("1,2"), 0, 3, dst, 0, valid, -1));
+        assertEquals(2, dst[1]);
+        assertEquals(2, p.countTokens(bytes(",\n"), 0, 2));
+        assertEquals(0, p.countTokens(bytes(""), 0, 0));
+        assertEquals(0, p.parse(bytes(""), 0, 0, dst, 0, valid, -1));
+    }
+
+    @Test
+    public void random_test() { // compare with String.split(...) and tryParse
+        System.out.printf("*** In random_test(): ***%n");
+        Random rnd = new Random(4711);
+        DelimitedIntParser p = new DelimitedIntParser(";|");
+        IntBox ib = IntBox.makeIntBox();
+        for (int k = 0; k < 200; ++k) {
+            StringBuilder sb = new StringBuilder();
+            int tokens = 1 + rnd.nextInt(100);
+            for (int t = 0; t < tokens; ++t) {
+                if (t > 0)
+                    sb.append(rnd.nextBoolean() ? ';' : '|');
+                int r = rnd.nextInt(10);
+                if (r == 0)
+                    sb.append("a").append(rnd.nextInt());
+                else if (r == 1)
+                    sb.append("  ").append(rnd.nextLong() >> rnd.nextInt(64));
+                else if (r != 2) // r == 2: empty token
+                    sb.append(rnd.nextInt() >> rnd.nextInt(32));
+            }
+            String s = sb.toString();
+            String[] split = s.split("[;|]", -1);
+            if (split[split.length - 1].length() == 0) // trailing delimiter
+                split = java.util.Arrays.copyOf(split, split.length - 1);
+            byte[] a = bytes(s);
+            int[] dst = new int[p.countTokens(a, 0, a.length)];
+            long[] valid = new long[IntBox.validityWords(dst.length)];
+            assertEquals(s, split.length, dst.length);
+            assertEquals(s, split.length, p.parse(a, 0, a.length, dst, 0, valid, 42));
+            for (int i = 0; i < split.length; ++i) {
+                boolean ok = IntBox.tryParse(split[i], ib);
+                assertEquals(split[i], ok, IntBox.isValid(valid, i));
+                assertEquals(split[i], ok ? ib.v() : 42, dst[i]);
+            }
+        }
+    }
+
+    @Test
+    public void vector_test() { // the engine against the SWAR parser
+        System.out.printf("*** In vector_test(): ***%n");
+        // skipped without the engine, i. e. without --add-modules
+        // jdk.incubator.vector (gradle test runs with it, testWithoutVector not)
+        assumeTrue(DelimitedIntParser.isVectorized());
+        Random rnd = new Random(20160729L);
+        DelimitedIntParser p = new DelimitedIntParser(",\n");
+        String[] edges = {"2147483647", "2147483648", "-2147483648", "-2147483649",
+                "9999999999", "-9999999999", "0000000001", "100000000", "-0",
+                "99999999", "12-4", "1 2", "\u00e9"};
+        for (int k = 0; k < 300; ++k) {
+            StringBuilder sb = new StringBuilder();
+            int tokens = 1 + rnd.nextInt(400);
+            for (int t = 0; t < tokens; ++t) {
+                if (t > 0)
+                    sb.append(rnd.nextInt(8) == 0 ? '\n' : ',');
+                int r = rnd.nextInt(12);
+                if (r == 0)
+                    sb.append(rnd.nextInt(1000)).append('x');
+                else if (r == 1)
+                    sb.append(' ').append(rnd.nextInt(100000)).append('\r');
+                else if (r == 2)
+                    sb.append(rnd.nextLong() >> rnd.nextInt(64));
+                else if (r == 3)
+                    sb.append(rnd.nextBoolean() ? "-" : "00").append(rnd.nextBoolean() ? "" : "7");
+                else if (r == 5)
+                    sb.append(edges[rnd.nextInt(edges.length)]);
+                else if (r != 4) // r == 4: empty token
+                    sb.append(rnd.nextInt(100000000) * (rnd.nextBoolean() ? 1 : -1)
+                              >> rnd.nextInt(27));
+            }
+            if (rnd.nextBoolean())
+                sb.append(',');
+            byte[] a = bytes(sb.toString());
+            int off = rnd.nextInt(Math.min(20, a.length + 1));
+            int len = a.length - off - rnd.nextInt(Math.min(20, a.length - off + 1));
+            int n = p.countTokens(a, off, len);
+            int[] expected = new int[n + 3], dst = new int[n + 3];
+            long[] expectedValid = new long[IntBox.validityWords(n + 70)];
+            long[] valid = new long[expectedValid.length];
+            assertEquals(n, p.parseScalar(a, off, len, expected, 3, expectedValid, 67, -1));
+            assertEquals(n, p.parse(a, off, len, dst, 3, valid, 67, -1));
+            for (int i = 0; i < n + 3; ++i)
+                assertEquals(sb.toString(), expected[i], dst[i]);
+            for (int i = 0; i < valid.length; ++i)
+                assertEquals(sb.toString(), expectedValid[i], valid[i]);
+        }
+    }
+}
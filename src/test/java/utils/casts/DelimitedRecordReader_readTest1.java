@@ -0,0 +1,132 @@
+/**
+ * Unit Tests for Class DelimitedRecordReader
+ */
+package utils.casts;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.UnsupportedEncodingException;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class DelimitedRecordReader_readTest1 {
+
+    private static final String CSV =
+            "4711,\"Smith, John\",42,-7\r\n"
+            + "1,\"say \"\"hi\"\"\",\" 13 \",x\n"
+            + "\n"
+            + "2,\"two\nlines\",2147483648,\n"
+            + "3,5\"x,\"\"";
+
+    // all fields of all records of the reader as "a|b|...;" (quoted with [])
+    private static String dump(DelimitedRecordReader r) {
+        StringBuilder sb = new StringBuilder();
+        while (r.next()) {
+            for (int col = 0; col < r.fieldCount(); ++col) {
+                if (col > 0)
+                    sb.append('|');
+                sb.append(r.isQuoted(col) ? "[" + r.field(col) + "]" : r.field(col));
+            }
+            sb.append(';');
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void fields_test() throws UnsupportedEncodingException {
+        System.out.printf("*** In fields_test(): ***%n");
+        String expected = "4711|[Smith, John]|42|-7;"
+                          + "1|[say \"hi\"]|[ 13 ]|x;"
+                          + ";"
+                          + "2|[two\nlines]|2147483648|;"
+                          + "3|5\"x|[];";
+        DelimitedRecordReader r = new DelimitedRecordReader();
+        r.reset(CSV);
+        assertEquals(expected, dump(r));
+        byte[] a = ("...." + CSV).getBytes("UTF-8");
+        r.reset(a, 4, a.length - 4);
+        assertEquals(expected, dump(r));
+        r.reset("a,b\n");
+        assertEquals("a|b;", dump(r));
+        r.reset("");
+        assertEquals("", dump(r));
+        // without quoting '"' is an ordinary char
+        r = new DelimitedRecordReader('\t', DelimitedRecordReader.NO_QUOTE, 100);
+        r.reset("\"a\tb\"\t1\n");
+        assertEquals("\"a|b\"|1;", dump(r));
+    }
+
+    @Test
+    public void ints_test() throws UnsupportedEncodingException {
+        System.out.printf("*** In ints_test(): ***%n");
+        byte[] a = CSV.getBytes("UTF-8");
+        for (int pass = 0; pass < 2; ++pass) {
+            DelimitedRecordReader r = new DelimitedRecordReader(',', '"', 3);
+            if (pass == 0)
+                r.reset(a, 0, a.length);
+            else
+                r.reset(CSV);
+            int[] dst = new int[3];
+            int[] columns = {2, 0, 3};
+            IntBox box = new IntBox();
+            assertEquals(true, r.next());
+            assertEquals(3, r.fieldCount()); // -7 is skipped
+            assertEquals(true, r.tryParse(0, box));
+            assertEquals(4711, box.v());
+            assertEquals(1, r.parseInts(columns, dst, 0, -1)); // 3: missing
+            assertEquals("[42, 4711, -1]", java.util.Arrays.toString(dst));
+            assertEquals(true, r.next());
+            assertEquals(true, r.recordStart() > 0);
+            assertEquals(true, r.tryParse(2, box)); // " 13 " quoted
+            assertEquals(13, box.v());
+            assertEquals(true, r.next());
+            assertEquals(false, r.tryParse(0, box));
+            assertEquals(true, r.next());
+            assertEquals(false, r.tryParse(2, box)); // overflow
+            assertEquals(true, r.next());
+            assertEquals(false, r.tryParse(1, box));
+            assertEquals(false, r.next());
+            assertEquals(a.length, r.position());
+        }
+    }
+
+    @Test
+    public void random_test() throws UnsupportedEncodingException {
+        System.out.printf("*** In random_test(): ***%n");
+        Random rnd = new Random(19);
+        StringBuilder sb = new StringBuilder();
+        int rows = 2000, cols = 7;
+        int[][] expected = new int[rows][cols];
+        for (int row = 0; row < rows; ++row) {
+            for (int col = 0; col < cols; ++col) {
+                int v = rnd.nextInt();
+                expected[row][col] = v;
+                if (col > 0)
+                    sb.append(';');
+                if (rnd.nextInt(4) == 0)
+                    sb.append("'").append(v).append("'");
+                else
+                    sb.append(v);
+            }
+            sb.append(rnd.nextBoolean() ? "\n" : "\r\n");
+        }
+        byte[] a = sb.toString().getBytes("UTF-8");
+        for (int maxColumns = 1; maxColumns <= cols + 1; ++maxColumns) {
+            DelimitedRecordReader r = new DelimitedRecordReader(';', '\'', maxColumns);
+            r.reset(a, 0, a.length);
+            IntBox box = new IntBox();
+            int row = 0;
+            for ( ; r.next(); ++row) {
+                assertEquals(Math.min(cols, maxColumns), r.fieldCount());
+                for (int col = 0; col < r.fieldCount(); ++col) {
+                    assertEquals(true, r.tryParse(col, box));
+                    assertEquals(expected[row][col], box.v());
+                    String s = sb.substring(r.start(col), r.end(col)); // ASCII
+                    assertEquals(String.valueOf(expected[row][col]), s);
+                }
+            }
+            assertEquals(rows, row);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * Unit Tests for Class DoubleBox
+ */
+package utils.casts;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class DoubleBox_tryParseTest1 {
+
+    // DoubleBox.tryParse must give the same bits as Double.parseDouble
+    private static void assertSame(String s, DoubleBox db) {
+        boolean ok = true;
+        double expected = 0.0;
+        try {
+            expected = Double.parseDouble(s);
+        } catch (NumberFormatException e) {
+            ok = false;
+        }
+        db.set(-7.0);
+        assertEquals(s, ok, DoubleBox.tryParse(s, db));
+        if (ok)
+            assertEquals(s, Double.doubleToRawLongBits(expected),
+                         Double.doubleToRawLongBits(db.v()));
+        else
+            assertEquals(s, -7.0, db.v(), 0.0);
+    }
+
+    @Test
+    public void tryParse_test() {
+        System.out.printf("*** In tryParse_test(): ***%n");
+        DoubleBox db = DoubleBox.makeDoubleBox();
+        String[] strings = {"0", "-0", "1", "1.5", "+1.5", ".5", "5.", "-.5",
+                "1e5", "1E-5", "1e+5", "  23.57\t", "19.99", "NaN", "-Infinity",
+                "Infinity", "9007199254740993", "9007199254740995",
+                "2.2250738585072011e-308", "2.2250738585072012e-308",
+                "4.9e-324", "2.4703282292062327e-324", "2.4703282292062328e-324",
+                "1.7976931348623157e308", "1.7976931348623158e308",
+                "1.7976931348623159e308", "1e309", "1e-400", "1e99999999999",
+                "0e99999999999", "123456789012345678901234567890", "0.1", "1e23",
+                "3.14159265358979323846264338327950288", "8.41e21", "7.2057594037927933e16",
+                "1.00000000000000011102230246251565404236316680908203125",
+                "1.00000000000000011102230246251565404236316680908203124",
+                "1.00000000000000011102230246251565404236316680908203126",
+                "00000000000000000000000000000001.5",
+                // invalid:
+                "", " ", "-", "+", ".", "e5", "1e", "1e+", "1x", "1.2.3", "--1",
+                "1e5e5", "- 1", "inf", "nan", "Infinityx"};
+        for (String s : strings)
+            assertSame(s, db);
+        // not accepted (in contrary to Double.parseDouble):
+        assertEquals(false, DoubleBox.tryParse("1f", db));
+        assertEquals(false, DoubleBox.tryParse("0x1.8p1", db));
+        StringBuilder sb = new StringBuilder("t=-4.125;");
+        assertEquals(true, DoubleBox.tryParse(sb, 2, 8, db));
+        assertEquals(-4.125, db.v(), 0.0);
+    }
+
+    @Test
+    public void random_test() {
+        System.out.printf("*** In random_test(): ***%n");
+        DoubleBox db = DoubleBox.makeDoubleBox();
+        Random rnd = new Random(4711);
+        for (int k = 0; k < 100000; ++k) {
+            double d = Double.longBitsToDouble(rnd.nextLong());
+            if (Double.isNaN(d))
+                continue;
+            assertSame(Double.toString(d), db);
+            StringBuilder sb = new StringBuilder();
+            if (rnd.nextBoolean())
+                sb.append('-');
+            for (int i = 1 + rnd.nextInt(rnd.nextBoolean() ? 8 : 30); i > 0; --i)
+                sb.append((char)('0' + rnd.nextInt(10)));
+            if (rnd.nextBoolean()) {
+                sb.append('.');
+                for (int i = rnd.nextInt(20); i > 0; --i)
+                    sb.append((char)('0' + rnd.nextInt(10)));
+            }
+            if (rnd.nextInt(3) == 0)
+                sb.append('e').append(rnd.nextInt(700) - 350);
+            assertSame(sb.toString(), db);
+            if (k % 10 == 0 && !Double.isInfinite(d)) {
+                // exactly between two doubles (round half to even):
+                double x = Math.abs(d);
+                BigDecimal mid = new BigDecimal(x).add(new BigDecimal(Math.nextUp(x)))
+                        .divide(BigDecimal.valueOf(2));
+                assertSame(mid.toString(), db);
+            }
+        }
+    }
+
+    @Test
+    public void set_test() {
+        System.out.printf("*** In set_test(): ***%n");
+        DoubleBox db = DoubleBox.makeDoubleBox("1013.25", -1.0);
+        assertEquals(1013.25, db.v(), 0.0);
+        assertEquals(-1.0, db.set("10,5", -1.0), 0.0);
+        assertEquals(-1.0, db.set((String)null, -1.0), 0.0);
+        assertEquals(false, DoubleBox.tryParse((String)null, db));
+        assertEquals(false, DoubleBox.tryParse((CharSequence)null, 0, 0, db));
+        assertEquals(-1.0, db.v(), 0.0);
+        assertEquals(-1.0, DoubleBox.makeDoubleBox((DoubleBox)null, -1.0).v(), 0.0);
+        DoubleBox db2 = (DoubleBox)db.clone();
+        db2.set(0.5);
+        assertEquals(-1.0, db.v(), 0.0);
+        assertEquals("0.5", db2.toString());
+    }
+}
@@ -0,0 +1,153 @@
+/**
+ * Unit Tests for Class IntAggregator (and IntCountMap, IntHistogram)
+ */
+package utils.casts;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class IntAggregator_aggregateTest1 {
+
+    @Test
+    public void stats_test() {
+        System.out.printf("*** In stats_test(): ***%n");
+        IntAggregator agg = new IntAggregator();
+        assertEquals(0L, agg.count());
+        assertEquals(0.0, agg.variance(), 0.0);
+        String[] tokens = {"3", " -1 ", "x", "", "2147483647", "+4", "-2147483648", "0"};
+        int valid = 0;
+        for (String t : tokens)
+            if (agg.add(t))
+                ++valid;
+        assertEquals(5, valid);
+        assertEquals(5L, agg.count());
+        assertEquals(3L, agg.invalidCount());
+        assertEquals(Integer.MIN_VALUE, agg.min());
+        assertEquals(Integer.MAX_VALUE, agg.max());
+        assertEquals(3L - 1L + Integer.MAX_VALUE + Integer.MIN_VALUE, agg.sum());
+        assertEquals(agg.sum() / 5.0, agg.mean(), 1e-9);
+        agg.reject(0L, 1);
+        assertEquals(4L, agg.invalidCount());
+        assertEquals(false, agg.add((CharSequence)null));
+        assertEquals(5L, agg.invalidCount());
+        assertEquals(5L, agg.count());
+        agg.reset();
+        assertEquals(0L, agg.count());
+        assertEquals(0L, agg.invalidCount());
+        agg.add("12,13", 3, 5);
+        assertEquals(13, agg.min());
+    }
+
+    @Test
+    public void countMap_test() {
+        System.out.printf("*** In countMap_test(): ***%n");
+        IntCountMap m = new IntCountMap(2);
+        Map<Integer, Long> expected = new HashMap<Integer, Long>();
+        Random rnd = new Random(18);
+        for (int i = 0; i < 100000; ++i) {
+            int v = i % 3 == 0 ? rnd.nextInt() : rnd.nextInt(1000) << 16; // collisions
+            m.add(v);
+            Long c = expected.get(v);
+            expected.put(v, c == null ? 1L : c + 1L);
+        }
+        m.add(0, 5L);
+        expected.put(0, expected.containsKey(0) ? expected.get(0) + 5L : 5L);
+        assertEquals(expected.size(), m.size());
+        assertEquals(100005L, m.total());
+        for (Map.Entry<Integer, Long> e : expected.entrySet())
+            assertEquals(e.getValue().longValue(), m.get(e.getKey()));
+        assertEquals(0L, m.get(1));
+        int[] keys = m.keys();
+        for (int i = 1; i < keys.length; ++i)
+            assertEquals(true, keys[i - 1] < keys[i]);
+    }
+
+    @Test
+    public void percentile_test() {
+        System.out.printf("*** In percentile_test(): ***%n");
+        IntCountMap m = new IntCountMap();
+        assertEquals(-1, m.percentile(50, -1));
+        assertEquals(-1, m.mode(-1));
+        for (int v = 1; v <= 100; ++v)
+            m.add(v);
+        m.add(7);
+        assertEquals(7, m.mode(-1));
+        assertEquals(50, m.percentile(50, -1)); // 1..7,7,8..100: rank 51
+        assertEquals(1, m.percentile(0, -1));
+        assertEquals(100, m.percentile(100, -1));
+
+        IntHistogram h = new IntHistogram(0, 10, 10);
+        for (int v = -5; v < 105; ++v)
+            h.add(v);
+        assertEquals(5L, h.underflow());
+        assertEquals(5L, h.overflow());
+        assertEquals(10L, h.count(3));
+        assertEquals(30L, h.lowerBound(3));
+        assertEquals(110L, h.total());
+        assertEquals(Long.MIN_VALUE, h.percentile(1));
+        assertEquals(Long.MAX_VALUE, h.percentile(100));
+        assertEquals(49L, h.percentile(50)); // rank 55: 50th int of 0..99
+        h = new IntHistogram(Integer.MAX_VALUE - 1, Integer.MAX_VALUE, 2);
+        h.add(Integer.MIN_VALUE);
+        h.add(Integer.MAX_VALUE);
+        assertEquals(1L, h.underflow());
+        assertEquals(1L, h.count(0));
+    }
+
+    @Test
+    public void merge_test() {
+        System.out.printf("*** In merge_test(): ***%n");
+        Random rnd = new Random(1);
+        int[] a = new int[10000];
+        long[] valid = new long[IntBox.validityWords(a.length)];
+        for (int i = 0; i < a.length; ++i) {
+            a[i] = rnd.nextInt(2000) - 1000;
+            if (rnd.nextInt(10) != 0)
+                valid[i >>> 6] |= 1L << i;
+        }
+        IntAggregator all = new IntAggregator(new IntCountMap(), new IntHistogram(-1000, 100, 20));
+        all.addAll(a, 0, a.length, valid);
+        IntAggregator merged = new IntAggregator(new IntCountMap(), new IntHistogram(-1000, 100, 20));
+        for (int part = 0; part < 4; ++part) { // as 4 threads would do it
+            IntAggregator agg = new IntAggregator(new IntCountMap(), new IntHistogram(-1000, 100, 20));
+            for (int i = part * 2500; i < (part + 1) * 2500; ++i) {
+                if (IntBox.isValid(valid, i))
+                    agg.accept(a[i]);
+                else
+                    agg.reject(i, 1);
+            }
+            merged.merge(agg);
+        }
+        merged.merge(new IntAggregator(new IntCountMap(), new IntHistogram(-1000, 100, 20)));
+        assertEquals(all.count(), merged.count());
+        assertEquals(all.invalidCount(), merged.invalidCount());
+        assertEquals(a.length, all.count() + all.invalidCount());
+        assertEquals(all.min(), merged.min());
+        assertEquals(all.max(), merged.max());
+        assertEquals(all.sum(), merged.sum());
+        assertEquals(all.mean(), merged.mean(), 1e-9);
+        assertEquals(all.variance(), merged.variance(), 1e-6);
+        double mean = (double)all.sum() / all.count(), m2 = 0.0;
+        for (int i = 0; i < a.length; ++i)
+            if (IntBox.isValid(valid, i))
+                m2 += (a[i] - mean) * (a[i] - mean);
+        assertEquals(m2 / all.count(), all.variance(), 1e-6);
+        assertEquals(true, Arrays.equals(all.counts().keys(), merged.counts().keys()));
+        for (int k : all.counts().keys())
+            assertEquals(all.counts().get(k), merged.counts().get(k));
+        for (int b = 0; b < 20; ++b)
+            assertEquals(all.histogram().count(b), merged.histogram().count(b));
+        try {
+            merged.merge(new IntAggregator());
+            assertEquals("IllegalArgumentException", "none");
+        } catch (IllegalArgumentException e) {
+            // different aggregations
+        }
+    }
+}
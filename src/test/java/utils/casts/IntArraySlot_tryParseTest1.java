@@ -0,0 +1,60 @@
+/**
+ * Unit Tests for Class IntArraySlot (and IntBox.scratch())
+ */
+package utils.casts;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+public class IntArraySlot_tryParseTest1 {
+
+    @Test
+    public void tryParse_test() {
+        System.out.printf("*** In tryParse_test(): ***%n");
+        String[] fields = {"17", " -4 ", "x", "2147483648", "-2147483648"};
+        int[] values = new int[fields.length];
+        IntArraySlot slot = IntArraySlot.makeIntArraySlot(values, 0);
+        for (int i = 0; i < fields.length; ++i)
+            if (!IntBox.tryParse(fields[i], slot.at(i)))
+                values[i] = -1;
+        assertEquals("[17, -4, -1, -1, -2147483648]", java.util.Arrays.toString(values));
+        byte[] a = "12345678901".getBytes();
+        assertEquals(true, IntBox.tryParse(a, 1, 9, slot.at(2)));
+        assertEquals(234567890, values[2]);
+        assertEquals(234567890, slot.v());
+        assertEquals(false, IntBox.tryParse(a, 0, 11, slot)); // unchanged
+        assertEquals(234567890, values[2]);
+        // the set methods write into the array as well:
+        assertEquals(5, slot.at(0).set(5));
+        assertEquals(-9, slot.at(1).set(3000000000L, -9));
+        assertEquals(7, slot.at(3).set(7.9, -9));
+        assertEquals(-9, slot.at(4).set("y", -9));
+        assertEquals("[5, -9, 234567890, 7, -9]", java.util.Arrays.toString(values));
+        assertEquals(7, IntBox.makeIntBox(slot.at(3), 0).v());
+        assertEquals("7", slot.clone().toString());
+        int[] other = new int[1];
+        IntBox.tryParse("42", slot.at(other, 0));
+        assertEquals(42, other[0]);
+        assertSame(other, slot.array());
+    }
+
+    @Test
+    public void scratch_test() throws InterruptedException {
+        System.out.printf("*** In scratch_test(): ***%n");
+        IntBox box = IntBox.scratch();
+        assertSame(box, IntBox.scratch());
+        assertEquals(true, IntBox.tryParse("4711", box));
+        assertEquals(4711, IntBox.scratch().v());
+        final IntBox[] other = new IntBox[1];
+        Thread t = new Thread() {
+            public void run() {
+                other[0] = IntBox.scratch();
+            }
+        };
+        t.start();
+        t.join();
+        assertEquals(false, other[0] == box);
+    }
+}
@@ -0,0 +1,61 @@
+/**
+ * Unit Tests for the formatting methods of Class IntBox
+ */
+package utils.casts;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class IntBox_formatTest1 {
+
+    private static void assertFormat(int n) {
+        String expected = Integer.toString(n);
+        assertEquals(expected.length(), IntBox.stringSize(n));
+        char[] c = new char[13];
+        assertEquals(1 + expected.length(), IntBox.writeTo(n, c, 1));
+        assertEquals(expected, new String(c, 1, expected.length()));
+        byte[] b = new byte[13];
+        assertEquals(2 + expected.length(), IntBox.writeTo(n, b, 2));
+        assertEquals(expected, new String(b, 2, expected.length()));
+        ByteBuffer buf = ByteBuffer.allocateDirect(13);
+        assertEquals(expected.length(), IntBox.writeTo(n, buf, 0));
+        assertEquals(0, buf.position());
+        buf.get(b, 0, expected.length());
+        assertEquals(expected, new String(b, 0, expected.length()));
+        buf = ByteBuffer.wrap(new byte[16], 1, 15).slice(); // arrayOffset 1
+        assertEquals(3 + expected.length(), IntBox.writeTo(n, buf, 3));
+        assertEquals(expected, new String(buf.array(), 4, expected.length()));
+        StringBuilder sb = new StringBuilder("x=");
+        assertEquals("x=" + expected, IntBox.makeIntBox(n).appendTo(sb).toString());
+    }
+
+    @Test
+    public void format_test() {
+        System.out.printf("*** In format_test(): ***%n");
+        int[] values = {0, 1, -1, 9, 10, -10, 99, 100, -100, 101, 999999999,
+                1000000000, -1000000000, Integer.MAX_VALUE, Integer.MIN_VALUE,
+                Integer.MIN_VALUE + 1};
+        for (int n : values)
+            assertFormat(n);
+        for (int p = 1; p > 0 && p <= Integer.MAX_VALUE / 10; p *= 10) {
+            assertFormat(p - 1);
+            assertFormat(-p);
+            assertFormat(-p + 1);
+        }
+        Random rnd = new Random(4711);
+        for (int i = 0; i < 100000; ++i)
+            assertFormat(rnd.nextInt() >> rnd.nextInt(32));
+        // formatted and parsed again:
+        IntBox ib = IntBox.makeIntBox();
+        char[] c = new char[IntBox.MIN_INT_LEN];
+        for (int n : values) {
+            int len = IntBox.writeTo(n, c, 0);
+            assertEquals(true, IntBox.tryParse(c, 0, len, ib));
+            assertEquals(n, ib.v());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * Unit Tests for the radix, unsigned and hex parsing of Class IntBox
+ */
+package utils.casts;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class IntBox_radixTest1 {
+
+    // expected result of the parsers: Long.parseLong(...) (which has no
+    // 32 bit limits) of the trimmed String, null for an invalid String
+    private static Long expected(String s, int radix) {
+        String t = s.trim();
+        if (t.startsWith("+"))
+            return null;
+        for (int i = 0; i < t.length(); ++i)
+            if (t.charAt(i) > 127)
+                return null;
+        try {
+            return Long.parseLong(t, radix);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static void assertRadix(String s, int radix) {
+        Long l = expected(s, radix);
+        IntBox ib = IntBox.makeIntBox(4711);
+        boolean ok = l != null && l >= Integer.MIN_VALUE && l <= Integer.MAX_VALUE;
+        assertEquals(s, ok, IntBox.tryParseRadix(s, radix, ib));
+        assertEquals(s, ok ? l.intValue() : 4711, ib.v());
+        ib.set(4711);
+        ok = l != null && l >= 0 && l <= 0xFFFFFFFFL && !s.trim().startsWith("-");
+        assertEquals(s, ok, IntBox.tryParseUnsigned(s, 0, s.length(), radix, ib));
+        assertEquals(s, ok ? l.intValue() : 4711, ib.v());
+        if (radix == 10) {
+            ib.set(4711);
+            assertEquals(s, ok, IntBox.tryParseUnsigned(s, ib));
+            assertEquals(s, ok ? l.intValue() : 4711, ib.v());
+        }
+        if (radix == 16) {
+            ib.set(4711);
+            assertEquals(s, ok, IntBox.tryParseHex(s, ib));
+            assertEquals(s, ok ? l.intValue() : 4711, ib.v());
+            byte[] a = new byte[s.length() + 2];
+            for (int i = 0; i < s.length(); ++i)
+                a[i + 1] = (byte)s.charAt(i);
+            a[0] = 'f';
+            a[a.length - 1] = 'f';
+            ib.set(4711);
+            boolean ascii = s.length() == 0 || s.matches("[\\x00-\\x7f]*");
+            assertEquals(s, ok && ascii, IntBox.tryParseHex(a, 1, s.length(), ib));
+            assertEquals(s, ok && ascii ? l.intValue() : 4711, ib.v());
+        }
+    }
+
+    @Test
+    public void radix_test() {
+        System.out.printf("*** In radix_test(): ***%n");
+        String[] strings = {"0", "-0", "1", "-1", "ff", "FF", "-ff", " 7fffffff\t",
+                "80000000", "-80000000", "-80000001", "ffffffff", "100000000",
+                "deadBEEF", "000000000deadbeef", "0xff", "+1", "", " ", "-", "g",
+                "12 34", "4294967295", "4294967296", "2147483648", "-2147483648",
+                "-2147483649", "zz", "ZZ", "1010", "777", "0000000g", "1234567٠",
+                "0123456789", "abcdef01", "ABCDEF01", "\u0010\u0010\u0010\u0010\u0010\u0010\u0010\u0010"};
+        for (String s : strings)
+            for (int radix : new int[] {2, 8, 10, 16, 36})
+                assertRadix(s, radix);
+        IntBox ib = IntBox.makeIntBox();
+        assertEquals(false, IntBox.tryParseRadix("1", 1, ib));
+        assertEquals(false, IntBox.tryParseRadix("1", 37, ib));
+        assertEquals(false, IntBox.tryParseHex((String)null, ib));
+        assertEquals(true, IntBox.tryParseHex("id=00c0ffee;", 3, 11, ib));
+        assertEquals(0xc0ffee, ib.v());
+    }
+
+    @Test
+    public void random_test() {
+        System.out.printf("*** In random_test(): ***%n");
+        Random rnd = new Random(4711);
+        String chars = "0123456789abcdefABCDEFxg-+ ";
+        for (int k = 0; k < 100000; ++k) {
+            StringBuilder sb = new StringBuilder();
+            if (rnd.nextInt(4) == 0) { // mostly valid ones
+                for (int i = rnd.nextInt(12); i > 0; --i)
+                    sb.append(chars.charAt(rnd.nextInt(chars.length())));
+            } else {
+                long l = rnd.nextLong() >> rnd.nextInt(64);
+                sb.append(Long.toString(l, 16));
+            }
+            String s = sb.toString();
+            assertRadix(s, 16);
+            assertRadix(s, 10);
+            assertRadix(Long.toString(rnd.nextLong() >> rnd.nextInt(64), 2 + rnd.nextInt(35)), 2 + rnd.nextInt(35));
+        }
+    }
+}
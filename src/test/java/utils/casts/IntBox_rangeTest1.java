@@ -0,0 +1,118 @@
+/**
+ * Unit Tests for the tryParseInRange(..., min, max, ...) methods of
+ * Class IntBox
+ */
+package utils.casts;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class IntBox_rangeTest1 {
+
+    // expected result: Long.parseLong(...) of the trimmed String in
+    // min..max, null otherwise
+    private static Long expected(String s, int min, int max) {
+        String t = s.trim();
+        if (t.startsWith("+"))
+            return null;
+        for (int i = 0; i < t.length(); ++i)
+            if (t.charAt(i) > 127)
+                return null;
+        try {
+            long l = Long.parseLong(t);
+            return l >= min && l <= max ? l : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static void assertRange(String s, int min, int max) {
+        Long l = expected(s, min, max);
+        boolean ok = l != null;
+        int v = ok ? l.intValue() : 4711;
+        String msg = "\"" + s + "\" in " + min + ".." + max;
+        IntBox ib = IntBox.makeIntBox(4711);
+        assertEquals(msg, ok, IntBox.tryParseInRange(s, min, max, ib));
+        assertEquals(msg, v, ib.v());
+        ib.set(4711);
+        String t = "x" + s + "x";
+        assertEquals(msg, ok, IntBox.tryParseInRange(t, 1, t.length() - 1, min, max, ib));
+        assertEquals(msg, v, ib.v());
+        ib.set(4711);
+        assertEquals(msg, ok, IntBox.tryParseInRange(t.toCharArray(), 1, s.length(), min, max, ib));
+        assertEquals(msg, v, ib.v());
+        byte[] a = new byte[t.length()];
+        for (int i = 0; i < a.length; ++i)
+            a[i] = (byte)t.charAt(i);
+        boolean ascii = t.matches("[\\x00-\\x7f]*");
+        ib.set(4711);
+        assertEquals(msg, ok && ascii, IntBox.tryParseInRange(a, 1, s.length(), min, max, ib));
+        assertEquals(msg, ok && ascii ? v : 4711, ib.v());
+        ByteBuffer direct = ByteBuffer.allocateDirect(a.length);
+        direct.put(a);
+        ib.set(4711);
+        assertEquals(msg, ok && ascii,
+                     IntBox.tryParseInRange(direct, 1, a.length - 1, min, max, ib));
+        assertEquals(msg, ok && ascii ? v : 4711, ib.v());
+    }
+
+    @Test
+    public void bounds_test() {
+        System.out.printf("*** In bounds_test(): ***%n");
+        int[][] ranges = {{1, 65535}, {0, 100}, {-50, 100}, {-100, -10},
+                {10, 20}, {Integer.MIN_VALUE, Integer.MAX_VALUE},
+                {0, 0}, {Integer.MIN_VALUE, Integer.MIN_VALUE},
+                {Integer.MAX_VALUE, Integer.MAX_VALUE}, {1000, 1999},
+                {-1999, -1000}, {Integer.MIN_VALUE, 0}, {0, Integer.MAX_VALUE}};
+        String[] inputs = {"0", "-0", "00", "-00", "1", "9", "10", "20",
+                "21", "19", "100", "101", "99", "65535", "65536", "070000",
+                "0000000065535", "-1", "-10", "-11", "-9", "-50", "-51",
+                "-100", "-101", "-0100", "1000", "1999", "2000", "999",
+                "-1000", "-1999", "-2000", "2147483647", "2147483648",
+                "-2147483648", "-2147483649", "12345678901", "99999999999",
+                "", "   ", "-", "+5", " 42 ", "\t-42\n", "4 2", "42x",
+                "x42", "--1", "1-", "9876543210", "-0000000000000002147483648",
+                "\u0664\u0662", "5\u00e9"};
+        for (int[] r : ranges)
+            for (String s : inputs)
+                assertRange(s, r[0], r[1]);
+    }
+
+    @Test
+    public void random_test() {
+        System.out.printf("*** In random_test(): ***%n");
+        Random rnd = new Random(20160729L);
+        for (int k = 0; k < 20000; ++k) {
+            int a = rnd.nextInt() >> rnd.nextInt(32), b = rnd.nextInt() >> rnd.nextInt(32);
+            int min = Math.min(a, b), max = Math.max(a, b);
+            long l;
+            switch (rnd.nextInt(3)) {
+                case 0:
+                    l = min + (long)(rnd.nextDouble() * ((long)max - min + 1));
+                    break;
+                case 1:
+                    l = (rnd.nextBoolean() ? min : max) + rnd.nextInt(3) - 1;
+                    break;
+                default:
+                    l = rnd.nextLong() >> rnd.nextInt(64);
+                    break;
+            }
+            assertRange(String.valueOf(l), min, max);
+        }
+    }
+
+    @Test
+    public void minGreaterMax_test() {
+        System.out.printf("*** In minGreaterMax_test(): ***%n");
+        IntBox ib = IntBox.makeIntBox(4711);
+        assertEquals(false, IntBox.tryParseInRange("5", 10, 1, ib));
+        assertEquals(false, IntBox.tryParseInRange((String)null, 0, 10, ib));
+        assertEquals(false, IntBox.tryParseInRange("5", 0, 10, null));
+        assertEquals(false, IntBox.tryParseInRange("5", 1, 0, 0, 10, ib));
+        assertEquals(4711, ib.v());
+    }
+}
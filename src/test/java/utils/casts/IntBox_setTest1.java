@@ -86,6 +86,169 @@ public class IntBox_setTest1 {
         System.out.printf("END of tryParse_test()%n");
     }
     
+    @Test
+    public void tryParseRange_test() {
+        System.out.printf("*** In tryParseRange_test(): ***%n");
+        IntBox ib = IntBox.makeIntBox();
+        StringBuilder sb = new StringBuilder("x,  -00000000002147483648 ,y");
+        boolean b = IntBox.tryParse(sb, 2, sb.length()-2, ib);
+        assertEquals(true,b);
+        assertEquals(Integer.MIN_VALUE,ib.v());
+        b = IntBox.tryParse(sb, 0, sb.length(), ib); // with "x," and ",y"
+        assertEquals(false,b);
+        assertEquals(Integer.MIN_VALUE,ib.v());
+        char[] a = "[0000000000002147483647]".toCharArray();
+        b = IntBox.tryParse(a, 1, a.length-2, ib);
+        assertEquals(true,b);
+        assertEquals(Integer.MAX_VALUE,ib.v());
+        b = IntBox.tryParse(a, 1, a.length-1, ib); // with ']'
+        assertEquals(false,b);
+        a = "-000000000000".toCharArray(); // only zeroes, longer than MIN_INT_LEN
+        b = IntBox.tryParse(a, 0, a.length, ib);
+        assertEquals(true,b);
+        assertEquals(0,ib.v());
+        s_assertFalse(ib, "", "   ", "-", " - ", "-2147483649", "2147483648",
+                "10000000000", "+1", "1-");
+        b = IntBox.tryParse(a, 5, a.length, ib); // invalid range
+        assertEquals(false,b);
+        b = IntBox.tryParse(sb, 3, 2, ib);
+        assertEquals(false,b);
+        assertEquals(0,ib.v());
+        // compare with Integer.parseInt for (nearly) all lengths:
+        java.util.Random rnd = new java.util.Random(4711);
+        for (int k = 0; k < 100000; ++k) {
+            long l = rnd.nextLong() >> rnd.nextInt(64);
+            String s = String.valueOf(l);
+            char[] padded = ("  " + s + " ").toCharArray();
+            boolean fits = l >= Integer.MIN_VALUE && l <= Integer.MAX_VALUE;
+            assertEquals(s, fits, IntBox.tryParse(s, ib));
+            if (fits)
+                assertEquals(s, (int)l, ib.v());
+            assertEquals(s, fits, IntBox.tryParse(padded, 0, padded.length, ib));
+            if (fits)
+                assertEquals(s, (int)l, ib.v());
+        }
+    }
+
+    @Test
+    public void tryParseBytes_test() {
+        System.out.printf("*** In tryParseBytes_test(): ***%n");
+        IntBox ib = IntBox.makeIntBox();
+        byte[] a = "x -00000000002147483648\r\n".getBytes();
+        boolean b = IntBox.tryParse(a, 1, a.length-1, ib);
+        assertEquals(true,b);
+        assertEquals(Integer.MIN_VALUE,ib.v());
+        b = IntBox.tryParse(a, 0, a.length, ib);
+        assertEquals(false,b);
+        java.nio.ByteBuffer direct = java.nio.ByteBuffer.allocateDirect(a.length);
+        direct.put(a).flip();
+        direct.position(1);
+        ib.set(0);
+        b = IntBox.tryParse(direct, ib);
+        assertEquals(true,b);
+        assertEquals(Integer.MIN_VALUE,ib.v());
+        assertEquals(1,direct.position()); // position is not changed
+        java.nio.ByteBuffer heap = java.nio.ByteBuffer.wrap(a, 1, 4).slice();
+        b = IntBox.tryParse(heap, ib); // " -00"
+        assertEquals(true,b);
+        assertEquals(0,ib.v());
+        a = new byte[] {'1', (byte)0xA0}; // not ASCII, not whitespace
+        b = IntBox.tryParse(a, 0, a.length, ib);
+        assertEquals(false,b);
+        // 8 byte (SWAR) block with exactly one bad byte at each position:
+        byte[] bad = {'/', ':', ' ', (byte)0xB9, (byte)0xFA, 0};
+        for (int pos = 0; pos < 10; ++pos) {
+            for (byte x : bad) {
+                a = "-1234567890".getBytes();
+                a[1 + pos] = x;
+                boolean blank = x == ' ' || x == 0;
+                assertEquals(blank && pos == 9, IntBox.tryParse(a, 0, a.length, ib));
+                boolean trimmed = blank && (pos == 0 || pos == 7);
+                if (pos < 8) // only 8 digits, blank at start/end is trimmed
+                    assertEquals(trimmed, IntBox.tryParse(a, 1, 8, ib));
+            }
+        }
+        String[] limits = {"99999999", "-99999999", "12345678", "-00000001",
+                "999999999", "-999999999", "2147483647", "-2147483648",
+                "2147483648", "-2147483649", "2999999999", "-3000000000",
+                "1999999999", "-1999999999", "0000000002147483647"};
+        for (String s : limits) {
+            a = s.getBytes();
+            boolean expected = IntBox.tryParse(s, ib);
+            int v = ib.v();
+            ib.set(-7);
+            assertEquals(s, expected, IntBox.tryParse(a, 0, a.length, ib));
+            assertEquals(s, expected ? v : -7, ib.v());
+            direct = java.nio.ByteBuffer.allocateDirect(a.length);
+            direct.order(java.nio.ByteOrder.LITTLE_ENDIAN).put(a).flip();
+            ib.set(-7);
+            assertEquals(s, expected, IntBox.tryParse(direct, ib));
+            assertEquals(s, expected ? v : -7, ib.v());
+        }
+        // same results as the char version:
+        java.util.Random rnd = new java.util.Random(4711);
+        IntBox ib2 = IntBox.makeIntBox();
+        for (int k = 0; k < 100000; ++k) {
+            long l = rnd.nextLong() >> rnd.nextInt(64);
+            String s = k % 3 == 0 ? " " + l + "  " : k % 3 == 1 ? l + "x" : "000" + l;
+            byte[] bytes = s.getBytes();
+            boolean expected = IntBox.tryParse(s, ib2);
+            assertEquals(s, expected, IntBox.tryParse(bytes, 0, bytes.length, ib));
+            if (expected)
+                assertEquals(s, ib2.v(), ib.v());
+            direct = java.nio.ByteBuffer.allocateDirect(bytes.length);
+            direct.put(bytes).flip();
+            assertEquals(s, expected, IntBox.tryParse(direct, ib));
+            if (expected)
+                assertEquals(s, ib2.v(), ib.v());
+        }
+    }
+
+    @Test
+    public void tryParseAll_test() {
+        System.out.printf("*** In tryParseAll_test(): ***%n");
+        int n = 200;
+        String[] src = new String[n];
+        for (int i = 0; i < n; ++i)
+            src[i] = i % 7 == 0 ? "bad" + i : i % 11 == 0 ? null : " " + (i * 1000003);
+        int[] dst = new int[n + 10];
+        long[] valid = new long[IntBox.validityWords(n + 10)];
+        java.util.Arrays.fill(valid, -1L); // must be cleared for invalid numbers
+        int count = IntBox.tryParseAll(src, 0, dst, 5, n, valid, -1);
+        int expected = 0;
+        IntBox ib = IntBox.makeIntBox();
+        for (int i = 0; i < n; ++i) {
+            boolean ok = src[i] != null && IntBox.tryParse(src[i], ib);
+            assertEquals(ok, IntBox.isValid(valid, i + 5));
+            assertEquals(ok ? ib.v() : -1, dst[i + 5]);
+            if (ok)
+                ++expected;
+        }
+        assertEquals(expected, count);
+        assertEquals(true, IntBox.isValid(valid, 0)); // bits outside untouched
+        assertEquals(true, IntBox.isValid(valid, n + 5));
+        java.util.List<String> list = new java.util.LinkedList<String>(
+                java.util.Arrays.asList(src));
+        int[] dst2 = new int[n];
+        assertEquals(count, IntBox.tryParseAll(list, dst2, null, -1));
+        assertEquals(dst[5 + 77], dst2[77]);
+        assertEquals(dst[5 + 199], dst2[199]);
+        list = new java.util.ArrayList<String>(list);
+        long[] valid2 = new long[IntBox.validityWords(n)];
+        assertEquals(count, IntBox.tryParseAll(list, dst2, valid2, -1));
+        assertEquals(false, IntBox.isValid(valid2, 77));
+        assertEquals(true, IntBox.isValid(valid2, 199));
+    }
+
+    private static void s_assertFalse(IntBox ib, String... strings) {
+        int old = ib.v();
+        for (String s : strings) {
+            assertEquals(s, false, IntBox.tryParse(s, ib));
+            assertEquals(s, false, IntBox.tryParse(s.toCharArray(), 0, s.length(), ib));
+            assertEquals(s, old, ib.v());
+        }
+    }
+
     @Test
     public void set_test() { // tests also clone()
         // test default constructor:
@@ -103,6 +266,37 @@ public class IntBox_setTest1 {
         //i=ib.set(1L);
         //assertEquals(1,i);
     }
+
+    @Test
+    public void setString_test() { // set, makeIntBox and parseOrDefault agree
+        System.out.printf("*** In setString_test(): ***%n");
+        String[] strings = {"17", " -4\t", "2147483647", "-2147483648", "2147483648",
+                "", " ", "-", "+5", "1x", "0000000000042", "٤٢", null};
+        IntBox ib = IntBox.makeIntBox();
+        IntBox tp = IntBox.makeIntBox();
+        for (String s : strings) {
+            int expected = IntBox.tryParse(s, tp) ? tp.v() : -1;
+            assertEquals(s, expected, ib.set(s, -1));
+            assertEquals(s, expected, ib.v());
+            assertEquals(s, expected, IntBox.makeIntBox(s, -1).v());
+            assertEquals(s, expected, IntBox.parseOrDefault(s, -1));
+            if (s != null)
+                assertEquals(s, expected, IntBox.parseOrDefault("=" + s + ";", 1,
+                                                                s.length() + 1, -1));
+        }
+        assertEquals(-4, ib.set(" -4\t", -1)); // Integer.parseInt: no whitespace
+        assertEquals(-1, IntBox.parseOrDefault("42", 0, 3, -1)); // invalid range
+        IntBox scratch = IntBox.scratch(); // not used by parseOrDefault
+        assertEquals(true, IntBox.tryParse("4711", scratch));
+        assertEquals(17, IntBox.parseOrDefault("17", -1));
+        assertEquals(-1, IntBox.parseOrDefault("x", 0, 1, -1));
+        assertEquals(4711, scratch.v());
+        int[] a = new int[1];
+        assertEquals(-1, IntArraySlot.makeIntArraySlot(a, 0).set("x", -1));
+        assertEquals(-1, a[0]);
+        assertEquals(42, IntArraySlot.makeIntArraySlot(a, 0).set("42", -1));
+        assertEquals(42, a[0]);
+    }
     
     @Rule
     public final ExpectedException exception = ExpectedException.none();
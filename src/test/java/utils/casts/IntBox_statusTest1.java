@@ -0,0 +1,87 @@
+/**
+ * Unit Tests for the parse status codes of Class IntBox
+ */
+package utils.casts;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class IntBox_statusTest1 {
+
+    private static void assertStatus(int code, int index, String s) {
+        IntBox ib = IntBox.makeIntBox(-7);
+        int status = IntBox.parseStatus(s, ib);
+        assertEquals(s, IntBox.statusToString(IntBox.status(code, index)),
+                     IntBox.statusToString(status));
+        assertEquals(s, code == IntBox.PARSE_OK, IntBox.tryParse(s, ib));
+        if (code != IntBox.PARSE_OK)
+            assertEquals(s, -7, ib.v());
+    }
+
+    @Test
+    public void status_test() {
+        System.out.printf("*** In status_test(): ***%n");
+        assertStatus(IntBox.PARSE_OK, 0, " -42 ");
+        assertStatus(IntBox.PARSE_OK, 0, "-2147483648");
+        assertStatus(IntBox.PARSE_EMPTY, 0, "");
+        assertStatus(IntBox.PARSE_EMPTY, 3, " \t ");
+        assertStatus(IntBox.PARSE_NO_DIGITS, 1, " - ");
+        assertStatus(IntBox.PARSE_INVALID_CHAR, 0, "+5");
+        assertStatus(IntBox.PARSE_INVALID_CHAR, 3, "123x5");
+        assertStatus(IntBox.PARSE_INVALID_CHAR, 2, " 1 2");
+        assertStatus(IntBox.PARSE_INVALID_CHAR, 1, "1x345678901234"); // first bad char
+        assertStatus(IntBox.PARSE_INVALID_CHAR, 1, "--5");
+        assertStatus(IntBox.PARSE_OVERFLOW, 1, " 2147483648");
+        assertStatus(IntBox.PARSE_OVERFLOW, 0, "99999999999999999999");
+        assertStatus(IntBox.PARSE_UNDERFLOW, 0, "-2147483649");
+        assertStatus(IntBox.PARSE_UNDERFLOW, 0, "-000000000002147483649");
+        assertStatus(IntBox.PARSE_OK, 0, "-000000000002147483648");
+        assertStatus(IntBox.PARSE_INVALID_ARGUMENT, 0, null);
+        assertEquals(IntBox.PARSE_INVALID_ARGUMENT, IntBox.parseStatus("1", null));
+        assertEquals(IntBox.PARSE_INVALID_ARGUMENT,
+                     IntBox.parseStatus("1", 0, 2, IntBox.makeIntBox()));
+        // the index is relative to from:
+        int status = IntBox.parseStatus("id=12y4;", 3, 7, IntBox.makeIntBox());
+        assertEquals(IntBox.PARSE_INVALID_CHAR, IntBox.statusCode(status));
+        assertEquals(2, IntBox.statusIndex(status));
+        assertEquals("INVALID_CHAR at 2", IntBox.statusToString(status));
+    }
+
+    @Test
+    public void random_test() { // the classification of Integer.parseInt
+        System.out.printf("*** In random_test(): ***%n");
+        Random rnd = new Random(4711);
+        IntBox ib = IntBox.makeIntBox();
+        String chars = "0123456789-+x ";
+        for (int k = 0; k < 100000; ++k) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = rnd.nextInt(14); i > 0; --i)
+                sb.append(chars.charAt(rnd.nextInt(rnd.nextBoolean() ? 10 : chars.length())));
+            String s = sb.toString();
+            int status = IntBox.parseStatus(s, ib);
+            String t = s.trim();
+            if (t.startsWith("+")) { // accepted by Integer.parseInt since Java 7
+                assertEquals(s, IntBox.PARSE_INVALID_CHAR, IntBox.statusCode(status));
+                continue;
+            }
+            try {
+                assertEquals(s, Integer.parseInt(t), ib.v());
+                assertEquals(s, IntBox.PARSE_OK, status);
+            } catch (NumberFormatException e) {
+                int code = IntBox.statusCode(status);
+                if (t.matches("-?[0-9]+"))
+                    assertEquals(s, t.startsWith("-") ? IntBox.PARSE_UNDERFLOW
+                                                      : IntBox.PARSE_OVERFLOW, code);
+                else if (code == IntBox.PARSE_INVALID_CHAR) {
+                    char c = s.charAt(IntBox.statusIndex(status));
+                    assertEquals(s, false, c >= '0' && c <= '9');
+                } else
+                    assertEquals(s, true, t.length() == 0 ? code == IntBox.PARSE_EMPTY
+                                                          : t.equals("-") && code == IntBox.PARSE_NO_DIGITS);
+            }
+        }
+    }
+}
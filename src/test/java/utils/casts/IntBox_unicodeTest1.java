@@ -0,0 +1,75 @@
+/**
+ * Unit Tests for the strict ASCII digits and the Unicode digit mode of
+ * Class IntBox
+ */
+package utils.casts;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class IntBox_unicodeTest1 {
+
+    // zero digits of some scripts: ASCII, Arabic-Indic, Devanagari, full-width
+    private static final char[] ZEROES = {'0', '٠', '०', '０'};
+
+    @Test
+    public void strict_test() {
+        System.out.printf("*** In strict_test(): ***%n");
+        IntBox ib = IntBox.makeIntBox(7);
+        LongBox lb = LongBox.makeLongBox(7L);
+        for (String s : new String[] {"٤٢", "1２", "-०", "١"
+                + "23456789012345678"}) {
+            assertEquals(s, false, IntBox.tryParse(s, ib));
+            assertEquals(s, false, IntBox.tryParse(s.toCharArray(), 0, s.length(), ib));
+            assertEquals(s, false, IntBox.tryParseWithTable(s, ib));
+            assertEquals(s, false, LongBox.tryParse(s, lb));
+        }
+        assertEquals(7, ib.v());
+        assertEquals(7L, lb.v());
+        // chars just around '0'..'9':
+        assertEquals(false, IntBox.tryParse("/", ib));
+        assertEquals(false, IntBox.tryParse(":", ib));
+        assertEquals(IntBox.PARSE_INVALID_CHAR,
+                     IntBox.statusCode(IntBox.parseStatus("12٣", ib)));
+    }
+
+    @Test
+    public void unicode_test() { // the same as Integer.parseInt(...)
+        System.out.printf("*** In unicode_test(): ***%n");
+        IntBox ib = IntBox.makeIntBox();
+        assertEquals(true, IntBox.tryParseUnicode("٤٢", ib));
+        assertEquals(42, ib.v());
+        assertEquals(true, IntBox.tryParseUnicode(" -２１４７４"
+                + "８３６４８ ", ib));
+        assertEquals(Integer.MIN_VALUE, ib.v());
+        assertEquals(false, IntBox.tryParseUnicode("２１４７４"
+                + "８３６４８", ib)); // overflow
+        assertEquals(false, IntBox.tryParseUnicode("x٤", ib));
+        assertEquals(false, IntBox.tryParseUnicode("٤x", ib));
+        assertEquals(false, IntBox.tryParseUnicode("-", ib));
+        assertEquals(false, IntBox.tryParseUnicode("٤ ٢", ib));
+        assertEquals(false, IntBox.tryParseUnicode((String)null, ib));
+        Random rnd = new Random(4711);
+        for (int k = 0; k < 100000; ++k) {
+            StringBuilder sb = new StringBuilder();
+            if (rnd.nextInt(10) == 0)
+                sb.append('-');
+            for (int i = 1 + rnd.nextInt(12); i > 0; --i)
+                sb.append((char)(ZEROES[rnd.nextInt(ZEROES.length)] + rnd.nextInt(10)));
+            String s = sb.toString();
+            boolean ok = true;
+            int n = 0;
+            try {
+                n = Integer.parseInt(s);
+            } catch (NumberFormatException e) {
+                ok = false;
+            }
+            ib.set(-7);
+            assertEquals(s, ok, IntBox.tryParseUnicode(s, ib));
+            assertEquals(s, ok ? n : -7, ib.v());
+        }
+    }
+}
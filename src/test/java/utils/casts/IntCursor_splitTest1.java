@@ -0,0 +1,122 @@
+/**
+ * Unit Tests for Class IntCursor
+ */
+package utils.casts;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+public class IntCursor_splitTest1 {
+
+    // all ints of c as "a b ..." ("!" for a rejected token)
+    private static String dump(IntCursor c) {
+        final StringBuilder sb = new StringBuilder();
+        c.forEachRemaining(new IntSink() {
+            public void accept(int value) {
+                sb.append(value).append(' ');
+            }
+            public void reject(long position, int length) {
+                sb.append("!").append(position).append('/').append(length).append(' ');
+            }
+        });
+        return sb.toString();
+    }
+
+    @Test
+    public void policy_test() throws UnsupportedEncodingException {
+        System.out.printf("*** In policy_test(): ***%n");
+        String s = "17,-4, 2147483647\n\nx,-2147483648,";
+        assertEquals("17 -4 2147483647 !18/0 !19/1 -2147483648 ",
+                     dump(new IntCursor(s, ",\n", IntCursor.Invalid.SKIP, -1)));
+        assertEquals("17 -4 2147483647 -1 -1 -2147483648 ",
+                     dump(new IntCursor(s, ",\n", IntCursor.Invalid.DEFAULT, -1)));
+        byte[] a = ("#" + s).getBytes("US-ASCII");
+        assertEquals("17 -4 2147483647 !19/0 !20/1 -2147483648 ",
+                     dump(new IntCursor(a, 1, a.length - 1, ",\n", IntCursor.Invalid.SKIP, -1)));
+        IntCursor c = new IntCursor(a, 1, a.length - 1, ",\n", IntCursor.Invalid.SKIP, -1);
+        IntBox box = new IntBox();
+        StringBuilder sb = new StringBuilder();
+        while (c.tryAdvance(box))
+            sb.append(box.v()).append(' ');
+        assertEquals("17 -4 2147483647 -2147483648 ", sb.toString());
+        c = new IntCursor(s, ",\n", IntCursor.Invalid.FAIL, -1);
+        assertEquals(true, c.tryAdvance(box));
+        assertEquals(true, c.tryAdvance(box));
+        assertEquals(true, c.tryAdvance(box));
+        try {
+            c.tryAdvance(box);
+            assertEquals("NumberFormatException", "none");
+        } catch (NumberFormatException e) {
+            assertEquals("Invalid int at 18: \"\"", e.getMessage());
+        }
+        assertEquals("", dump(new IntCursor("", ",", IntCursor.Invalid.SKIP, 0)));
+    }
+
+    @Test
+    public void split_test() {
+        System.out.printf("*** In split_test(): ***%n");
+        Random rnd = new Random(20);
+        StringBuilder sb = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 20000; ++i) {
+            int v = rnd.nextInt();
+            sb.append(v).append(rnd.nextBoolean() ? ',' : '\n');
+            expected.append(v).append(' ');
+        }
+        String s = sb.toString();
+        IntCursor c = new IntCursor(s, ",\n", IntCursor.Invalid.FAIL, 0);
+        List<IntCursor> parts = new ArrayList<IntCursor>();
+        IntCursor prefix;
+        while ((prefix = c.trySplit(1)) != null)
+            parts.add(prefix); // each prefix comes behind the former ones
+        assertEquals(true, parts.size() > 10);
+        assertEquals(null, c.trySplit(1));
+        StringBuilder all = new StringBuilder();
+        for (IntCursor part : parts)
+            all.append(dump(part));
+        all.append(dump(c));
+        assertEquals(expected.toString(), all.toString());
+        assertEquals(0, c.remaining());
+    }
+
+    @Test
+    public void aggregate_test() throws Exception {
+        System.out.printf("*** In aggregate_test(): ***%n");
+        Random rnd = new Random(2);
+        StringBuilder sb = new StringBuilder();
+        long sum = 0L;
+        int invalid = 0;
+        for (int i = 0; i < 50000; ++i) {
+            if (i % 100 == 0) {
+                sb.append("x\n");
+                ++invalid;
+                continue;
+            }
+            int v = rnd.nextInt();
+            sum += v;
+            sb.append(v).append('\n');
+        }
+        byte[] a = sb.toString().getBytes("US-ASCII");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int parts = 1; parts <= 64; parts *= 4) {
+                IntCursor c = new IntCursor(a, 0, a.length, "\n", IntCursor.Invalid.SKIP, 0);
+                IntAggregator agg = c.aggregate(executor, parts);
+                assertEquals(sum, agg.sum());
+                assertEquals(50000 - invalid, agg.count());
+                assertEquals(invalid, agg.invalidCount());
+                assertEquals(0, c.remaining());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
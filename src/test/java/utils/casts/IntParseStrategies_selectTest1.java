@@ -0,0 +1,73 @@
+/**
+ * Unit Tests for Class IntParseStrategies (and IntBox.tryParseForward,
+ * IntBox.tryParseWithTable)
+ */
+package utils.casts;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class IntParseStrategies_selectTest1 {
+
+    private static final String[] INPUTS = {
+        "0", "-0", "7", "-7", " 42\t", "2147483647", "-2147483648",
+        "2147483648", "-2147483649", "2147483650", "-2147483650",
+        "1000000000", "-1000000000", "3000000000", "00000000000000002147483647",
+        "-00000000000000002147483648", "000000000000", "-000000000000",
+        "00000000000000002147483648", "9999999999", "-9999999999", "", " ",
+        "-", "+1", "--1", "1-", "1 2", "- 1", "12x", "\u0664\u0662", "\uFF11"
+    };
+
+    private static void assertSameAsTryParse(IntParseStrategy p, String s) {
+        IntBox expected = IntBox.makeIntBox(-1), actual = IntBox.makeIntBox(-1);
+        assertEquals(p + " \"" + s + "\"", IntBox.tryParse(s, expected), p.tryParse(s, actual));
+        assertEquals(p + " \"" + s + "\"", expected.v(), actual.v());
+    }
+
+    @Test
+    public void strategies_test() {
+        System.out.printf("*** In strategies_test(): ***%n");
+        IntParseStrategy[] all = {IntParseStrategies.BACKWARD,
+                                  IntParseStrategies.FORWARD,
+                                  IntParseStrategies.TABLE};
+        Random rnd = new Random(22);
+        for (IntParseStrategy p : all) {
+            assertEquals(p, IntParseStrategies.byName(p.toString()));
+            for (String s : INPUTS)
+                assertSameAsTryParse(p, s);
+            for (int i = 0; i < 10000; ++i) {
+                long v = rnd.nextLong() >> rnd.nextInt(64);
+                assertSameAsTryParse(p, Long.toString(v));
+            }
+        }
+        assertEquals(null, IntParseStrategies.byName("SIDEWAYS"));
+        assertEquals(false, IntParseStrategies.FORWARD.tryParse(null, new IntBox()));
+        assertEquals(false, IntParseStrategies.TABLE.tryParse(null, new IntBox()));
+    }
+
+    @Test
+    public void calibrate_test() {
+        System.out.printf("*** In calibrate_test(): ***%n");
+        String[] sample = new String[1000];
+        Random rnd = new Random(1);
+        for (int i = 0; i < sample.length; ++i)
+            sample[i] = String.valueOf(rnd.nextInt());
+        StringBuilder report = new StringBuilder();
+        IntParseStrategy p = IntParseStrategies.calibrate(sample, report);
+        assertEquals(p, IntParseStrategies.byName(p.toString()));
+        assertEquals(true, report.toString().startsWith("BACKWARD "));
+        assertEquals(true, report.indexOf("FORWARD ") > 0);
+        assertEquals(true, report.indexOf("TABLE ") > 0);
+        assertEquals(true, report.indexOf("wrong") < 0);
+        assertEquals(IntParseStrategies.BACKWARD, IntParseStrategies.calibrate(new String[0]));
+        // the property is not set in the unit tests
+        assertEquals(IntParseStrategies.BACKWARD, IntParseStrategies.SELECTED);
+        assertEquals("BACKWARD (default)", IntParseStrategies.selection());
+        IntBox box = new IntBox();
+        assertEquals(true, IntParseStrategies.tryParse(" -17 ", box));
+        assertEquals(-17, box.v());
+    }
+}
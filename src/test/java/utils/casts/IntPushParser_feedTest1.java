@@ -0,0 +1,112 @@
+/**
+ * Unit Tests for Class IntPushParser
+ */
+package utils.casts;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.io.UnsupportedEncodingException;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class IntPushParser_feedTest1 {
+
+    private static final String[] TOKENS = {
+        "0", "17", "-4", " 42 ", "\t-7\r", "2147483647", "-2147483648",
+        "2147483648", "-2147483649", "00000000000000002147483647",
+        "-0000000000000000000000000001", "99999999999", "", " ", "-", "+1",
+        "1 2", "- 1", "x", "12x", "0x1F", "ä", "--1", "1-"
+    };
+
+    // all tokens given to a sink as "a b ..." ("!position/length" for a
+    // rejected token)
+    private static final class Recorder implements IntSink {
+        final StringBuilder sb = new StringBuilder();
+        public void accept(int value) {
+            sb.append(value).append(' ');
+        }
+        public void reject(long position, int length) {
+            sb.append('!').append(position).append('/').append(length).append(' ');
+        }
+    }
+
+    // what DelimitedIntParser (token by token IntBox.tryParse) gives
+    private static String expected(String s, String delimiters) {
+        Recorder r = new Recorder();
+        int start = 0;
+        for (int i = 0; i <= s.length(); ++i) {
+            if (i == s.length() ? start < i : delimiters.indexOf(s.charAt(i)) >= 0) {
+                IntBox box = new IntBox();
+                if (IntBox.tryParse(s, start, i, box))
+                    r.accept(box.v());
+                else
+                    r.reject(start, i - start);
+                start = i + 1;
+            }
+        }
+        return r.sb.toString();
+    }
+
+    @Test
+    public void chunks_test() throws UnsupportedEncodingException {
+        System.out.printf("*** In chunks_test(): ***%n");
+        Random rnd = new Random(21);
+        for (int round = 0; round < 200; ++round) {
+            StringBuilder sb = new StringBuilder();
+            int n = rnd.nextInt(40);
+            for (int k = 0; k < n; ++k)
+                sb.append(TOKENS[rnd.nextInt(TOKENS.length)])
+                  .append(rnd.nextBoolean() ? ',' : '\n');
+            if (rnd.nextBoolean())
+                sb.append(TOKENS[rnd.nextInt(TOKENS.length)]);
+            String s = sb.toString();
+            String expected = expected(s, ",\n");
+            byte[] a = s.getBytes("ISO-8859-1");
+            char[] c = s.toCharArray();
+            Recorder bytes = new Recorder(), chars = new Recorder();
+            IntPushParser pb = new IntPushParser(",\n", bytes);
+            IntPushParser pc = new IntPushParser(",\n", chars);
+            int maxChunk = 1 + rnd.nextInt(16);
+            for (int off = 0; off < a.length; ) {
+                int len = Math.min(a.length - off, rnd.nextInt(maxChunk + 1));
+                pb.feed(a, off, len);
+                pc.feed(c, off, len);
+                off += len;
+            }
+            pb.finish();
+            pc.finish();
+            assertEquals(s, expected, bytes.sb.toString());
+            assertEquals(s, expected, chars.sb.toString());
+            assertEquals(a.length, pb.position());
+        }
+    }
+
+    @Test
+    public void stream_test() throws Exception {
+        System.out.printf("*** In stream_test(): ***%n");
+        StringBuilder sb = new StringBuilder();
+        Random rnd = new Random(5);
+        for (int i = 0; i < 10000; ++i)
+            sb.append(rnd.nextInt()).append('\n');
+        sb.append("000000000000000000000000000000000000000000000000000000000000"
+                  + "000000000000000000000000000000000000000000000000000000000000"
+                  + "0000000000000000000000000000000000000000000000000000000000042");
+        for (int i = 0; i < 20000; ++i) // a token longer than the buffer
+            sb.append(' ');
+        String s = sb.toString();
+        String expected = expected(s, "\n");
+        Recorder r = new Recorder();
+        IntPushParser p = new IntPushParser("\n", r);
+        assertEquals(10001L, p.parse(new ByteArrayInputStream(s.getBytes("US-ASCII"))));
+        assertEquals(expected, r.sb.toString());
+        r = new Recorder();
+        p = new IntPushParser("\n", r);
+        assertEquals(10001L, p.parse(new StringReader(s)));
+        assertEquals(expected, r.sb.toString());
+        p.reset();
+        assertEquals(0L, p.tokenCount());
+    }
+}
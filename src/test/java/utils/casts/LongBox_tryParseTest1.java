@@ -0,0 +1,83 @@
+/**
+ * Unit Tests for Class LongBox
+ */
+package utils.casts;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class LongBox_tryParseTest1 {
+    @Test
+    public void tryParse_test() {
+        System.out.printf("*** In tryParse_test(): ***%n");
+        LongBox lb = LongBox.makeLongBox();
+        assertEquals(0L, lb.get());
+        String s = String.valueOf(Long.MIN_VALUE);
+        assertEquals(true, LongBox.tryParse(s, lb));
+        assertEquals(Long.MIN_VALUE, lb.v());
+        s = String.valueOf(Long.MAX_VALUE);
+        assertEquals(true, LongBox.tryParse(s, lb));
+        assertEquals(Long.MAX_VALUE, lb.v());
+        s = BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE).toString();
+        assertEquals(false, LongBox.tryParse(s, lb));
+        assertEquals(Long.MAX_VALUE, lb.v());
+        s = BigInteger.valueOf(Long.MIN_VALUE).subtract(BigInteger.ONE).toString();
+        assertEquals(false, LongBox.tryParse(s, lb));
+        assertEquals(Long.MAX_VALUE, lb.v());
+        s = "  1471859535123\t"; // epoch milliseconds
+        assertEquals(true, LongBox.tryParse(s, lb));
+        assertEquals(1471859535123L, lb.v());
+        s = "-000000000000" + String.valueOf(Long.MIN_VALUE).substring(1);
+        assertEquals(true, LongBox.tryParse(s, lb));
+        assertEquals(Long.MIN_VALUE, lb.v());
+        s = "0000000000000" + Long.MAX_VALUE;
+        assertEquals(true, LongBox.tryParse(s, lb));
+        assertEquals(Long.MAX_VALUE, lb.v());
+        String[] bad = {"", " ", "-", "+1", "1x", "9999999999999999999",
+                "-9999999999999999999", "12345678901234567890", "1 2"};
+        for (String b : bad) {
+            assertEquals(b, false, LongBox.tryParse(b, lb));
+            assertEquals(Long.MAX_VALUE, lb.v());
+        }
+        StringBuilder sb = new StringBuilder("id=-42;");
+        assertEquals(true, LongBox.tryParse(sb, 3, 6, lb));
+        assertEquals(-42L, lb.v());
+        // compare with Long.parseLong / BigInteger:
+        Random rnd = new Random(4711);
+        BigInteger max = BigInteger.valueOf(Long.MAX_VALUE);
+        BigInteger min = BigInteger.valueOf(Long.MIN_VALUE);
+        for (int k = 0; k < 100000; ++k) {
+            BigInteger bi = new BigInteger(1 + rnd.nextInt(66), rnd);
+            if (rnd.nextBoolean())
+                bi = bi.negate();
+            s = bi.toString();
+            boolean fits = bi.compareTo(min) >= 0 && bi.compareTo(max) <= 0;
+            assertEquals(s, fits, LongBox.tryParse(s, lb));
+            if (fits)
+                assertEquals(s, bi.longValue(), lb.v());
+        }
+    }
+
+    @Test
+    public void set_test() {
+        System.out.printf("*** In set_test(): ***%n");
+        LongBox lb = LongBox.makeLongBox("12345678901", -1L);
+        assertEquals(12345678901L, lb.v());
+        assertEquals(-1L, lb.set("1.5", -1L));
+        assertEquals(-1L, lb.set((String)null, -1L));
+        assertEquals(false, LongBox.tryParse((String)null, lb));
+        assertEquals(false, LongBox.tryParse((CharSequence)null, 0, 0, lb));
+        assertEquals(-1L, lb.v());
+        assertEquals(-1L, LongBox.makeLongBox(1e19, -1L).v());
+        assertEquals(123L, LongBox.makeLongBox(123.9, -1L).v());
+        assertEquals(-1L, LongBox.makeLongBox((LongBox)null, -1L).v());
+        LongBox lb2 = (LongBox)lb.clone();
+        lb2.set(7L);
+        assertEquals(-1L, lb.v());
+        assertEquals("7", lb2.toString());
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * Unit Tests for Class MappedIntScanner (and IntChunks)
+ */
+package utils.casts;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class MappedIntScanner_scanTest1 {
+
+    private static File write(String s) throws IOException {
+        File f = File.createTempFile("MappedIntScanner", ".txt");
+        f.deleteOnExit();
+        FileOutputStream out = new FileOutputStream(f);
+        try {
+            out.write(s.getBytes("US-ASCII"));
+        } finally {
+            out.close();
+        }
+        return f;
+    }
+
+    @Test
+    public void scan_test() throws IOException {
+        System.out.printf("*** In scan_test(): ***%n");
+        File f = write("17\n-4\r\n 2147483647\n\nx\n-2147483648\n0000000000042");
+        for (int window = 13; window <= 64; ++window) { // 13: longest token
+            IntChunks c = new MappedIntScanner(MappedIntScanner.NEWLINE, window).scan(f, -1);
+            int[] expected = {17, -4, Integer.MAX_VALUE, -1, -1, Integer.MIN_VALUE, 42};
+            boolean[] ok = {true, true, true, false, false, true, true};
+            assertEquals(expected.length, c.size());
+            assertEquals(2, c.invalidCount());
+            for (int i = 0; i < expected.length; ++i) {
+                assertEquals(expected[i], c.get(i));
+                assertEquals(ok[i], c.isValid(i));
+            }
+        }
+        // tokens longer than the window are rejected:
+        IntChunks c = new MappedIntScanner(MappedIntScanner.NEWLINE, 4).scan(f, -1);
+        assertEquals(7, c.size());
+        assertEquals(-4, c.get(1));
+        assertEquals(false, c.isValid(2));
+        assertEquals(false, c.isValid(6));
+        // the positions of the rejected tokens:
+        final StringBuilder sb = new StringBuilder();
+        new MappedIntScanner().scan(f, new IntSink() {
+            public void accept(int value) {
+            }
+            public void reject(long position, int length) {
+                sb.append(position).append('/').append(length).append(' ');
+            }
+        });
+        assertEquals("19/0 20/1 ", sb.toString());
+        assertEquals(0, new MappedIntScanner().scan(write(""), 0).size());
+    }
+
+    @Test
+    public void random_test() throws IOException { // compare with readLine
+        System.out.printf("*** In random_test(): ***%n");
+        Random rnd = new Random(4711);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 3 * IntChunks.CHUNK_SIZE / 2; ++i) {
+            int r = rnd.nextInt(20);
+            if (r == 0)
+                sb.append("x").append(rnd.nextInt());
+            else if (r == 1)
+                sb.append(" ").append(rnd.nextLong() >> rnd.nextInt(64)).append('\r');
+            else
+                sb.append(rnd.nextInt() >> rnd.nextInt(32));
+            sb.append('\n');
+        }
+        String s = sb.toString();
+        File f = write(s);
+        IntBox ib = IntBox.makeIntBox();
+        for (int window : new int[] {4093, 65536, MappedIntScanner.DEFAULT_WINDOW_SIZE}) {
+            IntChunks c = new MappedIntScanner(MappedIntScanner.NEWLINE, window).scan(f, 42);
+            BufferedReader in = new BufferedReader(new StringReader(s));
+            long i = 0;
+            for (String line = in.readLine(); line != null; line = in.readLine(), ++i) {
+                boolean ok = IntBox.tryParse(line, ib);
+                assertEquals(line, ok, c.isValid(i));
+                assertEquals(line, ok ? ib.v() : 42, c.get(i));
+            }
+            assertEquals(i, c.size());
+            assertEquals(2, c.chunkCount());
+            int[] a = c.toArray();
+            assertEquals(c.get(IntChunks.CHUNK_SIZE + 1), a[IntChunks.CHUNK_SIZE + 1]);
+        }
+    }
+}
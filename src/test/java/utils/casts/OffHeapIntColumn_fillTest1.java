@@ -0,0 +1,98 @@
+/**
+ * Unit Tests for Class OffHeapIntColumn
+ */
+package utils.casts;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.Channels;
+
+import org.junit.Test;
+
+public class OffHeapIntColumn_fillTest1 {
+
+    @Test
+    public void tryParse_test() {
+        System.out.printf("*** In tryParse_test(): ***%n");
+        OffHeapIntColumn col = new OffHeapIntColumn(-1);
+        assertEquals(0, col.chunkCount());
+        assertEquals(true, col.tryParseAndAdd(" 17 "));
+        assertEquals(false, col.tryParseAndAdd("x"));
+        assertEquals(false, col.tryParseAndAdd((String)null));
+        assertEquals(true, col.tryParseAndAdd("a,-2147483648,b", 2, 13));
+        assertEquals(true, col.tryParseAndAdd("42".getBytes(), 0, 2));
+        assertEquals(5L, col.size());
+        assertEquals(2L, col.invalidCount());
+        int[] expected = {17, -1, -1, Integer.MIN_VALUE, 42};
+        boolean[] ok = {true, false, false, true, true};
+        for (int i = 0; i < expected.length; ++i) {
+            assertEquals(expected[i], col.get(i));
+            assertEquals(ok[i], col.isValid(i));
+        }
+        IntBuffer chunk = col.chunk(0);
+        assertEquals(5, chunk.remaining());
+        assertEquals(42, chunk.get(4));
+        LongBuffer validity = col.validity(0);
+        assertEquals(1, validity.remaining());
+        assertEquals(0x19L, validity.get(0));
+        IntAggregator agg = new IntAggregator();
+        col.aggregate(agg);
+        assertEquals(3L, agg.count());
+        assertEquals(2L, agg.invalidCount());
+        assertEquals(17L + Integer.MIN_VALUE + 42L, agg.sum());
+    }
+
+    @Test
+    public void chunks_test() throws IOException {
+        System.out.printf("*** In chunks_test(): ***%n");
+        OffHeapIntColumn col = new OffHeapIntColumn();
+        long n = 2L * OffHeapIntColumn.CHUNK_SIZE + 100;
+        for (long i = 0; i < n; ++i)
+            col.add((int)(i * 7), i % 5 != 0);
+        assertEquals(n, col.size());
+        assertEquals(3, col.chunkCount());
+        assertEquals(100, col.chunk(2).remaining());
+        assertEquals(2, col.validity(2).remaining());
+        for (long i = 0; i < n; i += 997) {
+            assertEquals((int)(i * 7), col.get(i));
+            assertEquals(i % 5 != 0, col.isValid(i));
+        }
+        int[] a = new int[300];
+        long from = OffHeapIntColumn.CHUNK_SIZE - 150;
+        col.copyTo(from, a, 0, a.length);
+        for (int k = 0; k < a.length; ++k)
+            assertEquals((int)((from + k) * 7), a[k]);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(4 * n, col.writeTo(Channels.newChannel(out)));
+        ByteBuffer written = ByteBuffer.wrap(out.toByteArray()).order(ByteOrder.nativeOrder());
+        assertEquals(4 * n, written.remaining());
+        assertEquals((int)((n - 1) * 7), written.getInt((int)(4 * (n - 1))));
+    }
+
+    @Test
+    public void scanner_test() throws IOException {
+        System.out.printf("*** In scanner_test(): ***%n");
+        File f = File.createTempFile("OffHeapIntColumn", ".txt");
+        f.deleteOnExit();
+        FileOutputStream out = new FileOutputStream(f);
+        try {
+            out.write("1\n-2\nx\n 3 \n".getBytes("US-ASCII"));
+        } finally {
+            out.close();
+        }
+        OffHeapIntColumn col = new OffHeapIntColumn(0);
+        assertEquals(4L, new MappedIntScanner().scan(f, col));
+        assertEquals(1L, col.invalidCount());
+        int[] a = new int[4];
+        col.copyTo(0L, a, 0, 4);
+        assertEquals("[1, -2, 0, 3]", java.util.Arrays.toString(a));
+    }
+}
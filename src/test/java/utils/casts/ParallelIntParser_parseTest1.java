@@ -0,0 +1,97 @@
+/**
+ * Unit Tests for Class ParallelIntParser
+ */
+package utils.casts;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+public class ParallelIntParser_parseTest1 {
+
+    // r must be the same as the sequential DelimitedIntParser.parse(...)
+    private static void assertSame(byte[] a, int off, ParallelIntParser.Result r) {
+        DelimitedIntParser p = new DelimitedIntParser(DelimitedIntParser.COMMA_OR_NEWLINE);
+        int n = p.countTokens(a, off, a.length - off);
+        int[] dst = new int[n];
+        long[] valid = new long[IntBox.validityWords(n)];
+        p.parse(a, off, a.length - off, dst, 0, valid, -1);
+        assertEquals(n, r.values().length);
+        int e = 0;
+        for (int i = 0, start = off; i < n; ++i) {
+            assertEquals(dst[i], r.values()[i]);
+            assertEquals(IntBox.isValid(valid, i), IntBox.isValid(r.valid(), i));
+            if (!IntBox.isValid(valid, i)) {
+                assertEquals(i, r.errorIndex(e));
+                assertEquals(start, r.errorPosition(e++));
+            }
+            start = p.indexOfDelimiter(a, start, a.length) + 1;
+        }
+        assertEquals(e, r.errorCount());
+        for (int w = 0; w < valid.length; ++w)
+            assertEquals(valid[w], r.valid()[w]);
+    }
+
+    @Test
+    public void parse_test() throws Exception {
+        System.out.printf("*** In parse_test(): ***%n");
+        Random rnd = new Random(4711);
+        StringBuilder sb = new StringBuilder("9,");
+        for (int i = 0; i < 5000; ++i) {
+            int r = rnd.nextInt(20);
+            if (r == 0)
+                sb.append("x");
+            else if (r != 1) // r == 1: empty token
+                sb.append(rnd.nextInt() >> rnd.nextInt(32));
+            sb.append(rnd.nextBoolean() ? ',' : '\n');
+        }
+        byte[] a = sb.toString().getBytes("US-ASCII");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int split : new int[] {1, 7, 64, 1000, ParallelIntParser.DEFAULT_SPLIT_SIZE}) {
+                ParallelIntParser p = new ParallelIntParser(
+                        DelimitedIntParser.COMMA_OR_NEWLINE, executor, split);
+                assertSame(a, 2, p.parse(a, 2, a.length - 2, -1));
+                ByteBuffer buf = ByteBuffer.allocateDirect(a.length);
+                buf.put(a).flip();
+                buf.position(2);
+                assertSame(a, 2, p.parse(buf, -1));
+                assertEquals(2, buf.position());
+                assertSame(a, 2, p.parse(ByteBuffer.wrap(a, 2, a.length - 2), -1));
+                // no delimiter at the end:
+                byte[] b = "1,2,,x,5".getBytes("US-ASCII");
+                assertSame(b, 0, p.parse(b, 0, b.length, -1));
+                assertEquals(0, p.parse(b, 0, 0, -1).values().length);
+            }
+            File f = File.createTempFile("ParallelIntParser", ".txt");
+            f.deleteOnExit();
+            FileOutputStream out = new FileOutputStream(f);
+            try {
+                out.write(a, 2, a.length - 2);
+            } finally {
+                out.close();
+            }
+            ParallelIntParser p = new ParallelIntParser(
+                    DelimitedIntParser.COMMA_OR_NEWLINE, executor, 100);
+            ParallelIntParser.Result r = p.parse(f, -1);
+            ParallelIntParser.Result expected = p.parse(a, 2, a.length - 2, -1);
+            assertSame(a, 2, expected);
+            assertEquals(Arrays.toString(expected.values()), Arrays.toString(r.values()));
+            assertEquals(Arrays.toString(expected.valid()), Arrays.toString(r.valid()));
+            assertEquals(expected.errorCount(), r.errorCount());
+            for (int k = 0; k < r.errorCount(); ++k) // positions in the file
+                assertEquals(expected.errorPosition(k) - 2, r.errorPosition(k));
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * Unit Tests for Class ParseStats. The counting is called directly (the
+ * instrumentation is only switched on with -Dutils.casts.ParseStats=true,
+ * then the tests also go through IntBox.tryParse(...)).
+ */
+package utils.casts;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class ParseStats_countTest1 {
+
+    private static final class Recorder implements ParseListener {
+        int slow, rejects, batches, batchCount, batchInvalid;
+        String lastReject;
+        public void slowParse(CharSequence s, int from, int to, int status, long nanos) {
+            ++slow;
+        }
+        public void sampledReject(CharSequence s, int from, int to, int status) {
+            ++rejects;
+            lastReject = s.subSequence(from, to) + "/" + IntBox.statusToString(status);
+        }
+        public void batch(String operation, int count, int invalid, long nanos) {
+            ++batches;
+            batchCount += count;
+            batchInvalid += invalid;
+        }
+    }
+
+    private static int parse(String s, IntBox box) {
+        return ParseStats.ENABLED ? IntBox.parseStatus(s, box)
+                                  : ParseStats.parseStatus(s, 0, s.length(), box);
+    }
+
+    @Test
+    public void counters_test() {
+        System.out.printf("*** In counters_test(): ***%n");
+        ParseStats.reset();
+        IntBox box = new IntBox();
+        String[] inputs = {"17", " -4 ", "", "x", "1x", "2147483648", "-2147483649",
+                           "000000000042", "-000000000042", "-"};
+        for (String s : inputs)
+            parse(s, box);
+        assertEquals(4L, ParseStats.count(IntBox.PARSE_OK));
+        assertEquals(1L, ParseStats.count(IntBox.PARSE_EMPTY));
+        assertEquals(1L, ParseStats.count(IntBox.PARSE_NO_DIGITS));
+        assertEquals(2L, ParseStats.count(IntBox.PARSE_INVALID_CHAR));
+        assertEquals(1L, ParseStats.count(IntBox.PARSE_OVERFLOW));
+        assertEquals(1L, ParseStats.count(IntBox.PARSE_UNDERFLOW));
+        // the zeroes are only skipped if the number is longer than an int
+        assertEquals(ParseStats.ENABLED ? 2L : 0L, ParseStats.count(ParseStats.LEADING_ZEROS));
+        assertEquals(true, ParseStats.report().startsWith("ok=4, empty=1, noDigits=1, "));
+        ParseStats.reset();
+        assertEquals(0L, ParseStats.count(IntBox.PARSE_OK));
+    }
+
+    @Test
+    public void sampling_test() {
+        System.out.printf("*** In sampling_test(): ***%n");
+        Recorder r = new Recorder();
+        ParseStats.setListener(r);
+        try {
+            IntBox box = new IntBox();
+            for (int i = 0; i < 3 * ParseStats.SAMPLE_INTERVAL; ++i)
+                parse("12#", box);
+            assertEquals(3, r.rejects); // one thread: exactly every 1024th
+            assertEquals("12#/INVALID_CHAR at 2", r.lastReject);
+            for (int i = 0; i < 3 * ParseStats.SAMPLE_INTERVAL; ++i)
+                parse("12", box);
+            assertEquals(3, r.rejects);
+            ParseStats.batch("test", 10, 2, 100L);
+            assertEquals(1, r.batches);
+            if (ParseStats.ENABLED) {
+                IntBox.tryParseAll(new String[] {"1", "x", "3"}, new int[3], null, -1);
+                new DelimitedIntParser(",").parse("1,,3,y".getBytes(), 0, 6,
+                                                  new int[4], 0, null, 0);
+                assertEquals(3, r.batches);
+                assertEquals(17, r.batchCount);
+                assertEquals(5, r.batchInvalid);
+            }
+        } finally {
+            ParseStats.setListener(null);
+        }
+    }
+
+    @Test
+    public void ltrim_test() {
+        System.out.printf("*** In ltrim_test(): ***%n");
+        ParseStats.reset();
+        assertEquals("42", IntBox.ltrimZeroes("00042"));
+        assertEquals("42", IntBox.ltrimZeroes("42"));
+        assertEquals("-42", IntBox.ltrimZeroes("-042"));
+        assertEquals("0", IntBox.ltrimZeroes("000"));
+        assertEquals(ParseStats.ENABLED ? 3L : 0L,
+                     ParseStats.count(ParseStats.LTRIM_ALLOCATIONS));
+    }
+}
@@ -0,0 +1,204 @@
+/**
+ * Vector API engine of DelimitedIntParser (jdk.incubator.vector, JDK >=
+ * 17). Not part of the main classes (release 7): it is compiled from src/vector/java
+ * with a newer release (see build.gradle) and only loaded by reflection,
+ * if the JVM was started with --add-modules jdk.incubator.vector (see
+ * DelimitedIntParser.isVectorized()).
+ *
+ * Two vector passes:
+ *
+ * 1. Delimiters and digit spans: the input is loaded in vectors of the
+ *    preferred byte species (16, 32 or 64 lanes for SSE, AVX2, AVX-512),
+ *    each compared with all delimiters and with '0'..'9'. The lane masks
+ *    are stored as bytes 0x80/0x00, i. e. as the 8 byte words of the SWAR
+ *    parser (not with VectorMask.toLong(), which JDK 17 does not compile
+ *    into a single instruction, but allocates). The delimiter bits are
+ *    walked lowest first, as in the SWAR parser, the bits of the other
+ *    non-digit bytes tell for each token at once whether it is nothing but
+ *    digits (after an optional '-').
+ *
+ * 2. Numbers: such a token of at most 10 digits is not parsed when it is
+ *    found, its last 8 digits are only staged as one long (right aligned,
+ *    padded with '0' in front), the 1 or 2 digits before them as a small
+ *    int. Per 64 staged tokens the longs are converted in vectors of the
+ *    preferred long species, i. e. 4 or 8 numbers per vector pass, with
+ *    the multiply and shift steps of Swar.parseEightDigits(...) done lane
+ *    by lane, the high digits and the sign added in the same pass. A 10
+ *    digit number outside of the int range is invalid, as in tryParse.
+ *
+ * Everything else (whitespace around the number, more than 10 digits,
+ * i. e. leading zeroes, invalid or empty tokens, the few tokens in the
+ * last bytes, which do not fill a vector) goes to IntBox.tryParse(byte[],
+ * ...), so the values and validity bits are exactly those of the SWAR
+ * parser.
+ */
+package utils.casts;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+final class VectorDelimitedIntEngine implements DelimitedIntEngine {
+
+    private static final VectorSpecies<Byte> BYTES = ByteVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    // staged tokens per conversion, a multiple of LONGS.length() (<= 8)
+    private static final int BATCH = 64;
+    private static final long DEC_8 = 100000000L; // 10^8
+    private static final ByteVector ZERO = ByteVector.zero(BYTES);
+
+    public VectorDelimitedIntEngine() {
+    }
+
+    public int parse(byte[] delimiters, byte[] a, int off, int len, int[] dst,
+                     int dstOff, long[] valid, int validOff, int defaultValue) {
+        long t0 = ParseStats.ENABLED ? System.nanoTime() : 0L;
+        Batch batch = new Batch(a, dst, dstOff, valid, validOff, defaultValue);
+        int lanes = BYTES.length(), d = dstOff, start = off, to = off + len, i = off;
+        long[] delimiterWords = new long[lanes >>> 3], badWords = new long[lanes >>> 3];
+        int lastBad = -1; // index of the last non-digit, non-delimiter byte
+        for ( ; i <= to - lanes; i += lanes) {
+            ByteVector v = ByteVector.fromArray(BYTES, a, i);
+            VectorMask<Byte> m = v.eq(delimiters[0]);
+            for (int k = 1; k < delimiters.length; ++k)
+                m = m.or(v.eq(delimiters[k]));
+            VectorMask<Byte> bad = v.lt((byte)'0')
+                    .or(v.compare(VectorOperators.GT, (byte)'9')).andNot(m);
+            ZERO.blend((byte)0x80, m).reinterpretAsLongs().intoArray(delimiterWords, 0);
+            ZERO.blend((byte)0x80, bad).reinterpretAsLongs().intoArray(badWords, 0);
+            for (int w = 0, base = i; w < delimiterWords.length; ++w, base += 8) {
+                long badBits = badWords[w];
+                for (long bits = delimiterWords[w]; bits != 0L; bits &= bits - 1L) {
+                    int end = base + (Long.numberOfTrailingZeros(bits) >>> 3);
+                    // bad bytes in front of the delimiter
+                    long before = badBits & ((bits & -bits) - 1L);
+                    if (before != 0L)
+                        lastBad = base + (63 - Long.numberOfLeadingZeros(before) >>> 3);
+                    batch.token(start, end, d++, lastBad);
+                    start = end + 1;
+                }
+                if (badBits != 0L)
+                    lastBad = base + (63 - Long.numberOfLeadingZeros(badBits) >>> 3);
+            }
+        }
+        for ( ; i <= to; ++i) {
+            if (i == to ? start < to : isDelimiter(delimiters, a[i])) {
+                batch.token(start, i, d++, Integer.MAX_VALUE); // (not staged)
+                start = i + 1;
+            }
+        }
+        batch.convert();
+        if (ParseStats.ENABLED)
+            ParseStats.batch("DelimitedIntParser.parse", d - dstOff, batch.invalid,
+                             System.nanoTime() - t0);
+        return d - dstOff;
+    }
+
+    private static boolean isDelimiter(byte[] delimiters, byte b) {
+        for (byte c : delimiters)
+            if (b == c)
+                return true;
+        return false;
+    }
+
+    // the staged tokens of one parse(...) call
+    private static final class Batch {
+
+        private final byte[] a;
+        private final int[] dst;
+        private final long[] valid;
+        private final int validShift; // validity bit of dst[d]: d + validShift
+        private final int defaultValue;
+        private final IntBox box = new IntBox();
+        private final long[] words = new long[BATCH];  // the last 8 digits
+        private final long[] highs = new long[BATCH];  // the digits before
+        private final long[] signs = new long[BATCH];  // 1 or -1
+        private final int[] indices = new int[BATCH];  // into dst
+        private final long[] values = new long[BATCH];
+        private int n;
+        int invalid; // only counted for ParseStats
+
+        Batch(byte[] a, int[] dst, int dstOff, long[] valid, int validOff,
+              int defaultValue) {
+            this.a = a;
+            this.dst = dst;
+            this.valid = valid;
+            this.validShift = validOff - dstOff;
+            this.defaultValue = defaultValue;
+        }
+
+        // token a[start..end-1], the value goes to dst[d]; lastBad: the
+        // index of the last byte before end which is neither a digit nor
+        // a delimiter
+        void token(int start, int end, int d, int lastBad) {
+            int s = start;
+            long sign = 1L;
+            if (s < end && a[s] == '-') {
+                ++s;
+                sign = -1L;
+            }
+            int k = end - s; // number of digits
+            if (lastBad >= s || k < 1 || k > 10 || end < 8) { // (end < 8: no
+                parse(start, end, d);                         // 8 bytes to load)
+                return;
+            }
+            // the 8 bytes up to the end of the token, the ones in front
+            // of the digits (the lowest bytes) replaced by '0'
+            long w = Swar.getLongLE(a, end - 8);
+            long high = 0L;
+            if (k < 8) {
+                int shift = (8 - k) << 3;
+                w = (w >>> shift << shift) | (Swar.ZEROES >>> (64 - shift));
+            } else if (k > 8) {
+                high = a[s] - '0';
+                if (k == 10)
+                    high = high * 10 + (a[s + 1] - '0');
+            }
+            words[n] = w;
+            highs[n] = high;
+            signs[n] = sign;
+            indices[n] = d;
+            if (++n == BATCH)
+                convert();
+        }
+
+        // Swar.parseEightDigits(...) for all staged words, plus the high
+        // digits, times the sign, LONGS.length() at a time (the lanes
+        // behind n hold old words, their results are not used)
+        void convert() {
+            for (int j = 0; j < n; j += LONGS.length()) {
+                LongVector v = LongVector.fromArray(LONGS, words, j).sub(Swar.ZEROES);
+                v = v.mul(10L).add(v.lanewise(VectorOperators.LSHR, 8));
+                v = v.and(0x000000FF000000FFL).mul(0x000F424000000064L)
+                     .add(v.lanewise(VectorOperators.LSHR, 16).and(0x000000FF000000FFL)
+                           .mul(0x0000271000000001L))
+                     .lanewise(VectorOperators.LSHR, 32);
+                v.add(LongVector.fromArray(LONGS, highs, j).mul(DEC_8))
+                 .mul(LongVector.fromArray(LONGS, signs, j))
+                 .intoArray(values, j);
+            }
+            for (int j = 0; j < n; ++j) {
+                long r = values[j];
+                boolean ok = r == (int)r; // 10 digits may overflow
+                dst[indices[j]] = ok ? (int)r : defaultValue;
+                if (valid != null)
+                    DelimitedIntParser.setValid(valid, indices[j] + validShift, ok);
+                if (ParseStats.ENABLED && !ok)
+                    ++invalid;
+            }
+            n = 0;
+        }
+
+        // the scalar way, for all tokens which are not simple digits
+        private void parse(int start, int end, int d) {
+            boolean ok = IntBox.tryParse(a, start, end - start, box);
+            dst[d] = ok ? box._n : defaultValue;
+            if (valid != null)
+                DelimitedIntParser.setValid(valid, d + validShift, ok);
+            if (ParseStats.ENABLED && !ok)
+                ++invalid;
+        }
+    }
+}